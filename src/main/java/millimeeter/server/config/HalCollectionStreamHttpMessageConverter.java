@@ -0,0 +1,157 @@
+package millimeeter.server.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.Consumer;
+import millimeeter.server.service.assembler.HalCollectionStream;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.hateoas.server.core.DelegatingLinkRelationProvider;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+/*
+    WRITES A HalCollectionStream WITH A JsonGenerator, ONE ITEM AT A TIME, SO A RESPONSE NEVER
+    HOLDS MORE THAN ONE ASSEMBLED ITEM. THE _embedded OBJECT IS OPENED WITH THE FIRST ITEM AND IS
+    LEFT OUT FOR AN EMPTY COLLECTION, LIKE IN THE HAL RENDERING OF CollectionModel. THE FORMAT IS
+    THE ONE OF THE HAL OBJECT MAPPER OF THE NEGOTIATED MEDIA TYPE, SEE HalMessageConvertersConfig
+
+    NOTHING IS WRITTEN OR FLUSHED BEFORE THE FIRST ITEM, SO WHEN THE ROWS FAIL TO START THE
+    RESPONSE IS NOT COMMITTED AND THE ERROR IS HANDLED LIKE ANY OTHER
+*/
+public class HalCollectionStreamHttpMessageConverter
+    extends AbstractHttpMessageConverter<HalCollectionStream<?>> {
+
+  private final Map<MediaType, ObjectMapper> halObjectMappers;
+  private final DelegatingLinkRelationProvider linkRelationProvider;
+
+  // MEDIA TYPES IN ORDER OF PREFERENCE, THE FIRST ONE IS USED WHEN THE CLIENT ACCEPTS ANY
+  public HalCollectionStreamHttpMessageConverter(
+      Map<MediaType, ObjectMapper> halObjectMappers,
+      DelegatingLinkRelationProvider linkRelationProvider) {
+    super(halObjectMappers.keySet().toArray(MediaType[]::new));
+    this.halObjectMappers = halObjectMappers;
+    this.linkRelationProvider = linkRelationProvider;
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return HalCollectionStream.class.isAssignableFrom(clazz);
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected HalCollectionStream<?> readInternal(
+      Class<? extends HalCollectionStream<?>> clazz, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("HAL collections are not readable", inputMessage);
+  }
+
+  @Override
+  protected void writeInternal(HalCollectionStream<?> stream, HttpOutputMessage outputMessage)
+      throws IOException {
+    ObjectMapper halObjectMapper = halObjectMapperFor(outputMessage.getHeaders().getContentType());
+    // THE SERVLET RESPONSE BUFFER DECIDES WHEN BYTES ARE SENT, NOT EVERY ITEM
+    ObjectWriter itemWriter =
+        halObjectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    try (JsonGenerator generator =
+        halObjectMapper
+            .getFactory()
+            .createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+      // THE CONVERTER FLUSHES THE BODY AFTER A SUCCESSFUL WRITE, CLOSING AFTER A FAILURE MUST NOT
+      generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+      writeEmbedded(stream, generator, itemWriter);
+      if (!stream.getLinks().isEmpty()) {
+        generator.writeFieldName("_links");
+        RepresentationModel<?> links = new RepresentationModel<>(stream.getLinks());
+        itemWriter.writeValue(generator, halObjectMapper.valueToTree(links).get("_links"));
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  ObjectMapper halObjectMapperFor(MediaType contentType) {
+    if (contentType != null) {
+      for (Map.Entry<MediaType, ObjectMapper> entry : halObjectMappers.entrySet()) {
+        if (entry.getKey().isCompatibleWith(contentType)) {
+          return entry.getValue();
+        }
+      }
+    }
+    return halObjectMappers.values().iterator().next();
+  }
+
+  <T> void writeEmbedded(
+      HalCollectionStream<T> stream, JsonGenerator generator, ObjectWriter itemWriter)
+      throws IOException {
+    EmbeddedWriter<T> embeddedWriter =
+        new EmbeddedWriter<>(stream.getAssembler(), generator, itemWriter);
+    try {
+      stream.getRows().forEach(embeddedWriter);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    if (embeddedWriter.started) {
+      generator.writeEndArray();
+      generator.writeEndObject();
+    } else {
+      generator.writeStartObject();
+    }
+  }
+
+  private final class EmbeddedWriter<T> implements Consumer<T> {
+
+    private final RepresentationModelAssembler<T, ? extends RepresentationModel<?>> assembler;
+    private final JsonGenerator generator;
+    private final ObjectWriter itemWriter;
+    private boolean started;
+
+    EmbeddedWriter(
+        RepresentationModelAssembler<T, ? extends RepresentationModel<?>> assembler,
+        JsonGenerator generator,
+        ObjectWriter itemWriter) {
+      this.assembler = assembler;
+      this.generator = generator;
+      this.itemWriter = itemWriter;
+    }
+
+    @Override
+    public void accept(T row) {
+      RepresentationModel<?> model = assembler.toModel(row);
+      try {
+        if (!started) {
+          generator.writeStartObject();
+          generator.writeObjectFieldStart("_embedded");
+          generator.writeArrayFieldStart(collectionRelFor(model));
+          started = true;
+        }
+        itemWriter.writeValue(generator, model);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  // THE SAME RELATION CollectionModel GETS, e.g. matchDtoList FOR EntityModel<MatchDto>
+  String collectionRelFor(RepresentationModel<?> model) {
+    Class<?> type =
+        model instanceof EntityModel<?> entityModel && entityModel.getContent() != null
+            ? entityModel.getContent().getClass()
+            : model.getClass();
+    return linkRelationProvider.getCollectionResourceRelFor(type).value();
+  }
+}
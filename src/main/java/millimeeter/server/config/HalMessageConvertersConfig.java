@@ -0,0 +1,80 @@
+package millimeeter.server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.hateoas.server.core.DelegatingLinkRelationProvider;
+import org.springframework.hateoas.server.mvc.TypeConstrainedMappingJackson2HttpMessageConverter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/*
+    HAL RESPONSES IN JSON, CBOR OR SMILE, CHOSEN BY THE Accept HEADER. THE BINARY FORMATS CARRY
+    THE SAME DOCUMENT AS JSON, WITH NUMBERS IN BINARY AND, IN SMILE, FIELD NAMES SENT ONCE PER
+    RESPONSE, WHICH IS MOST OF THE SIZE OF A SWIPE DECK OR A PAGE OF MESSAGES.
+
+    RESPONSES THAT ARE NOT HAL, LIKE ERRORS, ARE WRITTEN IN CBOR AND SMILE BY THE CONVERTERS SPRING
+    ADDS WHEN THESE FORMATS ARE ON THE CLASSPATH
+*/
+@Configuration
+public class HalMessageConvertersConfig {
+
+  public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+  private final HalMediaTypeConfiguration halMediaTypeConfiguration;
+  private final DelegatingLinkRelationProvider linkRelationProvider;
+
+  @Autowired
+  public HalMessageConvertersConfig(
+      HalMediaTypeConfiguration halMediaTypeConfiguration,
+      DelegatingLinkRelationProvider linkRelationProvider) {
+    this.halMediaTypeConfiguration = halMediaTypeConfiguration;
+    this.linkRelationProvider = linkRelationProvider;
+  }
+
+  @Bean
+  public HalCollectionStreamHttpMessageConverter halCollectionStreamHttpMessageConverter(
+      ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    ObjectMapper halJsonObjectMapper =
+        halMediaTypeConfiguration.configureObjectMapper(objectMapper.copy());
+    Map<MediaType, ObjectMapper> halObjectMappers = new LinkedHashMap<>();
+    halObjectMappers.put(MediaTypes.HAL_JSON, halJsonObjectMapper);
+    halObjectMappers.put(MediaType.APPLICATION_JSON, halJsonObjectMapper);
+    halObjectMappers.put(
+        MediaType.APPLICATION_CBOR, halObjectMapper(objectMapperBuilder.factory(new CBORFactory())));
+    halObjectMappers.put(
+        APPLICATION_SMILE, halObjectMapper(objectMapperBuilder.factory(new SmileFactory())));
+    return new HalCollectionStreamHttpMessageConverter(halObjectMappers, linkRelationProvider);
+  }
+
+  @Bean
+  public TypeConstrainedMappingJackson2HttpMessageConverter halCborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    return new TypeConstrainedMappingJackson2HttpMessageConverter(
+        RepresentationModel.class,
+        List.of(MediaType.APPLICATION_CBOR),
+        halObjectMapper(objectMapperBuilder.factory(new CBORFactory())));
+  }
+
+  @Bean
+  public TypeConstrainedMappingJackson2HttpMessageConverter halSmileHttpMessageConverter(
+      Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    return new TypeConstrainedMappingJackson2HttpMessageConverter(
+        RepresentationModel.class,
+        List.of(APPLICATION_SMILE),
+        halObjectMapper(objectMapperBuilder.factory(new SmileFactory())));
+  }
+
+  ObjectMapper halObjectMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    return halMediaTypeConfiguration.configureObjectMapper(objectMapperBuilder.build());
+  }
+}
@@ -26,6 +26,9 @@ public class SecurityConfig {
         .authorizeRequests()
         .antMatchers("/swagger-ui/**", "/v3/api-docs/**", "/api-docs.yaml", "/api-docs.yaml/**")
         .permitAll()
+        // WEBSOCKET CLIENTS AUTHENTICATE WITH THE STOMP CONNECT FRAME, SEE WebSocketConfig
+        .antMatchers("/ws", "/ws/**")
+        .permitAll()
         .anyRequest()
         .authenticated()
         .and()
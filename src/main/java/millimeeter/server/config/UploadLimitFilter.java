@@ -0,0 +1,113 @@
+package millimeeter.server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/*
+    BOUNDS BYTES OF MULTIPART UPLOADS IN FLIGHT, BEFORE ANY PART IS READ
+
+    A REQUEST RESERVES ITS CONTENT LENGTH, OR THE MAXIMUM REQUEST SIZE WHEN IT IS NOT KNOWN, FOR
+    AS LONG AS IT IS PROCESSED. REQUESTS LARGER THAN THE MAXIMUM REQUEST SIZE ARE REJECTED WITH 413,
+    REQUESTS OVER THE LIMIT OF THEIR USER WITH 429 AND REQUESTS OVER THE GLOBAL LIMIT WITH 503.
+*/
+
+@Component
+public class UploadLimitFilter extends OncePerRequestFilter {
+
+  static final int RETRY_AFTER_SECONDS = 5;
+
+  private final ObjectMapper objectMapper;
+  private final long maxRequestBytes;
+  private final long maxInFlightBytesPerUser;
+  // PERMITS ARE KILOBYTES, AS A SEMAPHORE HOLDS AT MOST Integer.MAX_VALUE PERMITS
+  private final Semaphore inFlightKilobytes;
+  private final Map<String, Long> inFlightBytesByUser = new ConcurrentHashMap<>();
+
+  @Autowired
+  public UploadLimitFilter(
+      ObjectMapper objectMapper,
+      @Value("${spring.servlet.multipart.max-request-size:10MB}") DataSize maxRequestSize,
+      @Value("${millimeeter.uploads.max-in-flight-size-per-user:20MB}")
+          DataSize maxInFlightSizePerUser,
+      @Value("${millimeeter.uploads.max-in-flight-size:256MB}") DataSize maxInFlightSize) {
+    this.objectMapper = objectMapper;
+    this.maxRequestBytes = maxRequestSize.toBytes();
+    this.maxInFlightBytesPerUser = maxInFlightSizePerUser.toBytes();
+    this.inFlightKilobytes = new Semaphore(toKilobytes(maxInFlightSize.toBytes()));
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String contentType = request.getContentType();
+    return contentType == null
+        || !contentType.toLowerCase().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long contentLength = request.getContentLengthLong();
+    if (contentLength > maxRequestBytes) {
+      reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Upload exceeds the maximum request size");
+      return;
+    }
+    long bytes = contentLength < 0 ? maxRequestBytes : contentLength;
+    Principal principal = request.getUserPrincipal();
+    String user = principal != null ? principal.getName() : request.getRemoteAddr();
+
+    if (inFlightBytesByUser.merge(user, bytes, Long::sum) > maxInFlightBytesPerUser) {
+      release(user, bytes);
+      reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many uploads in progress");
+      return;
+    }
+    int kilobytes = toKilobytes(bytes);
+    if (!inFlightKilobytes.tryAcquire(kilobytes)) {
+      release(user, bytes);
+      reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy processing uploads");
+      return;
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      inFlightKilobytes.release(kilobytes);
+      release(user, bytes);
+    }
+  }
+
+  private void release(String user, long bytes) {
+    inFlightBytesByUser.computeIfPresent(
+        user, (key, inFlight) -> inFlight - bytes > 0 ? inFlight - bytes : null);
+  }
+
+  private void reject(HttpServletResponse response, HttpStatus status, String error)
+      throws IOException {
+    response.setStatus(status.value());
+    if (status != HttpStatus.PAYLOAD_TOO_LARGE) {
+      response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+    }
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), Map.of("errors", List.of(error)));
+  }
+
+  static int toKilobytes(long bytes) {
+    return (int) Math.min(Integer.MAX_VALUE, (bytes + 1023) / 1024);
+  }
+}
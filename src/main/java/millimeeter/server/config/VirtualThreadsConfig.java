@@ -0,0 +1,38 @@
+package millimeeter.server.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/*
+    WITH THE virtual-threads PROFILE TOMCAT RUNS EVERY REQUEST ON ITS OWN VIRTUAL THREAD INSTEAD
+    OF ONE OF ITS 200 WORKERS, SO A REQUEST WAITING ON JDBC OR ON THE DISK NO LONGER HOLDS A
+    PLATFORM THREAD. THE CONNECTION POOL BECOMES THE LIMIT, SEE application-virtual-threads.properties
+
+    NEEDS JAVA 21 AT RUNTIME, THE CLASSES ARE STILL COMPILED FOR JAVA 17
+*/
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+    ExecutorService executor = newVirtualThreadPerTaskExecutor();
+    return protocolHandler -> protocolHandler.setExecutor(executor);
+  }
+
+  // LOOKED UP REFLECTIVELY, THE METHOD DOES NOT EXIST IN THE JAVA 17 API THE PROJECT IS BUILT ON
+  static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException("The virtual-threads profile needs Java 21", e);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package millimeeter.server.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+/*
+    STOMP OVER WEBSOCKET AT /ws, USED ONLY TO PUSH EVENTS TO CLIENTS
+
+    THE HANDSHAKE IS OPEN, THE CLIENT AUTHENTICATES WITH THE SAME JWT AS FOR THE REST API IN THE
+    Authorization HEADER OF THE CONNECT FRAME. CLIENTS CAN ONLY SUBSCRIBE TO THEIR OWN QUEUES
+    UNDER /user/queue/, E.G. /user/queue/messages
+*/
+
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+  static final String BEARER_PREFIX = "Bearer ";
+  static final String USER_QUEUE_PREFIX = "/user/queue/";
+
+  private final JwtDecoder jwtDecoder;
+  private final JwtAuthenticationConverter jwtAuthenticationConverter =
+      new JwtAuthenticationConverter();
+
+  @Autowired
+  public WebSocketConfig(JwtDecoder jwtDecoder) {
+    this.jwtDecoder = jwtDecoder;
+  }
+
+  @Override
+  public void registerStompEndpoints(StompEndpointRegistry registry) {
+    registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
+  }
+
+  @Override
+  public void configureMessageBroker(MessageBrokerRegistry registry) {
+    registry.enableSimpleBroker("/queue");
+    registry.setUserDestinationPrefix("/user");
+  }
+
+  // SLOW CLIENTS ARE DISCONNECTED INSTEAD OF BUFFERING EVENTS FOR THEM WITHOUT LIMIT
+  @Override
+  public void configureWebSocketTransport(WebSocketTransportRegistration registry) {
+    registry.setSendTimeLimit(10 * 1000).setSendBufferSizeLimit(512 * 1024);
+  }
+
+  @Override
+  public void configureClientInboundChannel(ChannelRegistration registration) {
+    registration.interceptors(inboundInterceptor());
+  }
+
+  ChannelInterceptor inboundInterceptor() {
+    return new ChannelInterceptor() {
+      @Override
+      public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor =
+            MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+          return message;
+        }
+        switch (accessor.getCommand()) {
+          case CONNECT:
+            authenticate(accessor);
+            break;
+          case SUBSCRIBE:
+            String destination = accessor.getDestination();
+            if (destination == null || !destination.startsWith(USER_QUEUE_PREFIX)) {
+              throw new MessagingException("Subscribing to " + destination + " not allowed");
+            }
+            break;
+          case SEND:
+            throw new MessagingException("Sending messages over WebSocket not supported");
+          default:
+            break;
+        }
+        return message;
+      }
+    };
+  }
+
+  void authenticate(StompHeaderAccessor accessor) {
+    String authorization = accessor.getFirstNativeHeader(HttpHeaders.AUTHORIZATION);
+    if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+      throw new MessagingException("Bearer token is required");
+    }
+    try {
+      accessor.setUser(
+          jwtAuthenticationConverter.convert(
+              jwtDecoder.decode(authorization.substring(BEARER_PREFIX.length()))));
+    } catch (JwtException e) {
+      throw new MessagingException("Invalid bearer token");
+    }
+  }
+}
@@ -1,8 +1,60 @@
 package millimeeter.server.controller;
 
-import org.springframework.web.bind.annotation.CrossOrigin;
-import org.springframework.web.bind.annotation.RestController;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import millimeeter.server.dto.SentDisappearingMessageDto;
+import millimeeter.server.model.DisappearingMessage;
+import millimeeter.server.service.DisappearingMessageService;
+import millimeeter.server.service.assembler.DisappearingMessageModelAssembler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
 
 @CrossOrigin
 @RestController
-public class DisappearingMessageController {}
+@Validated
+@RequestMapping("/api/v1/disappearingMessages")
+public class DisappearingMessageController {
+
+  private final DisappearingMessageService disappearingMessageService;
+  private final DisappearingMessageModelAssembler disappearingMessageModelAssembler;
+
+  @Autowired
+  public DisappearingMessageController(
+      DisappearingMessageService disappearingMessageService,
+      DisappearingMessageModelAssembler disappearingMessageModelAssembler) {
+    this.disappearingMessageService = disappearingMessageService;
+    this.disappearingMessageModelAssembler = disappearingMessageModelAssembler;
+  }
+
+  @GetMapping("/{profileId}")
+  public ResponseEntity<CollectionModel<EntityModel<DisappearingMessage>>> findConversation(
+      @PathVariable @NotNull @Positive(message = "Profile id must be a positive number")
+          Long profileId) {
+    return new ResponseEntity<>(
+        disappearingMessageModelAssembler.toCollectionModel(
+            disappearingMessageService.findConversation(profileId)),
+        HttpStatus.OK);
+  }
+
+  @PostMapping
+  public ResponseEntity<EntityModel<DisappearingMessage>> send(
+      @Valid @RequestBody SentDisappearingMessageDto sentMessageDto) {
+    return new ResponseEntity<>(
+        disappearingMessageModelAssembler.toModel(disappearingMessageService.send(sentMessageDto)),
+        HttpStatus.CREATED);
+  }
+
+  @PutMapping("/read/{profileId}")
+  public ResponseEntity<Void> readMessagesFrom(
+      @PathVariable @NotNull @Positive(message = "Profile id must be a positive number")
+          Long profileId) {
+    disappearingMessageService.readMessagesFrom(profileId);
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
+}
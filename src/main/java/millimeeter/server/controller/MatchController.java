@@ -1,17 +1,20 @@
 package millimeeter.server.controller;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
 import java.util.List;
-import java.util.stream.Collectors;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import millimeeter.server.dto.MatchDto;
 import millimeeter.server.dto.MatchWithMessagesDto;
 import millimeeter.server.service.MatchService;
+import millimeeter.server.service.assembler.HalCollectionStream;
 import millimeeter.server.service.assembler.MatchDtoModelAssembler;
 import millimeeter.server.service.assembler.MatchModelAssembler;
 import millimeeter.server.service.assembler.MatchWithMessagesDtoModelAssembler;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.hateoas.CollectionModel;
-import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -40,23 +43,53 @@ public class MatchController {
     this.matchWithMessagesDtoModelAssembler = matchWithMessagesDtoModelAssembler;
   }
 
+  // A FULL PAGE MAY HAVE MORE MATCHES BEHIND IT, THE CURSOR IS THE LAST MATCH OF THE PAGE
   @GetMapping("/matches")
-  public ResponseEntity<CollectionModel<EntityModel<MatchDto>>> findMatches() {
-    List<EntityModel<MatchDto>> matchesModel =
-        matchService.findAllMatches().stream()
-            .map(matchDtoModelAssembler::toModel)
-            .collect(Collectors.toList());
-    return new ResponseEntity<>(CollectionModel.of(matchesModel), HttpStatus.OK);
+  public ResponseEntity<HalCollectionStream<MatchDto>> findMatches(
+      @RequestParam(required = false)
+          @Positive(message = "The match id must be a positive number")
+          Long before,
+      @RequestParam(required = false)
+          @Positive(message = "The limit must be between 1 and 100")
+          @Max(value = 100, message = "The limit must be between 1 and 100")
+          Integer limit) {
+    int pageSize = limit != null ? limit : MatchService.MATCH_PAGE_SIZE;
+    List<MatchDto> matches = matchService.findMatches(before, pageSize);
+    HalCollectionStream<MatchDto> collectionModel =
+        HalCollectionStream.of(matches::forEach, matchDtoModelAssembler);
+    if (matches.size() == pageSize) {
+      Link next =
+          linkTo(
+                  methodOn(MatchController.class)
+                      .findMatches(matches.get(matches.size() - 1).getId(), limit))
+              .withRel("next");
+      collectionModel = collectionModel.withLinks(List.of(next.expand()));
+    }
+    return new ResponseEntity<>(collectionModel, HttpStatus.OK);
   }
 
   @GetMapping("/conversations")
-  public ResponseEntity<CollectionModel<EntityModel<MatchWithMessagesDto>>>
-      findMatchesWithMessages() {
-    List<EntityModel<MatchWithMessagesDto>> matchesModel =
-        matchService.findAllMatchesWithMessages().stream()
-            .map(matchWithMessagesDtoModelAssembler::toModel)
-            .collect(Collectors.toList());
-    return new ResponseEntity<>(CollectionModel.of(matchesModel), HttpStatus.OK);
+  public ResponseEntity<HalCollectionStream<MatchWithMessagesDto>> findMatchesWithMessages(
+      @RequestParam(required = false)
+          @Positive(message = "The match id must be a positive number")
+          Long before,
+      @RequestParam(required = false)
+          @Positive(message = "The limit must be between 1 and 100")
+          @Max(value = 100, message = "The limit must be between 1 and 100")
+          Integer limit) {
+    int pageSize = limit != null ? limit : MatchService.MATCH_PAGE_SIZE;
+    List<MatchWithMessagesDto> matches = matchService.findMatchesWithMessages(before, pageSize);
+    HalCollectionStream<MatchWithMessagesDto> collectionModel =
+        HalCollectionStream.of(matches::forEach, matchWithMessagesDtoModelAssembler);
+    if (matches.size() == pageSize) {
+      Link next =
+          linkTo(
+                  methodOn(MatchController.class)
+                      .findMatchesWithMessages(matches.get(matches.size() - 1).getId(), limit))
+              .withRel("next");
+      collectionModel = collectionModel.withLinks(List.of(next.expand()));
+    }
+    return new ResponseEntity<>(collectionModel, HttpStatus.OK);
   }
 
   @DeleteMapping("/matches/{id}")
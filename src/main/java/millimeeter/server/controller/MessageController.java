@@ -1,8 +1,11 @@
 package millimeeter.server.controller;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
 import java.util.List;
-import java.util.stream.Collectors;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
@@ -10,11 +13,12 @@ import millimeeter.server.dto.MessageDto;
 import millimeeter.server.dto.SentMessageDto;
 import millimeeter.server.model.Message;
 import millimeeter.server.service.MessageService;
+import millimeeter.server.service.assembler.HalCollectionStream;
 import millimeeter.server.service.assembler.MessageDtoModelAssembler;
 import millimeeter.server.service.assembler.MessageModelAssembler;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -41,13 +45,38 @@ public class MessageController {
   }
 
   @GetMapping("/conversations/{id}")
-  public ResponseEntity<CollectionModel<EntityModel<MessageDto>>> findMessagesByMatchId(
-      @PathVariable @Positive(message = "The match id must be a positive number") Long id) {
-    List<EntityModel<MessageDto>> messagesModel =
-        messageService.findMessagesByMatchId(id).stream()
-            .map(messageDtoModelAssembler::toModel)
-            .collect(Collectors.toList());
-    return new ResponseEntity<>(CollectionModel.of(messagesModel), HttpStatus.OK);
+  public ResponseEntity<HalCollectionStream<MessageDto>> findMessagesByMatchId(
+      @PathVariable @Positive(message = "The match id must be a positive number") Long id,
+      @RequestParam(required = false)
+          @Positive(message = "The message id must be a positive number")
+          Long before,
+      @RequestParam(required = false)
+          @Positive(message = "The message id must be a positive number")
+          Long after,
+      @RequestParam(required = false)
+          @Positive(message = "The limit must be between 1 and 100")
+          @Max(value = 100, message = "The limit must be between 1 and 100")
+          Integer limit) {
+    int pageSize = limit != null ? limit : MessageService.CONVERSATION_PAGE_SIZE;
+    List<MessageDto> messages = messageService.findMessagesByMatchId(id, before, after, pageSize);
+    HalCollectionStream<MessageDto> collectionModel =
+        HalCollectionStream.of(messages::forEach, messageDtoModelAssembler);
+    // A FULL PAGE MAY HAVE MORE MESSAGES BEHIND IT, THE CURSOR IS THE LAST MESSAGE IN PAGE ORDER
+    if (messages.size() == pageSize) {
+      Link next =
+          after != null
+              ? linkTo(
+                      methodOn(MessageController.class)
+                          .findMessagesByMatchId(id, null, messages.get(0).getId(), limit))
+                  .withRel("next")
+              : linkTo(
+                      methodOn(MessageController.class)
+                          .findMessagesByMatchId(
+                              id, messages.get(messages.size() - 1).getId(), null, limit))
+                  .withRel("next");
+      collectionModel = collectionModel.withLinks(List.of(next.expand()));
+    }
+    return new ResponseEntity<>(collectionModel, HttpStatus.OK);
   }
 
   @PostMapping("/messages")
@@ -0,0 +1,174 @@
+package millimeeter.server.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import millimeeter.server.service.photo.PhotoStore;
+import millimeeter.server.service.photo.PhotoVariant;
+import millimeeter.server.service.photo.PhotoVariantService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+/*
+    PHOTOS ARE NEVER MODIFIED UNDER THE SAME NAME, SO THE NAME IS A STRONG ETAG AND CLIENTS MAY
+    CACHE THEM FOREVER. FILES ARE HANDED TO TOMCAT TO BE SENT WITH SENDFILE WHEN THE CONNECTOR
+    SUPPORTS IT, OTHERWISE THEY ARE COPIED WITH FileChannel.transferTo. A SINGLE BYTE RANGE IS
+    SUPPORTED, MULTIPLE RANGES ARE ANSWERED WITH THE WHOLE PHOTO. A VARIANT NOT GENERATED YET IS
+    ANSWERED WITH THE ORIGINAL, WHICH CLIENTS MUST REVALIDATE.
+*/
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/photos")
+public class PhotoController {
+
+  static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+  static final String FALLBACK_CACHE_CONTROL = "private, no-cache";
+  static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private final PhotoStore photoStore;
+  private final PhotoVariantService photoVariantService;
+
+  @Autowired
+  public PhotoController(PhotoStore photoStore, PhotoVariantService photoVariantService) {
+    this.photoStore = photoStore;
+    this.photoVariantService = photoVariantService;
+  }
+
+  @GetMapping("/{name}")
+  public void getPhoto(
+      @PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    Optional<String> originalName = PhotoVariant.findOriginalName(name);
+    boolean variantMissing = originalName.isPresent() && !photoStore.exists(name);
+    if (variantMissing) {
+      // VARIANT NOT GENERATED YET, THE ORIGINAL IS SERVED UNTIL IT IS
+      name = originalName.get();
+    }
+    if (!photoStore.exists(name)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Photo not exists");
+    }
+    // ONLY AN EXISTING ORIGINAL IS QUEUED, A MISSING ONE WOULD TAKE A WORKER FOR NOTHING
+    if (variantMissing) {
+      photoVariantService.generateVariants(name);
+    }
+    String cacheControl = variantMissing ? FALLBACK_CACHE_CONTROL : CACHE_CONTROL;
+
+    // THE NAME IS THE ETAG, SO A REVALIDATION NEVER TOUCHES THE PHOTO ITSELF
+    String etag = "\"" + name + "\"";
+    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+    if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+      return;
+    }
+
+    Optional<Path> file = photoStore.findFile(name);
+    long length =
+        file.isPresent()
+            ? file.get().toFile().length()
+            : photoStore
+                .size(name)
+                .orElseThrow(
+                    () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Photo not exists"));
+    response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+    long start = 0;
+    long end = length - 1;
+    HttpRange range = findRange(request, etag);
+    if (range != null) {
+      try {
+        start = range.getRangeStart(length);
+        end = range.getRangeEnd(length);
+      } catch (IllegalArgumentException e) {
+        start = length;
+      }
+      if (start >= length || start > end) {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        return;
+      }
+      response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+    }
+    long count = end - start + 1;
+    response.setContentLengthLong(count);
+    if (count <= 0 || "HEAD".equals(request.getMethod())) {
+      return;
+    }
+
+    if (file.isEmpty()) {
+      // NOT WRITTEN TO DISK YET
+      try (InputStream inputStream =
+          photoStore
+              .open(name)
+              .orElseThrow(
+                  () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Photo not exists"))) {
+        if (count == length) {
+          StreamUtils.copy(inputStream, response.getOutputStream());
+        } else {
+          StreamUtils.copyRange(inputStream, response.getOutputStream(), start, end);
+        }
+      }
+    } else if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, file.get().toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, start);
+      request.setAttribute(SENDFILE_END, end + 1);
+    } else {
+      transfer(file.get(), start, count, response.getOutputStream());
+    }
+  }
+
+  // NULL WHEN THE WHOLE PHOTO IS REQUESTED OR THE RANGE CANNOT BE USED
+  static HttpRange findRange(HttpServletRequest request, String etag) {
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    if (rangeHeader == null) {
+      return null;
+    }
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange != null && !ifRange.equals(etag)) {
+      return null;
+    }
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+      return ranges.size() == 1 ? ranges.get(0) : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  static void transfer(Path path, long start, long count, OutputStream outputStream)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      WritableByteChannel target = Channels.newChannel(outputStream);
+      long position = start;
+      long remaining = count;
+      while (remaining > 0) {
+        long transferred = channel.transferTo(position, remaining, target);
+        if (transferred <= 0) {
+          break;
+        }
+        position += transferred;
+        remaining -= transferred;
+      }
+    }
+  }
+}
@@ -1,14 +1,20 @@
 package millimeeter.server.controller;
 
 import java.util.Map;
+import javax.validation.Valid;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
+import millimeeter.server.dto.SwipeBatchDto;
+import millimeeter.server.dto.SwipeResultDto;
 import millimeeter.server.model.Match;
 import millimeeter.server.model.Swipe;
 import millimeeter.server.service.SwipeService;
 import millimeeter.server.service.assembler.MatchModelAssembler;
 import millimeeter.server.service.assembler.SwipeModelAssembler;
+import millimeeter.server.service.assembler.SwipeResultDtoModelAssembler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -23,15 +29,18 @@ public class SwipeController {
   private final SwipeService swipeService;
   private final MatchModelAssembler matchModelAssembler;
   private final SwipeModelAssembler swipeModelAssembler;
+  private final SwipeResultDtoModelAssembler swipeResultDtoModelAssembler;
 
   @Autowired
   public SwipeController(
       SwipeService swipeService,
       MatchModelAssembler matchModelAssembler,
-      SwipeModelAssembler swipeModelAssembler) {
+      SwipeModelAssembler swipeModelAssembler,
+      SwipeResultDtoModelAssembler swipeResultDtoModelAssembler) {
     this.swipeService = swipeService;
     this.matchModelAssembler = matchModelAssembler;
     this.swipeModelAssembler = swipeModelAssembler;
+    this.swipeResultDtoModelAssembler = swipeResultDtoModelAssembler;
   }
 
   @PostMapping("/{id}/{direction}")
@@ -49,4 +58,14 @@ public class SwipeController {
           swipeModelAssembler.toModel((Swipe) resultMap.get("swipe")), HttpStatus.CREATED);
     }
   }
+
+  // REPLAYS SWIPES QUEUED WHILE OFFLINE, ONE RESULT PER SWIPE IN THE SENT ORDER
+  @PostMapping("/batch")
+  public ResponseEntity<CollectionModel<EntityModel<SwipeResultDto>>> swipeBatch(
+      @Valid @RequestBody SwipeBatchDto swipeBatchDto) {
+    return new ResponseEntity<>(
+        swipeResultDtoModelAssembler.toCollectionModel(
+            swipeService.swipeBatch(swipeBatchDto.getSwipes())),
+        HttpStatus.OK);
+  }
 }
@@ -0,0 +1,37 @@
+package millimeeter.server.controller;
+
+import javax.validation.constraints.PositiveOrZero;
+import millimeeter.server.dto.SyncDto;
+import millimeeter.server.service.SyncService;
+import millimeeter.server.service.assembler.SyncDtoModelAssembler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin
+@RestController
+@Validated
+@RequestMapping("/api/v1/sync")
+public class SyncController {
+
+  private final SyncService syncService;
+  private final SyncDtoModelAssembler syncDtoModelAssembler;
+
+  @Autowired
+  public SyncController(SyncService syncService, SyncDtoModelAssembler syncDtoModelAssembler) {
+    this.syncService = syncService;
+    this.syncDtoModelAssembler = syncDtoModelAssembler;
+  }
+
+  @GetMapping
+  public ResponseEntity<EntityModel<SyncDto>> sync(
+      @RequestParam(required = false)
+          @PositiveOrZero(message = "The sync token must be a non-negative number")
+          Long since) {
+    return new ResponseEntity<>(
+        syncDtoModelAssembler.toModel(syncService.sync(since)), HttpStatus.OK);
+  }
+}
@@ -0,0 +1,23 @@
+package millimeeter.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import millimeeter.server.enums.ChangeType;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeDto {
+
+  private Long seq;
+  private ChangeType type;
+  private Long matchId;
+  private Long messageId;
+  // CURRENT STATE OF THE MATCH FOR MATCH_CREATED, NULL WHEN DELETED SINCE
+  private MatchDto match;
+  // CURRENT STATE OF THE MESSAGE FOR MESSAGE_SENT AND MESSAGE_UPDATED, NULL WHEN DELETED SINCE
+  private MessageDto message;
+}
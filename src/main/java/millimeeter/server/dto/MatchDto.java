@@ -1,20 +1,14 @@
 package millimeeter.server.dto;
 
 import java.time.LocalDateTime;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
+import lombok.Value;
 
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
 public class MatchDto {
 
-  private Long id;
-  private Long profileId;
-  private String firstName;
-  private String[] photos;
-  private LocalDateTime matchedAt;
+  Long id;
+  Long profileId;
+  String firstName;
+  String[] photos;
+  LocalDateTime matchedAt;
 }
@@ -1,24 +1,19 @@
 package millimeeter.server.dto;
 
 import java.time.LocalDateTime;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
+import lombok.Value;
 import millimeeter.server.enums.MessageStatus;
 
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
 public class MatchWithMessagesDto {
 
-  private Long id;
-  private Long profileId;
-  private String firstName;
-  private String[] photos;
-  private Long senderId;
-  private String lastMessageContent;
-  private MessageStatus lastMessageStatus;
-  private LocalDateTime lastMessageSentAt;
+  Long id;
+  Long profileId;
+  String firstName;
+  String[] photos;
+  Long senderId;
+  String lastMessageContent;
+  MessageStatus lastMessageStatus;
+  LocalDateTime lastMessageSentAt;
+  Integer unreadCount;
 }
@@ -0,0 +1,22 @@
+package millimeeter.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import millimeeter.server.enums.MessageEventType;
+import millimeeter.server.model.Message;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageEventDto {
+
+  private MessageEventType type;
+  private Long matchId;
+  // PROFILE WHICH CAUSED THE EVENT
+  private Long profileId;
+  // NULL FOR MESSAGES_READ
+  private Message message;
+}
@@ -1,23 +1,17 @@
 package millimeeter.server.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
+import lombok.Value;
 import millimeeter.server.enums.Gender;
 
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
 public class ProfileToSwipeDto {
 
-  private Long id;
-  private String firstName;
-  private Integer age;
-  private Gender gender;
-  private String[] photos;
-  private String description;
-  private String mySong;
-  private Integer distanceAway;
+  Long id;
+  String firstName;
+  Integer age;
+  Gender gender;
+  String[] photos;
+  String description;
+  String mySong;
+  Integer distanceAway;
 }
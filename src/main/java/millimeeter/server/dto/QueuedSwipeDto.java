@@ -0,0 +1,26 @@
+package millimeeter.server.dto;
+
+import java.time.LocalDateTime;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class QueuedSwipeDto {
+
+  @NotNull(message = "Profile id is required")
+  @Positive(message = "Profile id must be a positive number")
+  private Long id;
+
+  @NotNull(message = "The swipe value is required")
+  @Pattern(regexp = "LEFT|RIGHT", message = "The swipe value must be LEFT or RIGHT")
+  private String direction;
+
+  // WHEN THE SWIPE WAS MADE OFFLINE, NOW IF MISSING OR IN THE FUTURE
+  private LocalDateTime clientTimestamp;
+}
@@ -0,0 +1,19 @@
+package millimeeter.server.dto;
+
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SwipeBatchDto {
+
+  @NotEmpty(message = "At least one swipe is required")
+  @Size(max = 50, message = "At most 50 swipes can be sent at once")
+  private List<@Valid QueuedSwipeDto> swipes;
+}
@@ -0,0 +1,24 @@
+package millimeeter.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import millimeeter.server.enums.SwipeResult;
+import millimeeter.server.model.Match;
+import millimeeter.server.model.Swipe;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwipeResultDto {
+
+  // SWIPED PROFILE ID, RESULTS ARE IN THE ORDER OF THE SENT SWIPES
+  private Long id;
+  private SwipeResult result;
+  // NULL UNLESS SWIPED OR MATCHED
+  private Swipe swipe;
+  // NULL UNLESS MATCHED
+  private Match match;
+}
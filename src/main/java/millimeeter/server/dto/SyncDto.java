@@ -0,0 +1,19 @@
+package millimeeter.server.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncDto {
+
+  // TO BE SENT AS since WITH THE NEXT SYNC
+  private Long token;
+  private Boolean hasMore;
+  private List<ChangeDto> changes;
+}
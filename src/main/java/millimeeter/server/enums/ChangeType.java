@@ -0,0 +1,11 @@
+package millimeeter.server.enums;
+
+public enum ChangeType {
+  MATCH_CREATED,
+  MATCH_DELETED,
+  MESSAGE_SENT,
+  MESSAGE_UPDATED,
+  // MESSAGES OF THE OTHER PARTICIPANT UP TO messageId WERE SEEN OR DELIVERED
+  MESSAGES_READ,
+  MESSAGES_DELIVERED
+}
@@ -0,0 +1,7 @@
+package millimeeter.server.enums;
+
+public enum MessageEventType {
+  MESSAGE_SENT,
+  MESSAGE_REACTED,
+  MESSAGES_READ
+}
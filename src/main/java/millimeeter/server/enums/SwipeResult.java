@@ -0,0 +1,11 @@
+package millimeeter.server.enums;
+
+public enum SwipeResult {
+  SWIPED,
+  MATCHED,
+  // THE PROFILE WAS ALREADY SWIPED, BEFORE OR EARLIER IN THE SAME BATCH
+  DUPLICATE,
+  QUOTA_EXCEEDED,
+  SELF,
+  NOT_FOUND
+}
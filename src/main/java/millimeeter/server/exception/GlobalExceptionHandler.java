@@ -9,14 +9,17 @@ import javax.validation.ConstraintViolationException;
 import org.apache.tomcat.util.http.fileupload.impl.InvalidContentTypeException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.support.MissingServletRequestPartException;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
@@ -101,6 +104,23 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     return new ResponseEntity<>(ex.getRootCause().getMessage(), HttpStatus.UNPROCESSABLE_ENTITY);
   }
 
+  // UPLOADS OF UNKNOWN LENGTH EXCEEDING THE LIMIT ONCE READ, SEE UploadLimitFilter
+  @ExceptionHandler(MaxUploadSizeExceededException.class)
+  public ResponseEntity<Object> handleMaxUploadSizeExceededException(
+      MaxUploadSizeExceededException ex) {
+    Map<String, List<String>> body = new HashMap<>();
+    body.put("errors", List.of("Upload exceeds the maximum request size"));
+    return new ResponseEntity<>(body, HttpStatus.PAYLOAD_TOO_LARGE);
+  }
+
+  // e.g. A STREAMED LIST WHOSE TRANSACTION TIMED OUT BEFORE ITS FIRST ITEM, SEE MatchService
+  @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+  public ResponseEntity<Object> handleTimeoutException(RuntimeException ex) {
+    Map<String, List<String>> body = new HashMap<>();
+    body.put("errors", List.of("The request timed out, try again later"));
+    return new ResponseEntity<>(body, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   @ExceptionHandler(ResponseStatusException.class)
   public ResponseEntity<Object> handleResponseStatusException(ResponseStatusException ex) {
     Map<String, List<String>> body = new HashMap<>();
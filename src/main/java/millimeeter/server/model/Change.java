@@ -0,0 +1,48 @@
+package millimeeter.server.model;
+
+import java.time.LocalDateTime;
+import javax.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import millimeeter.server.enums.ChangeType;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity(name = "changes")
+public class Change {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "changes_id_seq")
+  @SequenceGenerator(name = "changes_id_seq", sequenceName = "changes_id_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "profile_id")
+  private Long profileId;
+
+  private Long seq;
+
+  @Enumerated(EnumType.STRING)
+  private ChangeType type;
+
+  @Column(name = "match_id")
+  private Long matchId;
+
+  @Column(name = "message_id")
+  private Long messageId;
+
+  @Column(name = "created_at")
+  private LocalDateTime createdAt;
+
+  public Change(Long profileId, Long seq, ChangeType type, Long matchId, Long messageId) {
+    this.profileId = profileId;
+    this.seq = seq;
+    this.type = type;
+    this.matchId = matchId;
+    this.messageId = messageId;
+    this.createdAt = LocalDateTime.now();
+  }
+}
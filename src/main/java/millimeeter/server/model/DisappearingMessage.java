@@ -21,7 +21,11 @@ import org.hibernate.annotations.TypeDef;
 public class DisappearingMessage {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "disappearing_messages_id_seq")
+  @SequenceGenerator(
+      name = "disappearing_messages_id_seq",
+      sequenceName = "disappearing_messages_id_seq",
+      allocationSize = 50)
   private Long id;
 
   @Column(name = "sender_id")
@@ -15,7 +15,8 @@ import lombok.Setter;
 public class Match {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "matches_id_seq")
+  @SequenceGenerator(name = "matches_id_seq", sequenceName = "matches_id_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "profile_id_1")
@@ -22,7 +22,11 @@ import org.hibernate.annotations.TypeDef;
 public class Message {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_id_seq")
+  @SequenceGenerator(
+      name = "messages_id_seq",
+      sequenceName = "messages_id_seq",
+      allocationSize = 50)
   private Long id;
 
   @Column(name = "sender_id")
@@ -13,6 +13,7 @@ import lombok.Setter;
 import millimeeter.server.dto.RegistrationDto;
 import millimeeter.server.enums.Gender;
 import millimeeter.server.enums.LookingFor;
+import millimeeter.server.service.discovery.ProfileDiscoveryListener;
 import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
 import org.hibernate.annotations.TypeDefs;
@@ -22,6 +23,7 @@ import org.hibernate.annotations.TypeDefs;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "profiles")
+@EntityListeners(ProfileDiscoveryListener.class)
 @TypeDefs({
   @TypeDef(name = "list-array", typeClass = ListArrayType.class),
   @TypeDef(name = "pgsql_enum", typeClass = PostgreSQLEnumType.class)
@@ -50,10 +52,12 @@ public class Profile {
   @Column(name = "my_song")
   private String mySong;
 
-  @Column(name = "last_latitude")
+  // LOCATIONS ARE ONLY UPDATED BY LocationUpdateBuffer, SAVING A PROFILE LOADED BEFORE A FLUSH
+  // MUST NOT WRITE ITS STALE LOCATION BACK
+  @Column(name = "last_latitude", updatable = false)
   private Double lastLatitude;
 
-  @Column(name = "last_longitude")
+  @Column(name = "last_longitude", updatable = false)
   private Double lastLongitude;
 
   @Column(name = "created_at")
@@ -20,7 +20,8 @@ import org.hibernate.annotations.TypeDef;
 public class Swipe {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "swipes_id_seq")
+  @SequenceGenerator(name = "swipes_id_seq", sequenceName = "swipes_id_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "sender_id")
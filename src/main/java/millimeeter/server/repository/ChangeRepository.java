@@ -0,0 +1,48 @@
+package millimeeter.server.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import millimeeter.server.model.Change;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ChangeRepository extends JpaRepository<Change, Long> {
+
+  // LOCKS THE COUNTER ROW OF THE PROFILE UNTIL THE END OF THE TRANSACTION
+  @Transactional
+  @Query(
+      value =
+          "INSERT INTO sync_counters (profile_id, seq) VALUES (?1, 1) ON CONFLICT (profile_id) DO"
+              + " UPDATE SET seq = sync_counters.seq + 1 RETURNING seq;",
+      nativeQuery = true)
+  Long incrementSeq(Long profileId);
+
+  // RESERVES count SEQUENCE NUMBERS AT ONCE, RETURNS THE LAST ONE
+  @Transactional
+  @Query(
+      value =
+          "INSERT INTO sync_counters (profile_id, seq) VALUES (?1, ?2) ON CONFLICT (profile_id) DO"
+              + " UPDATE SET seq = sync_counters.seq + ?2 RETURNING seq;",
+      nativeQuery = true)
+  Long incrementSeqBy(Long profileId, int count);
+
+  @Query(value = "SELECT seq FROM sync_counters WHERE profile_id = ?1", nativeQuery = true)
+  Long findSeqByProfileId(Long profileId);
+
+  @Query("SELECT c FROM changes c WHERE c.profileId = ?1 AND c.seq > ?2 ORDER BY c.seq")
+  List<Change> findChangesAfter(Long profileId, Long seq, Pageable pageable);
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "DELETE FROM changes WHERE id IN (SELECT id FROM changes WHERE created_at < ?1 ORDER BY"
+              + " created_at LIMIT ?2)",
+      nativeQuery = true)
+  int deleteOldestChangesCreatedBefore(LocalDateTime createdBefore, int limit);
+}
@@ -1,8 +1,36 @@
 package millimeeter.server.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import millimeeter.server.model.DisappearingMessage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface DisappearingMessageRepository extends JpaRepository<DisappearingMessage, Long> {}
+public interface DisappearingMessageRepository extends JpaRepository<DisappearingMessage, Long> {
+
+  // MESSAGES SEEN BEFORE seenAfter ARE EXPIRED EVEN IF NOT DELETED YET
+  @Query(
+      "SELECT d FROM disappearing_messages d "
+          + "WHERE (d.senderId = ?1 AND d.receiverId = ?2 "
+          + "OR d.senderId = ?2 AND d.receiverId = ?1) "
+          + "AND (d.seenAt IS NULL OR d.seenAt > ?3) "
+          + "ORDER BY d.id")
+  List<DisappearingMessage> findConversation(
+      Long profileId1, Long profileId2, LocalDateTime seenAfter);
+
+  @Query(
+      "SELECT COUNT(d) > 0 FROM disappearing_messages d WHERE d.id = ?1 "
+          + "AND (d.senderId = ?2 AND d.receiverId = ?3 "
+          + "OR d.senderId = ?3 AND d.receiverId = ?2)")
+  boolean existsInConversation(Long id, Long profileId1, Long profileId2);
+
+  // IDS OF THE MESSAGES MARKED AS SEEN
+  @Query(
+      value =
+          "UPDATE disappearing_messages SET seen_at = ?3, status = 'SEEN' WHERE sender_id = ?1"
+              + " AND receiver_id = ?2 AND seen_at IS NULL RETURNING id",
+      nativeQuery = true)
+  List<Number> markAsSeen(Long senderId, Long receiverId, LocalDateTime seenAt);
+}
@@ -0,0 +1,130 @@
+package millimeeter.server.repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+import millimeeter.server.dto.MatchDto;
+import millimeeter.server.dto.MatchWithMessagesDto;
+import millimeeter.server.enums.MessageStatus;
+import millimeeter.server.service.photo.PhotoVariant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/*
+    MATCH LISTS READ STRAIGHT INTO THEIR DTOS. COLUMNS ARE READ BY INDEX IN THE ORDER OF THE SELECT
+    LISTS BELOW AND PHOTOS AS A text[], SO A ROW ALLOCATES ONLY ITS DTO AND ITS VALUES. LISTS ARE
+    READ A PAGE AT A TIME, NEWEST FIRST, A PAGE STARTS AFTER THE MATCH GIVEN AS before, IN THE
+    ORDER OF THE LIST, OR AT THE TOP WHEN before IS NULL
+*/
+@Repository
+public class MatchListRepository {
+
+  static final String FIND_MATCHES_WITHOUT_MESSAGES =
+      "SELECT matches.id, profiles.id, profiles.first_name, profiles.photos, matches.matched_at"
+          + " FROM matches JOIN profiles ON (profiles.id = matches.profile_id_1 OR profiles.id ="
+          + " matches.profile_id_2) WHERE matches.id NOT IN (SELECT match_id FROM"
+          + " public.messages) AND profiles.id != ? AND (matches.profile_id_1 = ? OR"
+          + " matches.profile_id_2 = ?) AND (?::bigint IS NULL OR (matches.matched_at,"
+          + " matches.id) < (SELECT m.matched_at, m.id FROM matches m WHERE m.id = ?)) ORDER BY"
+          + " matches.matched_at DESC, matches.id DESC LIMIT ?";
+
+  static final String FIND_MATCHES_BY_IDS =
+      "SELECT matches.id, profiles.id, profiles.first_name, profiles.photos, matches.matched_at"
+          + " FROM matches JOIN profiles ON profiles.id = CASE WHEN matches.profile_id_1 = ? THEN"
+          + " matches.profile_id_2 ELSE matches.profile_id_1 END WHERE matches.id = ANY(?)";
+
+  static final String FIND_MATCHES_WITH_MESSAGES =
+      "SELECT inbox.match_id, inbox.counterpart_id, profiles.first_name, profiles.photos,"
+          + " inbox.last_message_sender_id, inbox.last_message_content, inbox.last_message_status,"
+          + " inbox.last_message_sent_at, inbox.unread_count FROM inbox JOIN profiles ON"
+          + " profiles.id = inbox.counterpart_id WHERE inbox.profile_id = ? AND"
+          + " inbox.last_message_id IS NOT NULL AND (?::bigint IS NULL OR"
+          + " (inbox.last_message_sent_at, inbox.match_id) < (SELECT i.last_message_sent_at,"
+          + " i.match_id FROM inbox i WHERE i.profile_id = ? AND i.match_id = ?)) ORDER BY"
+          + " inbox.last_message_sent_at DESC, inbox.match_id DESC LIMIT ?";
+
+  static final RowMapper<MatchDto> MATCH_MAPPER =
+      (resultSet, rowNum) ->
+          new MatchDto(
+              resultSet.getLong(1),
+              resultSet.getLong(2),
+              resultSet.getString(3),
+              PhotoVariant.AVATAR.namesFor(getTextArray(resultSet, 4)),
+              resultSet.getTimestamp(5).toLocalDateTime());
+
+  static final RowMapper<MatchWithMessagesDto> MATCH_WITH_MESSAGES_MAPPER =
+      (resultSet, rowNum) ->
+          new MatchWithMessagesDto(
+              resultSet.getLong(1),
+              resultSet.getLong(2),
+              resultSet.getString(3),
+              PhotoVariant.AVATAR.namesFor(getTextArray(resultSet, 4)),
+              resultSet.getLong(5),
+              resultSet.getString(6),
+              MessageStatus.valueOf(resultSet.getString(7)),
+              resultSet.getTimestamp(8).toLocalDateTime(),
+              resultSet.getInt(9));
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public MatchListRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public List<MatchDto> findMatchesWithoutMessages(Long profileId, Long before, int limit) {
+    return jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(FIND_MATCHES_WITHOUT_MESSAGES);
+          statement.setLong(1, profileId);
+          statement.setLong(2, profileId);
+          statement.setLong(3, profileId);
+          statement.setObject(4, before, Types.BIGINT);
+          statement.setObject(5, before, Types.BIGINT);
+          statement.setInt(6, limit);
+          return statement;
+        },
+        MATCH_MAPPER);
+  }
+
+  public List<MatchWithMessagesDto> findMatchesWithMessages(
+      Long profileId, Long before, int limit) {
+    return jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(FIND_MATCHES_WITH_MESSAGES);
+          statement.setLong(1, profileId);
+          statement.setObject(2, before, Types.BIGINT);
+          statement.setLong(3, profileId);
+          statement.setObject(4, before, Types.BIGINT);
+          statement.setInt(5, limit);
+          return statement;
+        },
+        MATCH_WITH_MESSAGES_MAPPER);
+  }
+
+  public List<MatchDto> findMatchesByIds(Long profileId, Collection<Long> ids) {
+    return jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(FIND_MATCHES_BY_IDS);
+          statement.setLong(1, profileId);
+          statement.setArray(2, connection.createArrayOf("bigint", ids.toArray()));
+          return statement;
+        },
+        MATCH_MAPPER);
+  }
+
+  static String[] getTextArray(ResultSet resultSet, int column) throws SQLException {
+    Array array = resultSet.getArray(column);
+    try {
+      return (String[]) array.getArray();
+    } finally {
+      array.free();
+    }
+  }
+}
@@ -1,35 +1,83 @@
 package millimeeter.server.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import javax.persistence.Tuple;
 import millimeeter.server.model.Match;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Long> {
 
+  @Query(
+      "SELECT COUNT(m) > 0 FROM matches m "
+          + "WHERE m.profileId1 = ?1 AND m.profileId2 = ?2 "
+          + "OR m.profileId1 = ?2 AND m.profileId2 = ?1")
+  boolean existsBetween(Long profileId1, Long profileId2);
+
+  @Query("SELECT m FROM matches m WHERE m.profileId1 = ?1 OR m.profileId2 = ?1")
+  List<Match> findAllMatchesByProfileId(Long profileId);
+
+  /*
+      INBOX MAINTENANCE, SEE db/002-inbox.sql. ROWS OF A DELETED MATCH OR PROFILE ARE REMOVED BY
+      THE FOREIGN KEYS
+  */
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "INSERT INTO inbox (profile_id, match_id, counterpart_id) VALUES (?2, ?1, ?3), (?3, ?1,"
+              + " ?2) ON CONFLICT DO NOTHING",
+      nativeQuery = true)
+  void addToInbox(Long matchId, Long profileId1, Long profileId2);
+
+  @Modifying
+  @Transactional
+  @Query(value = "DELETE FROM inbox WHERE match_id = ?1", nativeQuery = true)
+  void deleteFromInbox(Long matchId);
+
+  // MESSAGES COMMITTED OUT OF ORDER MUST NOT REPLACE A NEWER LAST MESSAGE
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "UPDATE inbox SET unread_count = unread_count + CASE WHEN profile_id = ?3 THEN 0 ELSE 1"
+              + " END, last_message_sender_id = CASE WHEN COALESCE(last_message_id, 0) < ?2 THEN"
+              + " ?3 ELSE last_message_sender_id END, last_message_content = CASE WHEN"
+              + " COALESCE(last_message_id, 0) < ?2 THEN ?4 ELSE last_message_content END,"
+              + " last_message_status = CASE WHEN COALESCE(last_message_id, 0) < ?2 THEN ?5 ELSE"
+              + " last_message_status END, last_message_sent_at = CASE WHEN"
+              + " COALESCE(last_message_id, 0) < ?2 THEN ?6 ELSE last_message_sent_at END,"
+              + " last_message_id = GREATEST(last_message_id, ?2) WHERE match_id = ?1",
+      nativeQuery = true)
+  void updateInboxOnMessageSent(
+      Long matchId,
+      Long messageId,
+      Long senderId,
+      String content,
+      String status,
+      LocalDateTime sentAt);
+
+  @Modifying
+  @Transactional
   @Query(
       value =
-          "SELECT matches.id AS match_id, profiles.id AS profile_id, profiles.first_name,"
-              + " ARRAY_TO_STRING(profiles.photos, ';', '*') AS photos, matches.matched_at FROM"
-              + " matches JOIN profiles ON (profiles.id = matches.profile_id_1 OR profiles.id ="
-              + " matches.profile_id_2) WHERE matches.id NOT IN (SELECT match_id FROM"
-              + " public.messages) AND profiles.id != ?1 AND (matches.profile_id_1 = ?1 OR"
-              + " matches.profile_id_2 = ?1) ORDER BY matches.matched_at DESC;",
+          "UPDATE inbox SET unread_count = CASE WHEN profile_id = ?1 THEN 0 ELSE unread_count"
+              + " END, last_message_status = CASE WHEN last_message_sender_id <> ?1 THEN 'SEEN'"
+              + " ELSE last_message_status END WHERE match_id = ?2",
       nativeQuery = true)
-  List<Tuple> findAllMatchesWithoutMessages(Long profileId);
+  void updateInboxOnMessagesRead(Long profileId, Long matchId);
 
+  @Modifying
+  @Transactional
   @Query(
       value =
-          "SELECT * FROM (SELECT DISTINCT ON (matches.id) matches.id AS match_id, profiles.id AS"
-              + " profile_id, profiles.first_name, ARRAY_TO_STRING(profiles.photos, ';', '*') AS"
-              + " photos, messages.sender_id, messages.content, messages.status, messages.sent_at"
-              + " FROM matches JOIN messages ON matches.id = messages.match_id JOIN profiles ON"
-              + " (matches.profile_id_1 = profiles.id OR matches.profile_id_2 = profiles.id) WHERE"
-              + " profiles.id != ?1 AND (matches.profile_id_1 = ?1 OR matches.profile_id_2 = ?1)"
-              + " ORDER BY match_id, messages.sent_at DESC) m ORDER BY m.sent_at DESC;",
+          "UPDATE inbox SET last_message_status = 'DELIVERED' WHERE match_id IN (SELECT match_id"
+              + " FROM inbox WHERE profile_id = ?1) AND last_message_status = 'SENT'",
       nativeQuery = true)
-  List<Tuple> findAllMatchesWithMessages(Long profileId);
+  void updateInboxOnMessagesDelivered(Long profileId);
 }
@@ -1,8 +1,11 @@
 package millimeeter.server.repository;
 
+import java.util.Collection;
 import java.util.List;
+import javax.persistence.Tuple;
 import millimeeter.server.dto.MessageDto;
 import millimeeter.server.model.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -15,8 +18,31 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
   @Query(
       "SELECT new millimeeter.server.dto.MessageDto(m.id, m.senderId, m.content, m.parentMessageId,"
           + " m.senderReaction, m.receiverReaction, m.status, m.sentAt, m.seenAt) FROM messages m"
-          + " WHERE m.matchId = ?1 ORDER BY m.sentAt DESC")
-  List<MessageDto> findMessagesByMatchId(Long id);
+          + " WHERE m.matchId = ?1 AND m.id < ?2 ORDER BY m.id DESC")
+  List<MessageDto> findMessagesByMatchIdBefore(Long id, Long before, Pageable pageable);
+
+  @Query(
+      "SELECT new millimeeter.server.dto.MessageDto(m.id, m.senderId, m.content, m.parentMessageId,"
+          + " m.senderReaction, m.receiverReaction, m.status, m.sentAt, m.seenAt) FROM messages m"
+          + " WHERE m.matchId = ?1 AND m.id > ?2 ORDER BY m.id ASC")
+  List<MessageDto> findMessagesByMatchIdAfter(Long id, Long after, Pageable pageable);
+
+  @Query(
+      "SELECT new millimeeter.server.dto.MessageDto(m.id, m.senderId, m.content, m.parentMessageId,"
+          + " m.senderReaction, m.receiverReaction, m.status, m.sentAt, m.seenAt) FROM messages m"
+          + " WHERE m.id IN ?1")
+  List<MessageDto> findMessagesByIds(Collection<Long> ids);
+
+  @Query(
+      "SELECT MAX(m.id) FROM messages m WHERE m.matchId = ?2 AND m.senderId <> ?1 AND m.seenAt IS"
+          + " NULL")
+  Long findLastUnseenMessageId(Long profileId, Long matchId);
+
+  @Query(
+      "SELECT m.matchId AS matchId, MAX(m.id) AS messageId FROM messages m WHERE m.matchId IN"
+          + " (SELECT mt.id FROM matches mt WHERE mt.profileId1 = ?1 OR mt.profileId2 = ?1) AND"
+          + " m.senderId <> ?1 AND m.status = 'SENT' GROUP BY m.matchId")
+  List<Tuple> findLastUndeliveredMessageIds(Long profileId);
 
   @Modifying
   @Transactional
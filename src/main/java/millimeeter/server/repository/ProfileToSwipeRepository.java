@@ -0,0 +1,96 @@
+package millimeeter.server.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import millimeeter.server.dto.ProfileToSwipeDto;
+import millimeeter.server.enums.Gender;
+import millimeeter.server.service.photo.PhotoVariant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/*
+    PROFILES OF THE SWIPE DECK READ STRAIGHT INTO THEIR DTOS, COLUMNS BY INDEX IN THE ORDER OF
+    PROFILE_COLUMNS AND PHOTOS AS A text[], LIKE IN MatchListRepository
+*/
+@Repository
+public class ProfileToSwipeRepository {
+
+  static final String PROFILE_COLUMNS =
+      "SELECT id, first_name, EXTRACT(YEAR FROM AGE(CURRENT_DATE, date_of_birth)), gender,"
+          + " photos, description, my_song, point(:longitude, :latitude)<@>point(last_longitude,"
+          + " last_latitude) FROM profiles";
+
+  static final String FIND_PROFILES_TO_SWIPE =
+      PROFILE_COLUMNS
+          + " WHERE id != :profileId AND NOT EXISTS (SELECT 1 FROM swipes WHERE receiver_id ="
+          + " profiles.id AND sender_id = :profileId) AND date_of_birth BETWEEN"
+          + " :dateOfBirthRangeStart AND :dateOfBirthRangeEnd AND point(:longitude,"
+          + " :latitude)<@>point(last_longitude, last_latitude) < :searchDistance";
+
+  static final String FIND_PROFILES_BY_GENDER_TO_SWIPE =
+      FIND_PROFILES_TO_SWIPE + " AND gender = CAST(:gender AS gender)";
+
+  static final String RANDOM_PAGE = " ORDER BY random() LIMIT 50";
+
+  static final String FIND_PROFILES_TO_SWIPE_BY_IDS = PROFILE_COLUMNS + " WHERE id IN (:ids)";
+
+  static final RowMapper<ProfileToSwipeDto> PROFILE_TO_SWIPE_MAPPER =
+      (resultSet, rowNum) ->
+          new ProfileToSwipeDto(
+              resultSet.getLong(1),
+              resultSet.getString(2),
+              resultSet.getInt(3),
+              Gender.valueOf(resultSet.getString(4)),
+              PhotoVariant.CARD.namesFor(MatchListRepository.getTextArray(resultSet, 5)),
+              resultSet.getString(6),
+              resultSet.getString(7),
+              (int) resultSet.getDouble(8));
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public ProfileToSwipeRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  // gender IS NULL WHEN THE PROFILE IS LOOKING FOR EVERYONE
+  public List<ProfileToSwipeDto> findProfilesToSwipe(
+      Gender gender,
+      Long profileId,
+      LocalDate dateOfBirthRangeStart,
+      LocalDate dateOfBirthRangeEnd,
+      Double longitude,
+      Double latitude,
+      Integer searchDistance) {
+    MapSqlParameterSource parameters =
+        new MapSqlParameterSource()
+            .addValue("profileId", profileId)
+            .addValue("dateOfBirthRangeStart", dateOfBirthRangeStart)
+            .addValue("dateOfBirthRangeEnd", dateOfBirthRangeEnd)
+            .addValue("longitude", longitude)
+            .addValue("latitude", latitude)
+            .addValue("searchDistance", searchDistance);
+    if (gender == null) {
+      return jdbcTemplate.query(
+          FIND_PROFILES_TO_SWIPE + RANDOM_PAGE, parameters, PROFILE_TO_SWIPE_MAPPER);
+    }
+    return jdbcTemplate.query(
+        FIND_PROFILES_BY_GENDER_TO_SWIPE + RANDOM_PAGE,
+        parameters.addValue("gender", gender.name()),
+        PROFILE_TO_SWIPE_MAPPER);
+  }
+
+  public List<ProfileToSwipeDto> findProfilesToSwipeByIds(
+      List<Long> ids, Double longitude, Double latitude) {
+    return jdbcTemplate.query(
+        FIND_PROFILES_TO_SWIPE_BY_IDS,
+        new MapSqlParameterSource()
+            .addValue("ids", ids)
+            .addValue("longitude", longitude)
+            .addValue("latitude", latitude),
+        PROFILE_TO_SWIPE_MAPPER);
+  }
+}
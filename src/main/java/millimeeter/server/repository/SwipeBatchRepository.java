@@ -0,0 +1,93 @@
+package millimeeter.server.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import lombok.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/*
+    SWIPES OF ONE SENDER INSERTED TOGETHER, THE SET COUNTERPART OF SwipeRepository.lockPair AND
+    SwipeRepository.swipe. RECEIVERS MUST BE DISTINCT
+*/
+
+@Repository
+public class SwipeBatchRepository {
+
+  // LOCKS ARE TAKEN IN KEY ORDER SO TWO BATCHES SHARING PAIRS CANNOT DEADLOCK
+  static final String LOCK_PAIRS =
+      "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(key) FROM (SELECT"
+          + " HASHTEXTEXTENDED(LEAST(?, receiver_id) || ':' || GREATEST(?, receiver_id), 0) AS key"
+          + " FROM UNNEST(?::bigint[]) AS receiver_id ORDER BY key) AS keys) AS locked";
+
+  static final String INSERT_SWIPES =
+      "WITH requested AS (SELECT * FROM UNNEST(?::bigint[], ?::text[], ?::timestamp[]) AS"
+          + " r(receiver_id, direction, swiped_at)), existing AS (SELECT id FROM profiles WHERE id"
+          + " IN (SELECT receiver_id FROM requested)), inserted_swipes AS (INSERT INTO swipes"
+          + " (sender_id, receiver_id, direction, swiped_at) SELECT ?, requested.receiver_id,"
+          + " CAST(requested.direction AS direction), requested.swiped_at FROM requested JOIN"
+          + " existing ON existing.id = requested.receiver_id ON CONFLICT (sender_id,"
+          + " receiver_id) DO NOTHING RETURNING id, sender_id, receiver_id, direction, swiped_at),"
+          + " inserted_matches AS (INSERT INTO matches (profile_id_1, profile_id_2, matched_at)"
+          + " SELECT sender_id, receiver_id, swiped_at FROM inserted_swipes WHERE direction ="
+          + " 'RIGHT' AND EXISTS (SELECT 1 FROM swipes WHERE swipes.sender_id ="
+          + " inserted_swipes.receiver_id AND swipes.receiver_id = inserted_swipes.sender_id AND"
+          + " swipes.direction = 'RIGHT') RETURNING id, profile_id_1, profile_id_2),"
+          + " inserted_inbox AS (INSERT INTO inbox (profile_id, match_id, counterpart_id) SELECT"
+          + " profile_id_1, id, profile_id_2 FROM inserted_matches UNION ALL SELECT profile_id_2,"
+          + " id, profile_id_1 FROM inserted_matches ON CONFLICT DO NOTHING) SELECT"
+          + " requested.receiver_id, inserted_swipes.id AS swipe_id, inserted_matches.id AS"
+          + " match_id, existing.id IS NOT NULL AS receiver_exists FROM requested LEFT JOIN"
+          + " existing ON existing.id = requested.receiver_id LEFT JOIN inserted_swipes ON"
+          + " inserted_swipes.receiver_id = requested.receiver_id LEFT JOIN inserted_matches ON"
+          + " inserted_matches.profile_id_2 = requested.receiver_id";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public SwipeBatchRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public void lockPairs(Long senderId, Long[] receiverIds) {
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(LOCK_PAIRS);
+          statement.setLong(1, senderId);
+          statement.setLong(2, senderId);
+          statement.setArray(3, connection.createArrayOf("bigint", receiverIds));
+          return statement;
+        },
+        resultSet -> null);
+  }
+
+  // ONE RESULT PER RECEIVER, swipeId IS NULL FOR A DUPLICATE OR A MISSING RECEIVER
+  public List<Result> insert(
+      Long senderId, Long[] receiverIds, String[] directions, Timestamp[] swipedAt) {
+    return jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(INSERT_SWIPES);
+          statement.setArray(1, connection.createArrayOf("bigint", receiverIds));
+          statement.setArray(2, connection.createArrayOf("text", directions));
+          statement.setArray(3, connection.createArrayOf("timestamp", swipedAt));
+          statement.setLong(4, senderId);
+          return statement;
+        },
+        (resultSet, rowNum) ->
+            new Result(
+                resultSet.getLong("receiver_id"),
+                resultSet.getObject("swipe_id", Long.class),
+                resultSet.getObject("match_id", Long.class),
+                resultSet.getBoolean("receiver_exists")));
+  }
+
+  @Value
+  public static class Result {
+    Long receiverId;
+    Long swipeId;
+    Long matchId;
+    boolean receiverExists;
+  }
+}
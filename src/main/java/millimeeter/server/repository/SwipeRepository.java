@@ -1,5 +1,8 @@
 package millimeeter.server.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import javax.persistence.Tuple;
 import millimeeter.server.enums.SwipeDirection;
 import millimeeter.server.model.Swipe;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -29,16 +32,42 @@ public interface SwipeRepository extends JpaRepository<Swipe, Long> {
           + "AND s.receiverId = ?1")
   int countAllSwipesBetween(Long profileId1, Long profileId2);
 
+  @Query(
+      value = "SELECT COUNT(s) FROM swipes s " + "WHERE s.senderId = ?1 " + "AND s.receiverId = ?2")
+  int countAllSwipesFromSenderToReceiver(Long senderId, Long receiverId);
+
+  // SWIPES BETWEEN THE SAME TWO PROFILES WAIT FOR EACH OTHER UNTIL THE TRANSACTION ENDS, SO OF TWO
+  // RECIPROCAL SWIPES THE LATER ONE ALWAYS SEES THE EARLIER ONE
   @Query(
       value =
-          "SELECT COUNT(s) FROM swipes s "
-              + "WHERE s.senderId = ?1 "
-              + "AND s.receiverId = ?2 "
-              + "AND s.direction = ?3")
-  int countSelectedSwipesFromSenderToReceiver(
-      Long senderId, Long receiverId, SwipeDirection swipeDirection);
+          "SELECT 1 FROM (SELECT pg_advisory_xact_lock(HASHTEXTEXTENDED(LEAST(?1, ?2) || ':' ||"
+              + " GREATEST(?1, ?2), 0))) AS locked",
+      nativeQuery = true)
+  int lockPair(Long profileId1, Long profileId2);
 
+  /*
+      INSERTS THE SWIPE AND, IF IT IS A RIGHT SWIPE ANSWERING ONE, THE MATCH WITH ITS INBOX ROWS.
+      NO ROW IS RETURNED IF THE SENDER ALREADY SWIPED THE RECEIVER, match_id IS NULL WITHOUT A
+      MATCH. MUST BE PRECEDED BY lockPair IN THE SAME TRANSACTION, SEE db/004-swipes-unique.sql
+  */
   @Query(
-      value = "SELECT COUNT(s) FROM swipes s " + "WHERE s.senderId = ?1 " + "AND s.receiverId = ?2")
-  int countAllSwipesFromSenderToReceiver(Long senderId, Long receiverId);
+      value =
+          "WITH inserted_swipe AS (INSERT INTO swipes (sender_id, receiver_id, direction,"
+              + " swiped_at) VALUES (?1, ?2, CAST(?3 AS direction), ?4) ON CONFLICT (sender_id,"
+              + " receiver_id) DO NOTHING RETURNING id, sender_id, receiver_id, direction,"
+              + " swiped_at), inserted_match AS (INSERT INTO matches (profile_id_1, profile_id_2,"
+              + " matched_at) SELECT sender_id, receiver_id, swiped_at FROM inserted_swipe WHERE"
+              + " direction = 'RIGHT' AND EXISTS (SELECT 1 FROM swipes WHERE swipes.sender_id ="
+              + " inserted_swipe.receiver_id AND swipes.receiver_id = inserted_swipe.sender_id"
+              + " AND swipes.direction = 'RIGHT') RETURNING id, profile_id_1, profile_id_2),"
+              + " inserted_inbox AS (INSERT INTO inbox (profile_id, match_id, counterpart_id)"
+              + " SELECT profile_id_1, id, profile_id_2 FROM inserted_match UNION ALL SELECT"
+              + " profile_id_2, id, profile_id_1 FROM inserted_match ON CONFLICT DO NOTHING)"
+              + " SELECT inserted_swipe.id AS swipe_id, inserted_match.id AS match_id FROM"
+              + " inserted_swipe LEFT JOIN inserted_match ON TRUE",
+      nativeQuery = true)
+  List<Tuple> swipe(Long senderId, Long receiverId, String direction, LocalDateTime swipedAt);
+
+  @Query("SELECT s.receiverId FROM swipes s WHERE s.senderId = ?1")
+  List<Long> findReceiverIdsBySenderId(Long senderId);
 }
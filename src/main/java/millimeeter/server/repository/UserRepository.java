@@ -15,4 +15,7 @@ public interface UserRepository extends JpaRepository<User, String> {
 
   @Query(value = "SELECT u.profileId FROM users u WHERE u.id = ?1")
   Long findProfileIdById(String id);
+
+  @Query(value = "SELECT u.id FROM users u WHERE u.profileId = ?1")
+  String findIdByProfileId(Long profileId);
 }
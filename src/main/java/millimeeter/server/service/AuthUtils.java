@@ -1,5 +1,9 @@
 package millimeeter.server.service;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import millimeeter.server.model.Match;
 import millimeeter.server.model.Profile;
 import millimeeter.server.repository.MatchRepository;
@@ -9,11 +13,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.server.ResponseStatusException;
 
+/*
+    USER, PROFILE AND MATCHES OF THE AUTHENTICATED USER ARE RESOLVED AT MOST ONCE PER REQUEST
+    AND KEPT AS A REQUEST ATTRIBUTE, SO THE CHECKS BELOW CAN BE CALLED REPEATEDLY FOR FREE.
+    OUTSIDE OF A REQUEST EVERY CALL GOES TO THE DATABASE.
+*/
+
 @Component
 public class AuthUtils {
 
+  static final String IDENTITY_ATTRIBUTE = AuthUtils.class.getName() + ".IDENTITY";
+
   private final UserService userService;
   private final ProfileRepository profileRepository;
   private final MatchRepository matchRepository;
@@ -28,12 +42,12 @@ public class AuthUtils {
     this.matchRepository = matchRepository;
   }
 
-  public void saveProfile(Profile profile) {
-    profileRepository.save(profile);
-  }
-
   public boolean userExists() {
-    return userService.existsById(getAuthenticatedUserId());
+    Identity identity = getIdentity();
+    if (identity.userExists == null) {
+      identity.userExists = userService.existsById(identity.userId);
+    }
+    return identity.userExists;
   }
 
   // AUTHENTICATED USER ID
@@ -44,7 +58,11 @@ public class AuthUtils {
 
   // CORRESPONDING PROFILE ID
   public Long getProfileId() {
-    Long profileId = userService.getProfileId(getAuthenticatedUserId());
+    Identity identity = getIdentity();
+    if (identity.profileId == null) {
+      identity.profileId = Optional.ofNullable(userService.getProfileId(identity.userId));
+    }
+    Long profileId = identity.profileId.orElse(null);
     if (profileId == null) {
       throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Profile not exists");
     }
@@ -53,24 +71,32 @@ public class AuthUtils {
 
   // CORRESPONDING PROFILE
   public Profile getProfile() {
-    return profileRepository.findById(getProfileId()).get();
+    return findProfile().get();
   }
 
   // PROFILE EXISTS BY ID
   public boolean profileExistsById(Long id) {
-    return profileRepository.findById(id).isPresent();
+    if (Objects.equals(id, getProfileId())) {
+      return findProfile().isPresent();
+    }
+    return profileRepository.existsById(id);
   }
 
   // PROFILE BELONGS TO MATCH
   public boolean profileBelongsToMatch(Long matchId) {
-    Match match = matchRepository.findById(matchId).get();
+    Match match = findMatch(matchId).get();
     long profileId = getProfileId();
     return (match.getProfileId1() == profileId) || (match.getProfileId2() == profileId);
   }
 
+  // MATCH BY ID
+  public Match getMatch(Long matchId) {
+    return findMatch(matchId).get();
+  }
+
   // MATCH EXISTS BY ID
   public boolean matchExistsById(Long matchId) {
-    return matchRepository.findById(matchId).isPresent();
+    return findMatch(matchId).isPresent();
   }
 
   public void checkIfUserExists() {
@@ -105,4 +131,46 @@ public class AuthUtils {
           HttpStatus.UNPROCESSABLE_ENTITY, "Profile not belongs to match containing given message");
     }
   }
+
+  private Optional<Profile> findProfile() {
+    Long profileId = getProfileId();
+    Identity identity = getIdentity();
+    if (identity.profile == null) {
+      identity.profile = profileRepository.findById(profileId);
+    }
+    return identity.profile;
+  }
+
+  private Optional<Match> findMatch(Long matchId) {
+    return getIdentity().matches.computeIfAbsent(matchId, matchRepository::findById);
+  }
+
+  private Identity getIdentity() {
+    String userId = getAuthenticatedUserId();
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes == null) {
+      return new Identity(userId);
+    }
+    Object identity =
+        requestAttributes.getAttribute(IDENTITY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (identity instanceof Identity && ((Identity) identity).userId.equals(userId)) {
+      return (Identity) identity;
+    }
+    Identity created = new Identity(userId);
+    requestAttributes.setAttribute(IDENTITY_ATTRIBUTE, created, RequestAttributes.SCOPE_REQUEST);
+    return created;
+  }
+
+  // NULL FIELDS ARE NOT LOOKED UP YET, EMPTY OPTIONALS ARE LOOKED UP AND MISSING
+  private static class Identity {
+    private final String userId;
+    private Boolean userExists;
+    private Optional<Long> profileId;
+    private Optional<Profile> profile;
+    private final Map<Long, Optional<Match>> matches = new HashMap<>();
+
+    private Identity(String userId) {
+      this.userId = userId;
+    }
+  }
 }
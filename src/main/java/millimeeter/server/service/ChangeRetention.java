@@ -0,0 +1,58 @@
+package millimeeter.server.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import millimeeter.server.repository.ChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+    DELETES CHANGES OLDER THAN THE RETENTION PERIOD, SEE db/007-changes-retention.sql
+
+    CHANGES ARE DELETED IN SMALL BATCHES, EACH IN A TRANSACTION OF ITS OWN, SO SYNC COUNTERS AND
+    CHANGE WRITERS ARE NEVER HELD UP BY A SINGLE LONG DELETE. THE OLDEST CHANGES OF A PROFILE GO
+    FIRST, WHAT IS LEFT IS ALWAYS AN UNBROKEN RUN OF ITS MOST RECENT seq VALUES.
+*/
+
+@Component
+public class ChangeRetention {
+
+  private static final Logger log = LoggerFactory.getLogger(ChangeRetention.class);
+
+  static final int BATCH_SIZE = 10000;
+
+  private final ChangeRepository changeRepository;
+  private final Duration retentionPeriod;
+
+  @Autowired
+  public ChangeRetention(
+      ChangeRepository changeRepository,
+      @Value("${millimeeter.sync.change-retention-days:30}") long retentionDays) {
+    this.changeRepository = changeRepository;
+    this.retentionPeriod = Duration.ofDays(retentionDays);
+  }
+
+  @Scheduled(cron = "${millimeeter.sync.change-retention-cron:0 0 4 * * *}")
+  public void deleteExpiredChanges() {
+    try {
+      int deleted = deleteChangesCreatedBefore(LocalDateTime.now().minus(retentionPeriod));
+      log.info("Deleted {} expired changes", deleted);
+    } catch (RuntimeException e) {
+      log.warn("Deleting expired changes failed", e);
+    }
+  }
+
+  public int deleteChangesCreatedBefore(LocalDateTime createdBefore) {
+    int deleted = 0;
+    int batch;
+    do {
+      batch = changeRepository.deleteOldestChangesCreatedBefore(createdBefore, BATCH_SIZE);
+      deleted += batch;
+    } while (batch == BATCH_SIZE);
+    return deleted;
+  }
+}
@@ -1,18 +1,94 @@
 package millimeeter.server.service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import millimeeter.server.dto.SentDisappearingMessageDto;
+import millimeeter.server.enums.MessageStatus;
+import millimeeter.server.model.DisappearingMessage;
 import millimeeter.server.repository.DisappearingMessageRepository;
+import millimeeter.server.repository.MatchRepository;
+import millimeeter.server.service.discovery.ProfileDiscoveryListener;
+import millimeeter.server.service.expiry.DisappearingMessageExpiry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/*
+    MESSAGES BETWEEN MATCHED PROFILES WHICH ARE DELETED A WHILE AFTER THE RECEIVER HAS SEEN THEM,
+    SEE DisappearingMessageExpiry
+*/
 
 @Service
 @Transactional
 public class DisappearingMessageService {
 
   private final DisappearingMessageRepository disappearingMessageRepository;
+  private final MatchRepository matchRepository;
+  private final AuthUtils authUtils;
+  private final DisappearingMessageExpiry disappearingMessageExpiry;
 
   @Autowired
-  public DisappearingMessageService(DisappearingMessageRepository disappearingMessageRepository) {
+  public DisappearingMessageService(
+      DisappearingMessageRepository disappearingMessageRepository,
+      MatchRepository matchRepository,
+      AuthUtils authUtils,
+      DisappearingMessageExpiry disappearingMessageExpiry) {
     this.disappearingMessageRepository = disappearingMessageRepository;
+    this.matchRepository = matchRepository;
+    this.authUtils = authUtils;
+    this.disappearingMessageExpiry = disappearingMessageExpiry;
+  }
+
+  public DisappearingMessage send(SentDisappearingMessageDto sentMessageDto) {
+    authUtils.checkIfProfileExists();
+    Long receiverId = sentMessageDto.getReceiverId();
+    checkIfMatchedWith(receiverId);
+    Long parentMessageId = sentMessageDto.getParentMessageId();
+    // A REPLY CAN ONLY REFER TO A MESSAGE OF THE SAME CONVERSATION
+    if (parentMessageId != null
+        && !disappearingMessageRepository.existsInConversation(
+            parentMessageId, authUtils.getProfileId(), receiverId)) {
+      throw new ResponseStatusException(
+          HttpStatus.UNPROCESSABLE_ENTITY, "Parent message not exists");
+    }
+    DisappearingMessage message = new DisappearingMessage();
+    message.setSenderId(authUtils.getProfileId());
+    message.setReceiverId(receiverId);
+    message.setContent(sentMessageDto.getContent());
+    message.setParentMessageId(parentMessageId);
+    message.setStatus(MessageStatus.SENT);
+    message.setSentAt(LocalDateTime.now());
+    return disappearingMessageRepository.save(message);
+  }
+
+  public List<DisappearingMessage> findConversation(Long profileId) {
+    authUtils.checkIfProfileExists();
+    checkIfMatchedWith(profileId);
+    return disappearingMessageRepository.findConversation(
+        authUtils.getProfileId(),
+        profileId,
+        LocalDateTime.now().minus(disappearingMessageExpiry.getTtl()));
+  }
+
+  // MESSAGES RECEIVED FROM THE GIVEN PROFILE START TO EXPIRE NOW
+  public void readMessagesFrom(Long profileId) {
+    authUtils.checkIfProfileExists();
+    checkIfMatchedWith(profileId);
+    LocalDateTime seenAt = LocalDateTime.now();
+    List<Number> ids =
+        disappearingMessageRepository.markAsSeen(profileId, authUtils.getProfileId(), seenAt);
+    ProfileDiscoveryListener.afterCommit(
+        () -> ids.forEach(id -> disappearingMessageExpiry.schedule(id.longValue(), seenAt)));
+  }
+
+  private void checkIfMatchedWith(Long profileId) {
+    if (Objects.equals(profileId, authUtils.getProfileId())
+        || !matchRepository.existsBetween(authUtils.getProfileId(), profileId)) {
+      throw new ResponseStatusException(
+          HttpStatus.UNPROCESSABLE_ENTITY, "Profile not matched with the given profile");
+    }
   }
 }
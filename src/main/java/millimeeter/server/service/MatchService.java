@@ -1,18 +1,13 @@
 package millimeeter.server.service;
 
-import java.math.BigInteger;
-import java.sql.Timestamp;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import javax.persistence.Tuple;
 import millimeeter.server.dto.MatchDto;
 import millimeeter.server.dto.MatchWithMessagesDto;
-import millimeeter.server.enums.MessageStatus;
 import millimeeter.server.model.Match;
+import millimeeter.server.repository.MatchListRepository;
 import millimeeter.server.repository.MatchRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,25 +17,40 @@ import org.springframework.web.server.ResponseStatusException;
 @Transactional
 public class MatchService {
 
+  public static final int MATCH_PAGE_SIZE = 100;
+  static final int QUERY_TIMEOUT_SECONDS = 10;
+
   private final MatchRepository matchRepository;
+  private final MatchListRepository matchListRepository;
   private final AuthUtils authUtils;
+  private final SyncService syncService;
 
   @Autowired
-  public MatchService(MatchRepository matchRepository, AuthUtils authUtils) {
+  public MatchService(
+      MatchRepository matchRepository,
+      MatchListRepository matchListRepository,
+      AuthUtils authUtils,
+      SyncService syncService) {
     this.matchRepository = matchRepository;
+    this.matchListRepository = matchListRepository;
     this.authUtils = authUtils;
+    this.syncService = syncService;
   }
 
-  public List<MatchDto> findAllMatches() {
+  /*
+      A PAGE IS READ WHOLE BEFORE THE RESPONSE IS WRITTEN, SO A FAILING OR SLOW QUERY ENDS IN AN
+      ERROR RESPONSE INSTEAD OF A CUT BODY, AND NO CONNECTION IS HELD WHILE A SLOW CLIENT READS
+  */
+  @Transactional(readOnly = true, timeout = QUERY_TIMEOUT_SECONDS)
+  public List<MatchDto> findMatches(Long before, int limit) {
     authUtils.checkIfProfileExists();
-    return projectTupleToMatchDtoList(
-        matchRepository.findAllMatchesWithoutMessages(authUtils.getProfileId()));
+    return matchListRepository.findMatchesWithoutMessages(authUtils.getProfileId(), before, limit);
   }
 
-  public List<MatchWithMessagesDto> findAllMatchesWithMessages() {
+  @Transactional(readOnly = true, timeout = QUERY_TIMEOUT_SECONDS)
+  public List<MatchWithMessagesDto> findMatchesWithMessages(Long before, int limit) {
     authUtils.checkIfProfileExists();
-    return projectTupleToMatchWithMessagesDtoList(
-        matchRepository.findAllMatchesWithMessages(authUtils.getProfileId()));
+    return matchListRepository.findMatchesWithMessages(authUtils.getProfileId(), before, limit);
   }
 
   public void deleteMatchById(Long id) {
@@ -52,45 +62,18 @@ public class MatchService {
     Long profileId = authUtils.getProfileId();
     if (Objects.equals(match.getProfileId1(), profileId)
         || Objects.equals(match.getProfileId2(), profileId)) {
+      matchRepository.deleteFromInbox(id);
+      syncService.recordMatchDeleted(match);
       matchRepository.deleteById(id);
     }
   }
 
-  public Match addMatch(Long profileId1, Long profileId2) {
-    try {
-      Match m = new Match(profileId1, profileId2);
-      return matchRepository.save(m);
-    } catch (DataIntegrityViolationException e) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Swiped profile not exists");
-    }
-  }
-
-  List<MatchDto> projectTupleToMatchDtoList(List<Tuple> tupleList) {
-    return tupleList.stream()
-        .map(
-            t ->
-                new MatchDto(
-                    t.get("match_id", BigInteger.class).longValue(),
-                    t.get("profile_id", BigInteger.class).longValue(),
-                    t.get("first_name", String.class),
-                    t.get("photos", String.class).split(";"),
-                    t.get("matched_at", Timestamp.class).toLocalDateTime()))
-        .collect(Collectors.toList());
+  // MATCHES ARE INSERTED TOGETHER WITH THEIR INBOX ROWS BY SwipeRepository.swipe
+  public void recordMatchCreated(Match match) {
+    syncService.recordMatchCreated(match);
   }
 
-  List<MatchWithMessagesDto> projectTupleToMatchWithMessagesDtoList(List<Tuple> tupleList) {
-    return tupleList.stream()
-        .map(
-            t ->
-                new MatchWithMessagesDto(
-                    t.get("match_id", BigInteger.class).longValue(),
-                    t.get("profile_id", BigInteger.class).longValue(),
-                    t.get("first_name", String.class),
-                    t.get("photos", String.class).split(";"),
-                    t.get("sender_id", BigInteger.class).longValue(),
-                    t.get("content", String.class),
-                    MessageStatus.valueOf(t.get("status", String.class)),
-                    t.get("sent_at", Timestamp.class).toLocalDateTime()))
-        .collect(Collectors.toList());
+  public void recordMatchesCreated(List<Match> matches) {
+    syncService.recordMatchesCreated(matches);
   }
 }
@@ -0,0 +1,43 @@
+package millimeeter.server.service;
+
+import java.util.Objects;
+import millimeeter.server.dto.MessageEventDto;
+import millimeeter.server.model.Match;
+import millimeeter.server.service.discovery.ProfileDiscoveryListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+/*
+    PUSHES MESSAGE EVENTS TO THE OTHER PARTICIPANT OF A MATCH OVER WEBSOCKET, SEE WebSocketConfig.
+    EVENTS ARE SENT ONLY AFTER THE SURROUNDING TRANSACTION COMMITS, SO A CLIENT REACTING TO AN
+    EVENT ALWAYS FINDS THE CHANGE IN THE DATABASE
+*/
+
+@Service
+public class MessageEventPublisher {
+
+  static final String DESTINATION = "/queue/messages";
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final UserService userService;
+
+  @Autowired
+  public MessageEventPublisher(SimpMessagingTemplate messagingTemplate, UserService userService) {
+    this.messagingTemplate = messagingTemplate;
+    this.userService = userService;
+  }
+
+  public void publishToOtherParticipant(Match match, MessageEventDto event) {
+    Long recipientProfileId =
+        Objects.equals(match.getProfileId1(), event.getProfileId())
+            ? match.getProfileId2()
+            : match.getProfileId1();
+    String recipientUserId = userService.getIdByProfileId(recipientProfileId);
+    if (recipientUserId == null) {
+      return;
+    }
+    ProfileDiscoveryListener.afterCommit(
+        () -> messagingTemplate.convertAndSendToUser(recipientUserId, DESTINATION, event));
+  }
+}
@@ -1,13 +1,21 @@
 package millimeeter.server.service;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.Tuple;
 import java.util.Objects;
 import millimeeter.server.dto.MessageDto;
+import millimeeter.server.dto.MessageEventDto;
 import millimeeter.server.dto.SentMessageDto;
+import millimeeter.server.enums.MessageEventType;
 import millimeeter.server.enums.MessageReaction;
 import millimeeter.server.model.Message;
+import millimeeter.server.repository.MatchRepository;
 import millimeeter.server.repository.MessageRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,20 +25,47 @@ import org.springframework.web.server.ResponseStatusException;
 @Transactional
 public class MessageService {
 
+  public static final int CONVERSATION_PAGE_SIZE = 50;
   private final MessageRepository messageRepository;
+  private final MatchRepository matchRepository;
   private final AuthUtils authUtils;
+  private final MessageEventPublisher messageEventPublisher;
+  private final SyncService syncService;
 
   @Autowired
-  public MessageService(MessageRepository messageRepository, AuthUtils authUtils) {
+  public MessageService(
+      MessageRepository messageRepository,
+      MatchRepository matchRepository,
+      AuthUtils authUtils,
+      MessageEventPublisher messageEventPublisher,
+      SyncService syncService) {
     this.messageRepository = messageRepository;
+    this.matchRepository = matchRepository;
     this.authUtils = authUtils;
+    this.messageEventPublisher = messageEventPublisher;
+    this.syncService = syncService;
   }
 
-  public List<MessageDto> findMessagesByMatchId(Long matchId) {
+  /*
+      KEYSET PAGINATION OVER MESSAGE IDS, NEWEST FIRST. WITHOUT A CURSOR THE NEWEST MESSAGES ARE
+      RETURNED, before GIVES OLDER AND after GIVES NEWER MESSAGES THAN THE GIVEN ONE
+  */
+  public List<MessageDto> findMessagesByMatchId(Long matchId, Long before, Long after, int limit) {
     authUtils.checkIfProfileExists();
     authUtils.checkIfMatchExists(matchId);
     authUtils.checkIfProfileBelongsToMatch(matchId);
-    return messageRepository.findMessagesByMatchId(matchId);
+    if (before != null && after != null) {
+      throw new ResponseStatusException(
+          HttpStatus.UNPROCESSABLE_ENTITY, "Only one of before and after can be given");
+    }
+    if (after != null) {
+      List<MessageDto> messages =
+          messageRepository.findMessagesByMatchIdAfter(matchId, after, PageRequest.ofSize(limit));
+      Collections.reverse(messages);
+      return messages;
+    }
+    return messageRepository.findMessagesByMatchIdBefore(
+        matchId, before != null ? before : Long.MAX_VALUE, PageRequest.ofSize(limit));
   }
 
   public Message send(SentMessageDto sentMessageDto) {
@@ -45,7 +80,18 @@ public class MessageService {
     long matchId = sentMessageDto.getMatchId();
     authUtils.checkIfMatchExists(matchId);
     authUtils.checkIfProfileBelongsToMatch(matchId);
-    return messageRepository.save(new Message(authUtils.getProfileId(), sentMessageDto));
+    Message message =
+        messageRepository.save(new Message(authUtils.getProfileId(), sentMessageDto));
+    matchRepository.updateInboxOnMessageSent(
+        matchId,
+        message.getId(),
+        message.getSenderId(),
+        message.getContent(),
+        message.getStatus().name(),
+        message.getSentAt());
+    syncService.recordMessageSent(authUtils.getMatch(matchId), message.getId());
+    publish(MessageEventType.MESSAGE_SENT, matchId, message);
+    return message;
   }
 
   public Message reactToMessageWithId(Long messageId, String messageReaction) {
@@ -58,7 +104,10 @@ public class MessageService {
     } else {
       message.setReceiverReaction(MessageReaction.valueOf(messageReaction));
     }
-    return messageRepository.save(message);
+    Message reacted = messageRepository.save(message);
+    syncService.recordMessageUpdated(authUtils.getMatch(reacted.getMatchId()), reacted.getId());
+    publish(MessageEventType.MESSAGE_REACTED, reacted.getMatchId(), reacted);
+    return reacted;
   }
 
   public Message deleteReactionFromMessageWithId(Long messageId) {
@@ -71,20 +120,43 @@ public class MessageService {
     } else {
       message.setReceiverReaction(null);
     }
-    return messageRepository.save(message);
+    Message reacted = messageRepository.save(message);
+    syncService.recordMessageUpdated(authUtils.getMatch(reacted.getMatchId()), reacted.getId());
+    publish(MessageEventType.MESSAGE_REACTED, reacted.getMatchId(), reacted);
+    return reacted;
   }
 
   public void readMessagesInConversationWithMatchId(Long matchId) {
     authUtils.checkIfProfileExists();
     authUtils.checkIfMatchExists(matchId);
     authUtils.checkIfProfileBelongsToMatch(matchId);
+    Long lastUnseenMessageId =
+        messageRepository.findLastUnseenMessageId(authUtils.getProfileId(), matchId);
     messageRepository.readMessagesInConversationByProfileIdAndMatchId(
         authUtils.getProfileId(), matchId);
+    if (lastUnseenMessageId != null) {
+      syncService.recordMessagesRead(authUtils.getMatch(matchId), lastUnseenMessageId);
+    }
+    matchRepository.updateInboxOnMessagesRead(authUtils.getProfileId(), matchId);
+    publish(MessageEventType.MESSAGES_READ, matchId, null);
   }
 
   public void setMessagesStatusAsDelivered() {
     authUtils.checkIfProfileExists();
+    Map<Long, Long> lastUndeliveredMessageIds =
+        messageRepository.findLastUndeliveredMessageIds(authUtils.getProfileId()).stream()
+            .collect(
+                Collectors.toMap(
+                    t -> t.get("matchId", Long.class), t -> t.get("messageId", Long.class)));
     messageRepository.setMessagesStatusAsDeliveredByProfileId(authUtils.getProfileId());
+    syncService.recordMessagesDelivered(authUtils.getProfileId(), lastUndeliveredMessageIds);
+    matchRepository.updateInboxOnMessagesDelivered(authUtils.getProfileId());
+  }
+
+  void publish(MessageEventType type, Long matchId, Message message) {
+    messageEventPublisher.publishToOtherParticipant(
+        authUtils.getMatch(matchId),
+        new MessageEventDto(type, matchId, authUtils.getProfileId(), message));
   }
 
   public void checkIfMessageExists(Long messageId) {
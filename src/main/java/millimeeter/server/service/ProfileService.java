@@ -1,24 +1,29 @@
 package millimeeter.server.service;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.io.InputStream;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
-import javax.persistence.Tuple;
 import millimeeter.server.dto.*;
 import millimeeter.server.enums.Gender;
 import millimeeter.server.enums.LookingFor;
 import millimeeter.server.model.Profile;
 import millimeeter.server.repository.ProfileRepository;
+import millimeeter.server.repository.ProfileToSwipeRepository;
+import millimeeter.server.service.discovery.LocationUpdateBuffer;
+import millimeeter.server.service.discovery.ProfileDiscoveryListener;
+import millimeeter.server.service.discovery.ProfileLocationIndex;
+import millimeeter.server.service.discovery.SwipeDeckService;
+import millimeeter.server.service.photo.JpegHeaderReader;
+import millimeeter.server.service.photo.PhotoStore;
+import millimeeter.server.service.photo.PhotoVariantService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -31,13 +36,42 @@ import org.springframework.web.server.ResponseStatusException;
 public class ProfileService {
 
   private final ProfileRepository profileRepository;
+  private final ProfileToSwipeRepository profileToSwipeRepository;
   private final AuthUtils authUtils;
-  static final String DIRECTORY = "photos/";
+  private final ProfileLocationIndex profileLocationIndex;
+  private final SwipeDeckService swipeDeckService;
+  private final LocationUpdateBuffer locationUpdateBuffer;
+  private final SwipeQuota swipeQuota;
+  private final UserService userService;
+  private final SyncService syncService;
+  private final PhotoStore photoStore;
+  private final PhotoVariantService photoVariantService;
+  static final int PROFILES_TO_SWIPE_LIMIT = 50;
 
   @Autowired
-  public ProfileService(ProfileRepository profileRepository, AuthUtils authUtils) {
+  public ProfileService(
+      ProfileRepository profileRepository,
+      ProfileToSwipeRepository profileToSwipeRepository,
+      AuthUtils authUtils,
+      ProfileLocationIndex profileLocationIndex,
+      SwipeDeckService swipeDeckService,
+      LocationUpdateBuffer locationUpdateBuffer,
+      SwipeQuota swipeQuota,
+      UserService userService,
+      SyncService syncService,
+      PhotoStore photoStore,
+      PhotoVariantService photoVariantService) {
     this.profileRepository = profileRepository;
+    this.profileToSwipeRepository = profileToSwipeRepository;
     this.authUtils = authUtils;
+    this.profileLocationIndex = profileLocationIndex;
+    this.swipeDeckService = swipeDeckService;
+    this.locationUpdateBuffer = locationUpdateBuffer;
+    this.swipeQuota = swipeQuota;
+    this.userService = userService;
+    this.syncService = syncService;
+    this.photoStore = photoStore;
+    this.photoVariantService = photoVariantService;
   }
 
   public Profile create(RegistrationDto registrationDto, MultipartFile[] photos) {
@@ -49,7 +83,6 @@ public class ProfileService {
         throw new ResponseStatusException(
             HttpStatus.UNPROCESSABLE_ENTITY, "Limit of 5 photos exceeded");
       }
-      checkIfPhotosAreValid(photos);
       List<String> photosData = new ArrayList<>();
       for (MultipartFile photo : photos) {
         photosData = savePhotoAndReturnUpdatedList(photosData, -1, photo);
@@ -70,20 +103,31 @@ public class ProfileService {
     profile.setSearchDistance(updatedProfileDto.getSearchDistance());
     profile.setAgeRangeMinimum(updatedProfileDto.getAgeRangeMinimum());
     profile.setAgeRangeMaximum(updatedProfileDto.getAgeRangeMaximum());
-    return profileRepository.save(profile);
+    Profile updatedProfile = profileRepository.save(profile);
+    ProfileDiscoveryListener.afterCommit(
+        () -> {
+          // A LOCATION STILL BUFFERED MUST NOT OVERWRITE THE NEW ONE WHEN FLUSHED
+          locationUpdateBuffer.record(
+              updatedProfile.getId(),
+              updatedProfile.getLastLatitude(),
+              updatedProfile.getLastLongitude());
+          swipeDeckService.refresh(updatedProfile);
+        });
+    return updatedProfile;
   }
 
+  // THE LOCATION IS WRITTEN BEHIND BY LocationUpdateBuffer, THE PROFILE ITSELF IS NOT SAVED
   public Profile updateLocation(LocationDto location) {
     authUtils.checkIfProfileExists();
-    Profile profile = authUtils.getProfile();
-    profile.setLastLongitude(location.getLastLongitude());
-    profile.setLastLatitude(location.getLastLatitude());
-    return profileRepository.save(profile);
+    locationUpdateBuffer.record(
+        authUtils.getProfileId(), location.getLastLatitude(), location.getLastLongitude());
+    Profile profile = locationUpdateBuffer.withBufferedLocation(authUtils.getProfile());
+    swipeDeckService.relocate(profile);
+    return profile;
   }
 
   public Profile uploadPhoto(int index, MultipartFile photo) {
     authUtils.checkIfProfileExists();
-    checkIfPhotosAreValid(photo);
     Profile profile = authUtils.getProfile();
     List<String> photos = profile.getPhotos();
     if (index == -1) {
@@ -102,42 +146,48 @@ public class ProfileService {
 
   public int getSwipesLeftCount() {
     authUtils.checkIfProfileExists();
-    Profile profile = authUtils.getProfile();
-    if (profile.getWaitUntil() != null && LocalDateTime.now().isAfter(profile.getWaitUntil())) {
-      profile.setSwipesLeft(50);
-      profile.setWaitUntil(LocalDateTime.now().plusHours(12));
-      profileRepository.save(profile);
-      return profile.getSwipesLeft();
-    }
-    return profileRepository.getSwipesLeftById(authUtils.getProfileId());
+    return swipeQuota.getSwipesLeft(authUtils.getProfile());
   }
 
   public List<ProfileToSwipeDto> findProfilesToSwipe() {
     authUtils.checkIfProfileExists();
-    Profile profile = authUtils.getProfile();
-    List<Tuple> profileTuples;
+    Profile profile = locationUpdateBuffer.withBufferedLocation(authUtils.getProfile());
     Gender gender = convertLookingForToGender(profile.getLookingFor());
-    if (gender != null) {
-      profileTuples =
-          profileRepository.findProfilesByGenderToSwipe(
-              gender.toString(),
-              profile.getId(),
-              LocalDate.now().minusYears(profile.getAgeRangeMaximum()),
-              LocalDate.now().minusYears(profile.getAgeRangeMinimum()),
-              profile.getLastLongitude(),
-              profile.getLastLatitude(),
-              profile.getSearchDistance());
-    } else {
-      profileTuples =
-          profileRepository.findProfilesToSwipe(
-              profile.getId(),
-              LocalDate.now().minusYears(profile.getAgeRangeMaximum()),
-              LocalDate.now().minusYears(profile.getAgeRangeMinimum()),
-              profile.getLastLongitude(),
-              profile.getLastLatitude(),
-              profile.getSearchDistance());
+    LocalDate dateOfBirthRangeStart = LocalDate.now().minusYears(profile.getAgeRangeMaximum());
+    LocalDate dateOfBirthRangeEnd = LocalDate.now().minusYears(profile.getAgeRangeMinimum());
+    if (profileLocationIndex.isReady()) {
+      return findProfilesToSwipeInDeck(profile);
     }
-    return projectTupleToProfileToSwipeDtoList(profileTuples);
+    return profileToSwipeRepository.findProfilesToSwipe(
+        gender,
+        profile.getId(),
+        dateOfBirthRangeStart,
+        dateOfBirthRangeEnd,
+        profile.getLastLongitude(),
+        profile.getLastLatitude(),
+        profile.getSearchDistance());
+  }
+
+  // THE PAGE COMES FROM THE PRECOMPUTED SWIPE DECK, POSTGRES ONLY HYDRATES ITS PROFILES
+  List<ProfileToSwipeDto> findProfilesToSwipeInDeck(Profile profile) {
+    List<Long> page = swipeDeckService.nextPage(profile);
+    if (page.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Map<Long, ProfileToSwipeDto> profilesById =
+        profileToSwipeRepository
+            .findProfilesToSwipeByIds(page, profile.getLastLongitude(), profile.getLastLatitude())
+            .stream()
+            .collect(Collectors.toMap(ProfileToSwipeDto::getId, p -> p));
+    if (profilesById.size() < page.size()) {
+      swipeDeckService.removeAll(
+          profile.getId(),
+          page.stream().filter(id -> !profilesById.containsKey(id)).collect(Collectors.toList()));
+    }
+    return page.stream()
+        .map(profilesById::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
   }
 
   public MyProfileDto getMyProfile() {
@@ -149,8 +199,11 @@ public class ProfileService {
     authUtils.checkIfUserExists();
     Long profileId = authUtils.getProfileId();
     if (authUtils.profileExistsById(profileId)) {
+      syncService.recordProfileDeleted(profileId);
       profileRepository.deleteById(profileId);
     }
+    String userId = authUtils.getAuthenticatedUserId();
+    ProfileDiscoveryListener.afterCommit(() -> userService.evict(userId, profileId));
   }
 
   public Profile deletePhoto(int index) {
@@ -164,64 +217,37 @@ public class ProfileService {
     if (photos.size() == 1) {
       throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Cannot delete the only remaining photo");
     }
-    File toDelete = new File(DIRECTORY + photos.get(index));
-    if (!toDelete.delete()) {
-      throw new ResponseStatusException(
-          HttpStatus.INTERNAL_SERVER_ERROR,
-          "An error occurred during deleting the photo " + toDelete);
-    }
+    // THE FILE IS REMOVED BY THE PHOTO GARBAGE COLLECTION, OTHER PROFILES MAY SHARE IT
     photos.remove(index);
     profile.setPhotos(photos);
     return profileRepository.save(profile);
   }
 
-  List<ProfileToSwipeDto> projectTupleToProfileToSwipeDtoList(List<Tuple> tupleList) {
-    return tupleList.stream()
-        .map(
-            t ->
-                new ProfileToSwipeDto(
-                    t.get("id", BigInteger.class).longValue(),
-                    t.get("first_name", String.class),
-                    t.get("age", BigDecimal.class).intValue(),
-                    Gender.valueOf(t.get("gender", String.class)),
-                    t.get("photos", String.class).split(";"),
-                    t.get("description", String.class),
-                    t.get("my_song", String.class),
-                    t.get("distance", Double.class).intValue()))
-        .collect(Collectors.toList());
-  }
-
+  // THE PHOTO IS VALIDATED WHILE BEING SAVED, PHOTOS SAVED BEFORE AN INVALID ONE AND REPLACED
+  // PHOTOS ARE REMOVED BY THE PHOTO GARBAGE COLLECTION ONCE NO PROFILE REFERENCES THEM
   List<String> savePhotoAndReturnUpdatedList(List<String> photos, int index, MultipartFile photo) {
-    try {
-      String name =
-          Calendar.getInstance().getTimeInMillis() + UUID.randomUUID().toString() + ".jpg";
-      File path = new File(DIRECTORY + name);
-      if (path.createNewFile()) {
-        FileOutputStream output = new FileOutputStream(path);
-        output.write(photo.getBytes());
-        output.close();
-        if (index == -1) {
-          photos.add(path.getName());
-        } else {
-          File toDelete = new File(DIRECTORY + photos.get(index));
-          if (toDelete.delete()) {
-            photos.set(index, path.getName());
-          } else {
-            throw new ResponseStatusException(
-                HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while deleting the photo");
-          }
-        }
-      } else {
-        throw new ResponseStatusException(
-            HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while creating a new photo file");
-      }
-    } catch (Exception e) {
-      System.out.println(e.getMessage());
+    if (index >= photos.size()) {
+      throw new ResponseStatusException(
+          HttpStatus.UNPROCESSABLE_ENTITY, "Photo with the given number does not exist");
+    }
+    String name;
+    try (InputStream inputStream = photo.getInputStream()) {
+      name = photoStore.save(inputStream, this::checkIfPhotoIsValid);
+    } catch (IOException e) {
+      throw new ResponseStatusException(
+          HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while creating a new photo file");
+    }
+    ProfileDiscoveryListener.afterCommit(() -> photoVariantService.generateVariants(name));
+    if (index == -1) {
+      photos.add(name);
+    } else {
+      photos.set(index, name);
     }
     return photos;
   }
 
-  public Gender convertLookingForToGender(LookingFor lookingFor) {
+
+  public static Gender convertLookingForToGender(LookingFor lookingFor) {
     return switch (lookingFor) {
       case MEN -> Gender.MAN;
       case WOMEN -> Gender.WOMAN;
@@ -229,38 +255,52 @@ public class ProfileService {
     };
   }
 
-  void checkIfPhotosAreValid(MultipartFile[] photos) {
-    Arrays.stream(photos).filter(photo -> !isPhotoValid(photo)).forEach(photo -> {
-      throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Photos must have 3/4 aspect ratio and .jpg extension");
-    });
-  }
-
-  void checkIfPhotosAreValid(MultipartFile photo) {
+  void checkIfPhotoIsValid(InputStream photo) throws IOException {
     if (!isPhotoValid(photo)) {
       throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Photos must have 3/4 aspect ratio and .jpg extension");
     }
   }
 
-  boolean isPhotoValid(MultipartFile photo) {
+  // DIMENSIONS ARE READ FROM THE JPEG HEADER, ONLY FILES WITH A MALFORMED HEADER ARE DECODED, FOR
+  // WHICH WHAT WAS READ OF THE HEADER IS KEPT AROUND
+  boolean isPhotoValid(InputStream photo) throws IOException {
+    BufferedInputStream inputStream = new BufferedInputStream(photo);
+    inputStream.mark(Integer.MAX_VALUE);
+    Dimension dimension;
     try {
-      BufferedImage bufferedImage = ImageIO.read(photo.getInputStream());
-      double aspectRatio = bufferedImage.getWidth() / (double) bufferedImage.getHeight();
-      boolean isAspectRatioValid = Double.compare(aspectRatio, 0.755) < 0 && Double.compare(aspectRatio, 0.745) > 0;
+      dimension = JpegHeaderReader.readDimensions(inputStream).orElse(null);
+    } catch (JpegHeaderReader.MalformedJpegException ex) {
+      inputStream.reset();
+      dimension = decodeJpegDimensions(inputStream);
+    }
+    if (dimension == null) {
+      return false;
+    }
+    double aspectRatio = dimension.getWidth() / dimension.getHeight();
+    return Double.compare(aspectRatio, 0.755) < 0 && Double.compare(aspectRatio, 0.745) > 0;
+  }
 
-      ImageInputStream imageInputStream = ImageIO.createImageInputStream(photo.getInputStream());
+  // NULL WHEN THE FILE CANNOT BE DECODED AS A JPEG
+  Dimension decodeJpegDimensions(InputStream photo) {
+    try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(photo)) {
       Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
-      String formatName = null;
-      if (imageReaders.hasNext()) {
-        ImageReader imageReader = imageReaders.next();
-        formatName = imageReader.getFormatName();
+      if (!imageReaders.hasNext()) {
+        return null;
+      }
+      ImageReader imageReader = imageReaders.next();
+      try {
+        if (!imageReader.getFormatName().equalsIgnoreCase("jpeg")) {
+          return null;
+        }
+        imageReader.setInput(imageInputStream);
+        BufferedImage bufferedImage = imageReader.read(0);
+        return new Dimension(bufferedImage.getWidth(), bufferedImage.getHeight());
+      } finally {
+        imageReader.dispose();
       }
-      boolean isPhotoTypeValid = formatName != null && formatName.equalsIgnoreCase("jpeg");
-
-      return isAspectRatioValid && isPhotoTypeValid;
     } catch (IOException ex) {
-      System.out.println(ex.getMessage());
-      throw new ResponseStatusException(
-              HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while validating Multipart file");
+      return null;
     }
   }
+
 }
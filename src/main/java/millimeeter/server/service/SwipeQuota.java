@@ -0,0 +1,176 @@
+package millimeeter.server.service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import millimeeter.server.model.Profile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+    SWIPE ALLOWANCE OF EVERY ACTIVE PROFILE
+
+    A PROFILE HAS 50 SWIPES, REFILLED ONCE 12 HOURS PASSED SINCE ITS LAST SWIPE. ALLOWANCES ARE
+    KEPT IN MEMORY AND CHANGED ATOMICALLY PER PROFILE, SO CONCURRENT SWIPES OF THE SAME USER NEVER
+    SPEND MORE THAN IT HAS. CHANGED ALLOWANCES ARE PERSISTED TO swipes_left AND wait_until BY A
+    SINGLE UPDATE PER FLUSH, A MISSING ONE IS SEEDED FROM THE PROFILE ALREADY LOADED BY THE CALLER.
+    ONLY PERSISTED ALLOWANCES ARE DROPPED, ONCE THEIR WINDOW EXPIRED, SO A SEED LOADED BEFORE THE
+    FLUSH IS EXPIRED AS WELL AND ENDS UP REFILLED THE SAME WAY.
+*/
+
+@Component
+public class SwipeQuota {
+
+  static final int SWIPES_PER_WINDOW = 50;
+  static final Duration WINDOW = Duration.ofHours(12);
+  static final int MAX_BATCH_SIZE = 5000;
+  static final String UPDATE_ALLOWANCES =
+      "UPDATE profiles SET swipes_left = q.swipes_left, wait_until = q.wait_until FROM"
+          + " UNNEST(?::bigint[], ?::int[], ?::timestamp[]) AS q(id, swipes_left, wait_until)"
+          + " WHERE profiles.id = q.id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Map<Long, Allowance> allowances = new ConcurrentHashMap<>();
+
+  @Autowired
+  public SwipeQuota(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  // SPENDS ONE SWIPE, FALSE IF NONE IS LEFT
+  public boolean tryAcquire(Profile profile) {
+    LocalDateTime now = LocalDateTime.now();
+    boolean[] acquired = new boolean[1];
+    allowances.compute(
+        profile.getId(),
+        (id, allowance) -> {
+          Allowance current = refilled(allowance == null ? seed(profile) : allowance, now);
+          if (current.getSwipesLeft() == 0) {
+            return current;
+          }
+          acquired[0] = true;
+          return new Allowance(current.getSwipesLeft() - 1, now.plus(WINDOW), true);
+        });
+    return acquired[0];
+  }
+
+  // GIVES BACK A SWIPE OF A SWIPE WHICH WAS ROLLED BACK
+  public void release(Long profileId) {
+    release(profileId, 1);
+  }
+
+  public void release(Long profileId, int swipes) {
+    if (swipes == 0) {
+      return;
+    }
+    allowances.computeIfPresent(
+        profileId,
+        (id, allowance) ->
+            new Allowance(
+                Math.min(allowance.getSwipesLeft() + swipes, SWIPES_PER_WINDOW),
+                allowance.getWaitUntil(),
+                true));
+  }
+
+  public int getSwipesLeft(Profile profile) {
+    LocalDateTime now = LocalDateTime.now();
+    return allowances
+        .compute(
+            profile.getId(),
+            (id, allowance) -> refilled(allowance == null ? seed(profile) : allowance, now))
+        .getSwipesLeft();
+  }
+
+  public void discard(Long profileId) {
+    allowances.remove(profileId);
+  }
+
+  public int size() {
+    return allowances.size();
+  }
+
+  @PreDestroy
+  @Scheduled(fixedDelayString = "${millimeeter.swipes.quota-flush-interval-ms:5000}")
+  public void flush() {
+    LocalDateTime now = LocalDateTime.now();
+    List<Map.Entry<Long, Allowance>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    for (Map.Entry<Long, Allowance> entry : allowances.entrySet()) {
+      Allowance allowance = entry.getValue();
+      if (allowance.isChanged()) {
+        batch.add(Map.entry(entry.getKey(), allowance));
+        if (batch.size() == MAX_BATCH_SIZE) {
+          write(batch);
+          batch.clear();
+        }
+      } else if (allowance.getWaitUntil() == null || now.isAfter(allowance.getWaitUntil())) {
+        allowances.remove(entry.getKey(), allowance);
+      }
+    }
+    if (!batch.isEmpty()) {
+      write(batch);
+    }
+  }
+
+  void write(List<Map.Entry<Long, Allowance>> batch) {
+    Long[] ids = new Long[batch.size()];
+    Integer[] swipesLeft = new Integer[batch.size()];
+    Timestamp[] waitUntil = new Timestamp[batch.size()];
+    for (int i = 0; i < batch.size(); i++) {
+      Allowance allowance = batch.get(i).getValue();
+      ids[i] = batch.get(i).getKey();
+      swipesLeft[i] = allowance.getSwipesLeft();
+      waitUntil[i] =
+          allowance.getWaitUntil() == null ? null : Timestamp.valueOf(allowance.getWaitUntil());
+    }
+    jdbcTemplate.update(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(UPDATE_ALLOWANCES);
+          statement.setArray(1, connection.createArrayOf("bigint", ids));
+          statement.setArray(2, connection.createArrayOf("int4", swipesLeft));
+          statement.setArray(3, connection.createArrayOf("timestamp", waitUntil));
+          return statement;
+        });
+    // AN ALLOWANCE CHANGED DURING THE WRITE STAYS CHANGED FOR THE NEXT FLUSH
+    batch.forEach(
+        entry -> {
+          Allowance written = entry.getValue();
+          allowances.replace(
+              entry.getKey(),
+              written,
+              new Allowance(written.getSwipesLeft(), written.getWaitUntil(), false));
+        });
+  }
+
+  private static Allowance seed(Profile profile) {
+    int swipesLeft = profile.getSwipesLeft() == null ? SWIPES_PER_WINDOW : profile.getSwipesLeft();
+    return new Allowance(swipesLeft, profile.getWaitUntil(), false);
+  }
+
+  private static Allowance refilled(Allowance allowance, LocalDateTime now) {
+    if (allowance.getWaitUntil() != null
+        && now.isAfter(allowance.getWaitUntil())
+        && allowance.getSwipesLeft() < SWIPES_PER_WINDOW) {
+      return new Allowance(SWIPES_PER_WINDOW, allowance.getWaitUntil(), true);
+    }
+    return allowance;
+  }
+
+  // IDENTITY MATTERS, replace AND remove ONLY SUCCEED FOR THE VERY INSTANCE WHICH WAS READ
+  @Getter
+  @AllArgsConstructor
+  static final class Allowance {
+    private final int swipesLeft;
+    private final LocalDateTime waitUntil;
+    private final boolean changed;
+  }
+}
@@ -1,14 +1,27 @@
 package millimeeter.server.service;
 
+import java.math.BigInteger;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import javax.persistence.Tuple;
+import millimeeter.server.dto.QueuedSwipeDto;
+import millimeeter.server.dto.SwipeResultDto;
 import millimeeter.server.enums.SwipeDirection;
+import millimeeter.server.enums.SwipeResult;
 import millimeeter.server.model.Match;
 import millimeeter.server.model.Profile;
 import millimeeter.server.model.Swipe;
+import millimeeter.server.repository.SwipeBatchRepository;
 import millimeeter.server.repository.SwipeRepository;
+import millimeeter.server.service.discovery.ProfileDiscoveryListener;
+import millimeeter.server.service.discovery.SwipeDeckService;
+import millimeeter.server.service.discovery.SwipedProfilesCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
@@ -21,50 +34,159 @@ import org.springframework.web.server.ResponseStatusException;
 public class SwipeService {
 
   private final SwipeRepository swipeRepository;
+  private final SwipeBatchRepository swipeBatchRepository;
   private final MatchService matchServiceImpl;
   private final AuthUtils authUtils;
+  private final SwipedProfilesCache swipedProfilesCache;
+  private final SwipeDeckService swipeDeckService;
+  private final SwipeQuota swipeQuota;
 
   @Autowired
   public SwipeService(
-      SwipeRepository swipeRepository, MatchService matchServiceImpl, AuthUtils authUtils) {
+      SwipeRepository swipeRepository,
+      SwipeBatchRepository swipeBatchRepository,
+      MatchService matchServiceImpl,
+      AuthUtils authUtils,
+      SwipedProfilesCache swipedProfilesCache,
+      SwipeDeckService swipeDeckService,
+      SwipeQuota swipeQuota) {
     this.swipeRepository = swipeRepository;
+    this.swipeBatchRepository = swipeBatchRepository;
     this.matchServiceImpl = matchServiceImpl;
     this.authUtils = authUtils;
+    this.swipedProfilesCache = swipedProfilesCache;
+    this.swipeDeckService = swipeDeckService;
+    this.swipeQuota = swipeQuota;
   }
 
   public Map<String, Object> swipe(Long id, String swipeDirection) {
     authUtils.checkIfProfileExists();
     try {
       Profile profile = authUtils.getProfile();
-      if (profile.getWaitUntil() != null && LocalDateTime.now().isAfter(profile.getWaitUntil())) {
-        profile.setSwipesLeft(50);
-      }
-      if (profile.getSwipesLeft() == 0) {
+      if (!swipeQuota.tryAcquire(profile)) {
         throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "No swipes left");
       }
+      // A SWIPE WHICH IS NOT SAVED DOES NOT COUNT
+      ProfileDiscoveryListener.afterRollback(() -> swipeQuota.release(profile.getId()));
       if (Objects.equals(profile.getId(), id)) {
         throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "You swiped yourself");
       }
-      if (swipeRepository.countAllSwipesFromSenderToReceiver(profile.getId(), id) > 0) {
+      LocalDateTime now = LocalDateTime.now();
+      swipeRepository.lockPair(profile.getId(), id);
+      List<Tuple> result = swipeRepository.swipe(profile.getId(), id, swipeDirection, now);
+      if (result.isEmpty()) {
         throw new ResponseStatusException(HttpStatus.CONFLICT, "You already swiped that profile");
       }
-      Swipe swipe = new Swipe(profile.getId(), id, swipeDirection);
-      swipe = swipeRepository.save(swipe);
-      profile.setSwipesLeft(profile.getSwipesLeft() - 1);
-      profile.setWaitUntil(LocalDateTime.now().plusHours(12));
-      if (swipeRepository.countSelectedSwipesFromSenderToReceiver(
-                  id, profile.getId(), SwipeDirection.RIGHT)
-              > 0
-          && swipeDirection.equals(SwipeDirection.RIGHT.name())) {
-        Match match = matchServiceImpl.addMatch(profile.getId(), id);
-        authUtils.saveProfile(profile);
+      Swipe swipe =
+          new Swipe(
+              result.get(0).get("swipe_id", BigInteger.class).longValue(),
+              profile.getId(),
+              id,
+              SwipeDirection.valueOf(swipeDirection),
+              now);
+      ProfileDiscoveryListener.afterCommit(
+          () -> {
+            swipedProfilesCache.add(profile.getId(), id);
+            swipeDeckService.remove(profile.getId(), id);
+          });
+      BigInteger matchId = result.get(0).get("match_id", BigInteger.class);
+      if (matchId != null) {
+        Match match = new Match(matchId.longValue(), profile.getId(), id, now);
+        matchServiceImpl.recordMatchCreated(match);
         return new HashMap<>(Map.of("match", match));
       } else {
-        authUtils.saveProfile(profile);
         return new HashMap<>(Map.of("swipe", swipe));
       }
     } catch (DataIntegrityViolationException e) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Swiped profile not exists");
     }
   }
+
+  // SWIPES QUEUED BY AN OFFLINE CLIENT, SPENT FROM THE QUOTA IN THE SENT ORDER
+  public List<SwipeResultDto> swipeBatch(List<QueuedSwipeDto> queuedSwipes) {
+    authUtils.checkIfProfileExists();
+    Profile profile = authUtils.getProfile();
+    LocalDateTime now = LocalDateTime.now();
+    SwipeResult[] results = new SwipeResult[queuedSwipes.size()];
+    Map<Long, Integer> indexes = new LinkedHashMap<>();
+    for (int i = 0; i < queuedSwipes.size(); i++) {
+      Long id = queuedSwipes.get(i).getId();
+      if (Objects.equals(profile.getId(), id)) {
+        results[i] = SwipeResult.SELF;
+      } else if (indexes.containsKey(id)) {
+        results[i] = SwipeResult.DUPLICATE;
+      } else if (!swipeQuota.tryAcquire(profile)) {
+        results[i] = SwipeResult.QUOTA_EXCEEDED;
+      } else {
+        indexes.put(id, i);
+      }
+    }
+    List<SwipeResultDto> resultDtos = new ArrayList<>(queuedSwipes.size());
+    for (int i = 0; i < queuedSwipes.size(); i++) {
+      resultDtos.add(new SwipeResultDto(queuedSwipes.get(i).getId(), results[i], null, null));
+    }
+    if (indexes.isEmpty()) {
+      return resultDtos;
+    }
+    int acquired = indexes.size();
+    ProfileDiscoveryListener.afterRollback(() -> swipeQuota.release(profile.getId(), acquired));
+    Long[] receiverIds = indexes.keySet().toArray(new Long[0]);
+    String[] directions = new String[receiverIds.length];
+    Timestamp[] swipedAt = new Timestamp[receiverIds.length];
+    for (int i = 0; i < receiverIds.length; i++) {
+      QueuedSwipeDto queuedSwipe = queuedSwipes.get(indexes.get(receiverIds[i]));
+      directions[i] = queuedSwipe.getDirection();
+      swipedAt[i] = Timestamp.valueOf(swipedAt(queuedSwipe, now));
+    }
+    swipeBatchRepository.lockPairs(profile.getId(), receiverIds);
+    List<Long> swiped = new ArrayList<>();
+    List<Match> matches = new ArrayList<>();
+    for (SwipeBatchRepository.Result inserted :
+        swipeBatchRepository.insert(profile.getId(), receiverIds, directions, swipedAt)) {
+      int index = indexes.get(inserted.getReceiverId());
+      SwipeResultDto resultDto = resultDtos.get(index);
+      if (inserted.getSwipeId() == null) {
+        resultDto.setResult(
+            inserted.isReceiverExists() ? SwipeResult.DUPLICATE : SwipeResult.NOT_FOUND);
+        continue;
+      }
+      swiped.add(inserted.getReceiverId());
+      LocalDateTime swipeTime = swipedAt(queuedSwipes.get(index), now);
+      resultDto.setSwipe(
+          new Swipe(
+              inserted.getSwipeId(),
+              profile.getId(),
+              inserted.getReceiverId(),
+              SwipeDirection.valueOf(queuedSwipes.get(index).getDirection()),
+              swipeTime));
+      resultDto.setResult(SwipeResult.SWIPED);
+      if (inserted.getMatchId() != null) {
+        Match match =
+            new Match(inserted.getMatchId(), profile.getId(), inserted.getReceiverId(), swipeTime);
+        matches.add(match);
+        resultDto.setMatch(match);
+        resultDto.setResult(SwipeResult.MATCHED);
+      }
+    }
+    if (!matches.isEmpty()) {
+      matchServiceImpl.recordMatchesCreated(matches);
+    }
+    // SWIPES WHICH WERE NOT SAVED DO NOT COUNT
+    int unused = acquired - swiped.size();
+    ProfileDiscoveryListener.afterCommit(
+        () -> {
+          swipeQuota.release(profile.getId(), unused);
+          swiped.forEach(
+              id -> {
+                swipedProfilesCache.add(profile.getId(), id);
+                swipeDeckService.remove(profile.getId(), id);
+              });
+        });
+    return resultDtos;
+  }
+
+  private static LocalDateTime swipedAt(QueuedSwipeDto queuedSwipe, LocalDateTime now) {
+    LocalDateTime clientTimestamp = queuedSwipe.getClientTimestamp();
+    return clientTimestamp == null || clientTimestamp.isAfter(now) ? now : clientTimestamp;
+  }
 }
@@ -0,0 +1,219 @@
+package millimeeter.server.service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import millimeeter.server.dto.ChangeDto;
+import millimeeter.server.dto.MatchDto;
+import millimeeter.server.dto.MessageDto;
+import millimeeter.server.dto.SyncDto;
+import millimeeter.server.enums.ChangeType;
+import millimeeter.server.model.Change;
+import millimeeter.server.model.Match;
+import millimeeter.server.repository.ChangeRepository;
+import millimeeter.server.repository.MatchListRepository;
+import millimeeter.server.repository.MatchRepository;
+import millimeeter.server.repository.MessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/*
+    CHANGE LOG FOR INCREMENTAL SYNC OF MATCHES AND CONVERSATIONS, SEE db/003-changes.sql
+
+    EVERY CHANGE IS WRITTEN FOR EACH PROFILE WHICH SHOULD SEE IT, IN THE SAME TRANSACTION AS THE
+    CHANGE ITSELF. COUNTERS ARE ALWAYS LOCKED IN ASCENDING PROFILE ID ORDER TO AVOID DEADLOCKS.
+    AS COUNTERS ONLY GROW WITH THE CHANGES WRITTEN, THE seq VALUES OF A PROFILE HAVE NO GAPS, A
+    TOKEN FOLLOWED BY A GAP POINTS AT CHANGES DELETED BY ChangeRetention.
+*/
+
+@Service
+@Transactional
+public class SyncService {
+
+  static final int SYNC_PAGE_SIZE = 500;
+
+  private final ChangeRepository changeRepository;
+  private final MatchRepository matchRepository;
+  private final MatchListRepository matchListRepository;
+  private final MessageRepository messageRepository;
+  private final AuthUtils authUtils;
+
+  @Autowired
+  public SyncService(
+      ChangeRepository changeRepository,
+      MatchRepository matchRepository,
+      MatchListRepository matchListRepository,
+      MessageRepository messageRepository,
+      AuthUtils authUtils) {
+    this.changeRepository = changeRepository;
+    this.matchRepository = matchRepository;
+    this.matchListRepository = matchListRepository;
+    this.messageRepository = messageRepository;
+    this.authUtils = authUtils;
+  }
+
+  // WITHOUT A TOKEN ONLY THE CURRENT TOKEN IS RETURNED, TO BE USED AFTER A FULL LOAD. THE
+  // COUNTER IS READ BEFORE THE CHANGES, SO CHANGES COMMITTED IN BETWEEN ARE NOT MISTAKEN FOR A GAP
+  public SyncDto sync(Long since) {
+    authUtils.checkIfProfileExists();
+    Long profileId = authUtils.getProfileId();
+    Long seq = changeRepository.findSeqByProfileId(profileId);
+    long currentSeq = seq != null ? seq : 0L;
+    if (since == null) {
+      return new SyncDto(currentSeq, false, List.of());
+    }
+    List<Change> changes =
+        changeRepository.findChangesAfter(profileId, since, PageRequest.ofSize(SYNC_PAGE_SIZE + 1));
+    if (changes.isEmpty() ? currentSeq > since : changes.get(0).getSeq() > since + 1) {
+      throw new ResponseStatusException(
+          HttpStatus.GONE, "Changes since the sync token are no longer kept, full resync required");
+    }
+    boolean hasMore = changes.size() > SYNC_PAGE_SIZE;
+    if (hasMore) {
+      changes = changes.subList(0, SYNC_PAGE_SIZE);
+    }
+    Long token = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+    return new SyncDto(token, hasMore, toChangeDtoList(profileId, changes));
+  }
+
+  public void recordMatchCreated(Match match) {
+    recordForParticipants(match, ChangeType.MATCH_CREATED, null);
+  }
+
+  // MATCHES OF ONE SWIPE BATCH COME IN ANY ORDER, SO THE COUNTER OF EVERY PARTICIPANT IS
+  // INCREMENTED ONCE FOR ALL ITS CHANGES, IN ASCENDING PROFILE ID ORDER, BEFORE THEY ARE WRITTEN
+  public void recordMatchesCreated(List<Match> matches) {
+    SortedMap<Long, List<Match>> matchesByProfileId = new TreeMap<>();
+    for (Match match : matches) {
+      matchesByProfileId.computeIfAbsent(match.getProfileId1(), id -> new ArrayList<>()).add(match);
+      matchesByProfileId.computeIfAbsent(match.getProfileId2(), id -> new ArrayList<>()).add(match);
+    }
+    List<Change> changes = new ArrayList<>();
+    matchesByProfileId.forEach(
+        (profileId, profileMatches) -> {
+          long seq =
+              changeRepository.incrementSeqBy(profileId, profileMatches.size())
+                  - profileMatches.size();
+          for (Match match : profileMatches) {
+            changes.add(
+                new Change(profileId, ++seq, ChangeType.MATCH_CREATED, match.getId(), null));
+          }
+        });
+    changeRepository.saveAll(changes);
+  }
+
+  public void recordMatchDeleted(Match match) {
+    recordForParticipants(match, ChangeType.MATCH_DELETED, null);
+  }
+
+  public void recordMessageSent(Match match, Long messageId) {
+    recordForParticipants(match, ChangeType.MESSAGE_SENT, messageId);
+  }
+
+  public void recordMessageUpdated(Match match, Long messageId) {
+    recordForParticipants(match, ChangeType.MESSAGE_UPDATED, messageId);
+  }
+
+  public void recordMessagesRead(Match match, Long lastReadMessageId) {
+    recordForParticipants(match, ChangeType.MESSAGES_READ, lastReadMessageId);
+  }
+
+  // MATCH ID -> LAST DELIVERED MESSAGE ID, ONLY THE SENDERS OF THESE MESSAGES ARE NOTIFIED
+  public void recordMessagesDelivered(Long profileId, Map<Long, Long> lastDeliveredMessageIds) {
+    if (lastDeliveredMessageIds.isEmpty()) {
+      return;
+    }
+    matchRepository.findAllById(lastDeliveredMessageIds.keySet()).stream()
+        .sorted(Comparator.comparing(match -> counterpartOf(match, profileId)))
+        .forEach(
+            match ->
+                record(
+                    counterpartOf(match, profileId),
+                    ChangeType.MESSAGES_DELIVERED,
+                    match.getId(),
+                    lastDeliveredMessageIds.get(match.getId())));
+  }
+
+  // ONLY THE OTHER PARTICIPANTS ARE NOTIFIED, CHANGES OF THE DELETED PROFILE GO AWAY WITH IT
+  public void recordProfileDeleted(Long profileId) {
+    matchRepository.findAllMatchesByProfileId(profileId).stream()
+        .sorted(Comparator.comparing(match -> counterpartOf(match, profileId)))
+        .forEach(
+            match ->
+                record(
+                    counterpartOf(match, profileId),
+                    ChangeType.MATCH_DELETED,
+                    match.getId(),
+                    null));
+  }
+
+  void recordForParticipants(Match match, ChangeType type, Long messageId) {
+    Long first = Math.min(match.getProfileId1(), match.getProfileId2());
+    Long second = Math.max(match.getProfileId1(), match.getProfileId2());
+    record(first, type, match.getId(), messageId);
+    record(second, type, match.getId(), messageId);
+  }
+
+  void record(Long profileId, ChangeType type, Long matchId, Long messageId) {
+    Long seq = changeRepository.incrementSeq(profileId);
+    changeRepository.save(new Change(profileId, seq, type, matchId, messageId));
+  }
+
+  static Long counterpartOf(Match match, Long profileId) {
+    return Objects.equals(match.getProfileId1(), profileId)
+        ? match.getProfileId2()
+        : match.getProfileId1();
+  }
+
+  // MESSAGES ARE RETURNED IN THEIR CURRENT STATE, SO ONLY THE LAST CHANGE OF EACH IS KEPT
+  List<ChangeDto> toChangeDtoList(Long profileId, List<Change> changes) {
+    Set<Long> matchIds = new HashSet<>();
+    Set<Long> messageIds = new HashSet<>();
+    for (Change change : changes) {
+      if (change.getType() == ChangeType.MATCH_CREATED) {
+        matchIds.add(change.getMatchId());
+      } else if (isMessageChange(change)) {
+        messageIds.add(change.getMessageId());
+      }
+    }
+    Map<Long, MatchDto> matches =
+        matchIds.isEmpty()
+            ? Map.of()
+            : matchListRepository.findMatchesByIds(profileId, matchIds).stream()
+                .collect(Collectors.toMap(MatchDto::getId, Function.identity()));
+    Map<Long, MessageDto> messages =
+        messageIds.isEmpty()
+            ? Map.of()
+            : messageRepository.findMessagesByIds(messageIds).stream()
+                .collect(Collectors.toMap(MessageDto::getId, Function.identity()));
+
+    LinkedList<ChangeDto> changeDtoList = new LinkedList<>();
+    Set<Long> returnedMessageIds = new HashSet<>();
+    for (int i = changes.size() - 1; i >= 0; i--) {
+      Change change = changes.get(i);
+      if (isMessageChange(change) && !returnedMessageIds.add(change.getMessageId())) {
+        continue;
+      }
+      changeDtoList.addFirst(
+          new ChangeDto(
+              change.getSeq(),
+              change.getType(),
+              change.getMatchId(),
+              change.getMessageId(),
+              change.getType() == ChangeType.MATCH_CREATED
+                  ? matches.get(change.getMatchId())
+                  : null,
+              isMessageChange(change) ? messages.get(change.getMessageId()) : null));
+    }
+    return changeDtoList;
+  }
+
+  static boolean isMessageChange(Change change) {
+    return change.getType() == ChangeType.MESSAGE_SENT
+        || change.getType() == ChangeType.MESSAGE_UPDATED;
+  }
+}
@@ -18,6 +18,7 @@ import millimeeter.server.model.Message;
 import millimeeter.server.model.Profile;
 import millimeeter.server.model.Swipe;
 import millimeeter.server.repository.*;
+import millimeeter.server.service.discovery.SwipedProfilesCache;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.stereotype.Component;
@@ -32,18 +33,24 @@ public class TestUtils {
     private final SwipeRepository swipeRepository;
     private final MatchRepository matchRepository;
     private final MessageRepository messageRepository;
+    private final SwipedProfilesCache swipedProfilesCache;
+    private final SyncService syncService;
 
   public TestUtils(
       UserRepository userRepository,
       ProfileRepository profileRepository,
       SwipeRepository swipeRepository,
       MatchRepository matchRepository,
-      MessageRepository messageRepository) {
+      MessageRepository messageRepository,
+      SwipedProfilesCache swipedProfilesCache,
+      SyncService syncService) {
     this.userRepository = userRepository;
     this.profileRepository = profileRepository;
     this.swipeRepository = swipeRepository;
     this.matchRepository = matchRepository;
     this.messageRepository = messageRepository;
+    this.swipedProfilesCache = swipedProfilesCache;
+    this.syncService = syncService;
   }
 
   public static final String USERNAME = "mockUser";
@@ -229,19 +236,34 @@ public class TestUtils {
   }
 
   public Swipe addSwipe(Long from, Long to, String direction) {
-    return swipeRepository.save(new Swipe(from, to, direction));
+    Swipe swipe = swipeRepository.save(new Swipe(from, to, direction));
+    swipedProfilesCache.add(from, to);
+    return swipe;
   }
 
   public Match addMatch(Long profileId1, Long profileId2) {
-    return matchRepository.save(new Match(profileId1, profileId2));
+    Match match = matchRepository.save(new Match(profileId1, profileId2));
+    matchRepository.addToInbox(match.getId(), profileId1, profileId2);
+    syncService.recordMatchCreated(match);
+    return match;
   }
 
   public Message addMessage(Long matchId, Long from, String content) {
     SentMessageDto sentMessageDto = new SentMessageDto(matchId, content, null);
-    return messageRepository.save(new Message(from, sentMessageDto));
+    return addMessage(from, sentMessageDto);
   }
 
   public Message addMessage(Long senderId, SentMessageDto sentMessageDto) {
-    return messageRepository.save(new Message(senderId, sentMessageDto));
+    Message message = messageRepository.save(new Message(senderId, sentMessageDto));
+    matchRepository.updateInboxOnMessageSent(
+        message.getMatchId(),
+        message.getId(),
+        message.getSenderId(),
+        message.getContent(),
+        message.getStatus().name(),
+        message.getSentAt());
+    syncService.recordMessageSent(
+        matchRepository.findById(message.getMatchId()).get(), message.getId());
+    return message;
   }
 }
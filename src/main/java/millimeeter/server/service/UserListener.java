@@ -0,0 +1,26 @@
+package millimeeter.server.service;
+
+import javax.persistence.PostRemove;
+import millimeeter.server.model.User;
+import millimeeter.server.service.discovery.ProfileDiscoveryListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+/*
+    DROPS THE CACHED IDS OF A USER DELETED THROUGH JPA, ONCE THE DELETION IS COMMITTED
+*/
+
+public class UserListener {
+
+  private final ObjectProvider<UserService> userService;
+
+  public UserListener(ObjectProvider<UserService> userService) {
+    this.userService = userService;
+  }
+
+  @PostRemove
+  void onRemove(User user) {
+    String id = user.getId();
+    Long profileId = user.getProfileId();
+    ProfileDiscoveryListener.afterCommit(() -> userService.getObject().evict(id, profileId));
+  }
+}
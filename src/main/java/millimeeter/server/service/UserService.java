@@ -1,8 +1,14 @@
 package millimeeter.server.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
 import millimeeter.server.model.User;
 import millimeeter.server.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
@@ -16,10 +22,32 @@ import org.springframework.web.server.ResponseStatusException;
 public class UserService {
 
   private final UserRepository userRepository;
+  // USER ID -> PROFILE ID, ONLY EXISTING USERS ARE CACHED SO A NEW USER IS NEVER MISSED
+  private final Cache<String, Long> profileIds;
+  // PROFILE ID -> USER ID, USED TO ADDRESS EVENTS TO THE OTHER PARTICIPANT OF A MATCH
+  private final Cache<Long, String> userIds;
 
   @Autowired
-  public UserService(UserRepository userRepository) {
+  public UserService(
+      UserRepository userRepository,
+      MeterRegistry meterRegistry,
+      @Value("${millimeeter.users.profile-id-cache.maximum-size:100000}") long maximumSize,
+      @Value("${millimeeter.users.profile-id-cache.ttl-minutes:10}") long ttlMinutes) {
     this.userRepository = userRepository;
+    this.profileIds =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .recordStats()
+            .build();
+    this.userIds =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, profileIds, "users.profile-ids");
+    CaffeineCacheMetrics.monitor(meterRegistry, userIds, "users.user-ids");
   }
 
   public User create() {
@@ -28,14 +56,26 @@ public class UserService {
       throw new ResponseStatusException(HttpStatus.CONFLICT, "User already exists");
     }
     try {
-      return userRepository.createUser(userId);
+      User user = userRepository.createUser(userId);
+      evict(userId, user.getProfileId());
+      return user;
     } catch (DataIntegrityViolationException e) {
       throw new ResponseStatusException(HttpStatus.CONFLICT, "User already exists");
     }
   }
 
   public boolean existsById(String id) {
-    return userRepository.findById(id).isPresent();
+    if (profileIds.getIfPresent(id) != null) {
+      return true;
+    }
+    User user = userRepository.findById(id).orElse(null);
+    if (user == null) {
+      return false;
+    }
+    if (user.getProfileId() != null) {
+      profileIds.put(id, user.getProfileId());
+    }
+    return true;
   }
 
   public String getId() {
@@ -44,6 +84,32 @@ public class UserService {
   }
 
   public Long getProfileId(String userId) {
-    return userRepository.findProfileIdById(userId);
+    Long profileId = profileIds.getIfPresent(userId);
+    if (profileId == null) {
+      profileId = userRepository.findProfileIdById(userId);
+      if (profileId != null) {
+        profileIds.put(userId, profileId);
+      }
+    }
+    return profileId;
+  }
+
+  public String getIdByProfileId(Long profileId) {
+    String userId = userIds.getIfPresent(profileId);
+    if (userId == null) {
+      userId = userRepository.findIdByProfileId(profileId);
+      if (userId != null) {
+        userIds.put(profileId, userId);
+      }
+    }
+    return userId;
+  }
+
+  // BOTH IDS ARE GIVEN, SO NEITHER CACHE HAS TO BE SEARCHED FOR THE OTHER ONE
+  public void evict(String userId, Long profileId) {
+    profileIds.invalidate(userId);
+    if (profileId != null) {
+      userIds.invalidate(profileId);
+    }
   }
 }
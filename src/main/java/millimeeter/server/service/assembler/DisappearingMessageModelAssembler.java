@@ -0,0 +1,39 @@
+package millimeeter.server.service.assembler;
+
+import java.util.Objects;
+import millimeeter.server.model.DisappearingMessage;
+import millimeeter.server.service.AuthUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DisappearingMessageModelAssembler
+    implements RepresentationModelAssembler<DisappearingMessage, EntityModel<DisappearingMessage>> {
+
+  private final LinkTemplates linkTemplates;
+  private final AuthUtils authUtils;
+
+  @Autowired
+  public DisappearingMessageModelAssembler(LinkTemplates linkTemplates, AuthUtils authUtils) {
+    this.linkTemplates = linkTemplates;
+    this.authUtils = authUtils;
+  }
+
+  @Override
+  public EntityModel<DisappearingMessage> toModel(DisappearingMessage message) {
+    // CONVERSATIONS ARE ADDRESSED BY THE OTHER PROFILE, WHICHEVER SIDE SENT THE MESSAGE
+    Long counterpartId =
+        Objects.equals(message.getSenderId(), authUtils.getProfileId())
+            ? message.getReceiverId()
+            : message.getSenderId();
+    EntityModel<DisappearingMessage> messageModel = EntityModel.of(message);
+    messageModel.add(linkTemplates.sendDisappearingMessage.expand("reply"));
+    messageModel.add(
+        linkTemplates.disappearingConversation.expand("conversation", counterpartId));
+    messageModel.add(linkTemplates.readDisappearingMessages.expand("read", counterpartId));
+
+    return messageModel;
+  }
+}
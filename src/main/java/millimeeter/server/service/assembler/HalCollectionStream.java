@@ -0,0 +1,52 @@
+package millimeeter.server.service.assembler;
+
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.Getter;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+
+/*
+    A HAL COLLECTION WHOSE ITEMS ARE ASSEMBLED AND WRITTEN ONE AT A TIME WHILE THE RESPONSE IS
+    WRITTEN, INSTEAD OF BEING COLLECTED INTO A CollectionModel FIRST. RENDERS THE SAME JSON AS
+    CollectionModel.of(items).add(links)
+*/
+@Getter
+public final class HalCollectionStream<T> {
+
+  private final Rows<T> rows;
+  private final RepresentationModelAssembler<T, ? extends RepresentationModel<?>> assembler;
+  private final List<Link> links;
+
+  private HalCollectionStream(
+      Rows<T> rows,
+      RepresentationModelAssembler<T, ? extends RepresentationModel<?>> assembler,
+      List<Link> links) {
+    this.rows = rows;
+    this.assembler = assembler;
+    this.links = links;
+  }
+
+  public static <T> HalCollectionStream<T> of(
+      Rows<T> rows, RepresentationModelAssembler<T, ? extends RepresentationModel<?>> assembler) {
+    return new HalCollectionStream<>(rows, assembler, List.of());
+  }
+
+  public HalCollectionStream<T> withLinks(List<Link> links) {
+    return new HalCollectionStream<>(rows, assembler, links);
+  }
+
+  /*
+      SOURCE OF THE ITEMS, CALLED ONCE WHEN THE RESPONSE BODY IS WRITTEN
+
+      A FAILURE BEFORE THE FIRST ITEM GETS A NORMAL ERROR RESPONSE, A FAILURE AFTER IT CAN ONLY CUT
+      THE BODY OF A RESPONSE WHICH MAY ALREADY BE SENT AS 200. ROWS FROM THE DATABASE ARE THEREFORE
+      READ AS A BOUNDED PAGE BEFORE THE RESPONSE IS WRITTEN, NOT FROM A CURSOR KEPT OPEN WHILE
+      WRITING, WHICH WOULD ALSO HOLD A POOLED CONNECTION FOR AS LONG AS A SLOW CLIENT READS
+  */
+  @FunctionalInterface
+  public interface Rows<T> {
+    void forEach(Consumer<T> action);
+  }
+}
@@ -0,0 +1,82 @@
+package millimeeter.server.service.assembler;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/*
+    A CONTROLLER MAPPING RESOLVED ONCE, e.g. /api/v1/messages/{id}/{reaction}{?since}. PATH
+    VARIABLES ARE FILLED IN ORDER BY PLAIN STRING SUBSTITUTION, THE REMAINING VALUES GO TO THE
+    QUERY VARIABLES AND NULL ONES ARE LEFT OUT. VALUES ARE NOT ENCODED, SO ONLY IDS, TOKENS AND
+    ENUM NAMES SHOULD BE PASSED
+*/
+public final class LinkTemplate {
+
+  private static final String BASE_URI_ATTRIBUTE = LinkTemplate.class.getName() + ".BASE_URI";
+
+  private final String[] literals;
+  private final String[] queryVariables;
+
+  private LinkTemplate(String[] literals, String[] queryVariables) {
+    this.literals = literals;
+    this.queryVariables = queryVariables;
+  }
+
+  public static LinkTemplate of(Link link) {
+    String template = link.getHref();
+    String[] queryVariables = new String[0];
+    int query = template.indexOf("{?");
+    if (query >= 0) {
+      queryVariables =
+          template.substring(query + 2, template.indexOf('}', query)).split(",");
+      template = template.substring(0, query);
+    }
+    List<String> literals = new ArrayList<>();
+    int start = 0;
+    int open;
+    while ((open = template.indexOf('{', start)) >= 0) {
+      literals.add(template.substring(start, open));
+      start = template.indexOf('}', open) + 1;
+    }
+    literals.add(template.substring(start));
+    return new LinkTemplate(literals.toArray(String[]::new), queryVariables);
+  }
+
+  public Link expand(String rel, Object... values) {
+    StringBuilder href = new StringBuilder(baseUri()).append(literals[0]);
+    int value = 0;
+    for (int i = 1; i < literals.length; i++) {
+      href.append(values[value++]).append(literals[i]);
+    }
+    char separator = '?';
+    for (String variable : queryVariables) {
+      Object queryValue = value < values.length ? values[value] : null;
+      value++;
+      if (queryValue != null) {
+        href.append(separator).append(variable).append('=').append(queryValue);
+        separator = '&';
+      }
+    }
+    return Link.of(href.toString(), rel);
+  }
+
+  /*
+      SCHEME, HOST AND CONTEXT PATH OF THE CURRENT REQUEST, COMPUTED ONCE PER REQUEST LIKE
+      linkTo DOES, EMPTY OUTSIDE OF A REQUEST
+  */
+  static String baseUri() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return "";
+    }
+    Object baseUri = attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (baseUri == null) {
+      baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+      attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+    }
+    return (String) baseUri;
+  }
+}
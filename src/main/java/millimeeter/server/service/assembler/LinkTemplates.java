@@ -0,0 +1,60 @@
+package millimeeter.server.service.assembler;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import millimeeter.server.controller.DisappearingMessageController;
+import millimeeter.server.controller.MatchController;
+import millimeeter.server.controller.MessageController;
+import millimeeter.server.controller.ProfileController;
+import millimeeter.server.controller.SwipeController;
+import millimeeter.server.controller.SyncController;
+import org.springframework.stereotype.Component;
+
+/*
+    CONTROLLER MAPPINGS USED BY THE ASSEMBLERS, RESOLVED ONCE AT STARTUP INSTEAD OF PROXYING THE
+    CONTROLLER AND INTROSPECTING ITS ANNOTATIONS FOR EVERY LINK OF EVERY ITEM
+*/
+@Component
+public class LinkTemplates {
+
+  final LinkTemplate conversation =
+      LinkTemplate.of(
+          linkTo(methodOn(MessageController.class).findMessagesByMatchId(null, null, null, null))
+              .withSelfRel());
+  final LinkTemplate sendMessage =
+      LinkTemplate.of(linkTo(methodOn(MessageController.class).send(null)).withSelfRel());
+  final LinkTemplate reactToMessage =
+      LinkTemplate.of(
+          linkTo(methodOn(MessageController.class).reactToMessage(null, null)).withSelfRel());
+  final LinkTemplate deleteReaction =
+      LinkTemplate.of(
+          linkTo(methodOn(MessageController.class).deleteReactionFromMessage(null))
+              .withSelfRel());
+  final LinkTemplate disappearingConversation =
+      LinkTemplate.of(
+          linkTo(methodOn(DisappearingMessageController.class).findConversation(null))
+              .withSelfRel());
+  final LinkTemplate sendDisappearingMessage =
+      LinkTemplate.of(
+          linkTo(methodOn(DisappearingMessageController.class).send(null)).withSelfRel());
+  final LinkTemplate readDisappearingMessages =
+      LinkTemplate.of(
+          linkTo(methodOn(DisappearingMessageController.class).readMessagesFrom(null))
+              .withSelfRel());
+  final LinkTemplate deleteMatch =
+      LinkTemplate.of(linkTo(methodOn(MatchController.class).deleteMatch(null)).withSelfRel());
+  final LinkTemplate createProfile =
+      LinkTemplate.of(linkTo(methodOn(ProfileController.class).create(null, null)).withSelfRel());
+  final LinkTemplate updateProfile =
+      LinkTemplate.of(linkTo(methodOn(ProfileController.class).update(null)).withSelfRel());
+  final LinkTemplate deleteProfile =
+      LinkTemplate.of(linkTo(methodOn(ProfileController.class).deleteProfile()).withSelfRel());
+  final LinkTemplate swipesLeft =
+      LinkTemplate.of(
+          linkTo(methodOn(ProfileController.class).getSwipesLeftCount()).withSelfRel());
+  final LinkTemplate swipe =
+      LinkTemplate.of(linkTo(methodOn(SwipeController.class).swipe(null, null)).withSelfRel());
+  final LinkTemplate sync =
+      LinkTemplate.of(linkTo(methodOn(SyncController.class).sync(null)).withSelfRel());
+}
@@ -1,11 +1,7 @@
 package millimeeter.server.service.assembler;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
-import millimeeter.server.controller.MatchController;
-import millimeeter.server.controller.MessageController;
 import millimeeter.server.dto.MatchDto;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
@@ -14,14 +10,18 @@ import org.springframework.stereotype.Component;
 public class MatchDtoModelAssembler
     implements RepresentationModelAssembler<MatchDto, EntityModel<MatchDto>> {
 
+  private final LinkTemplates linkTemplates;
+
+  @Autowired
+  public MatchDtoModelAssembler(LinkTemplates linkTemplates) {
+    this.linkTemplates = linkTemplates;
+  }
+
   @Override
   public EntityModel<MatchDto> toModel(MatchDto match) {
     EntityModel<MatchDto> matchModel = EntityModel.of(match);
-    matchModel.add(
-        linkTo(methodOn(MessageController.class).findMessagesByMatchId(match.getId()))
-            .withRel("conversation"));
-    matchModel.add(
-        linkTo(methodOn(MatchController.class).deleteMatch(match.getId())).withRel("delete"));
+    matchModel.add(linkTemplates.conversation.expand("conversation", match.getId()));
+    matchModel.add(linkTemplates.deleteMatch.expand("delete", match.getId()));
 
     return matchModel;
   }
@@ -1,12 +1,7 @@
 package millimeeter.server.service.assembler;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
-import millimeeter.server.controller.MatchController;
-import millimeeter.server.controller.MessageController;
-import millimeeter.server.controller.ProfileController;
 import millimeeter.server.model.Match;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
@@ -15,18 +10,20 @@ import org.springframework.stereotype.Component;
 public class MatchModelAssembler
     implements RepresentationModelAssembler<Match, EntityModel<Match>> {
 
+  private final LinkTemplates linkTemplates;
+
+  @Autowired
+  public MatchModelAssembler(LinkTemplates linkTemplates) {
+    this.linkTemplates = linkTemplates;
+  }
+
   @Override
   public EntityModel<Match> toModel(Match match) {
     EntityModel<Match> matchModel = EntityModel.of(match);
-    matchModel.add(
-        linkTo(methodOn(MessageController.class).findMessagesByMatchId(match.getId()))
-            .withRel("conversation"));
-    matchModel.add(linkTo(methodOn(MessageController.class).send(null)).withRel("send message"));
-    matchModel.add(
-        linkTo(methodOn(MatchController.class).deleteMatch(match.getId())).withRel("delete"));
-    matchModel.add(
-        linkTo(methodOn(ProfileController.class).getSwipesLeftCount())
-            .withRel("swipes left amount"));
+    matchModel.add(linkTemplates.conversation.expand("conversation", match.getId()));
+    matchModel.add(linkTemplates.sendMessage.expand("send message"));
+    matchModel.add(linkTemplates.deleteMatch.expand("delete", match.getId()));
+    matchModel.add(linkTemplates.swipesLeft.expand("swipes left amount"));
 
     return matchModel;
   }
@@ -1,11 +1,7 @@
 package millimeeter.server.service.assembler;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
-import millimeeter.server.controller.MatchController;
-import millimeeter.server.controller.MessageController;
 import millimeeter.server.dto.MatchWithMessagesDto;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
@@ -15,14 +11,18 @@ public class MatchWithMessagesDtoModelAssembler
     implements RepresentationModelAssembler<
         MatchWithMessagesDto, EntityModel<MatchWithMessagesDto>> {
 
+  private final LinkTemplates linkTemplates;
+
+  @Autowired
+  public MatchWithMessagesDtoModelAssembler(LinkTemplates linkTemplates) {
+    this.linkTemplates = linkTemplates;
+  }
+
   @Override
   public EntityModel<MatchWithMessagesDto> toModel(MatchWithMessagesDto match) {
     EntityModel<MatchWithMessagesDto> matchModel = EntityModel.of(match);
-    matchModel.add(
-        linkTo(methodOn(MessageController.class).findMessagesByMatchId(match.getId()))
-            .withRel("conversation"));
-    matchModel.add(
-        linkTo(methodOn(MatchController.class).deleteMatch(match.getId())).withRel("delete"));
+    matchModel.add(linkTemplates.conversation.expand("conversation", match.getId()));
+    matchModel.add(linkTemplates.deleteMatch.expand("delete", match.getId()));
 
     return matchModel;
   }
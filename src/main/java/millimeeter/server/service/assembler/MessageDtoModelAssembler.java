@@ -1,11 +1,8 @@
 package millimeeter.server.service.assembler;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
-import millimeeter.server.controller.MessageController;
 import millimeeter.server.dto.MessageDto;
 import millimeeter.server.enums.MessageReaction;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
@@ -14,43 +11,36 @@ import org.springframework.stereotype.Component;
 public class MessageDtoModelAssembler
     implements RepresentationModelAssembler<MessageDto, EntityModel<MessageDto>> {
 
+  private final LinkTemplates linkTemplates;
+
+  @Autowired
+  public MessageDtoModelAssembler(LinkTemplates linkTemplates) {
+    this.linkTemplates = linkTemplates;
+  }
+
   @Override
   public EntityModel<MessageDto> toModel(MessageDto message) {
     EntityModel<MessageDto> messageModel = EntityModel.of(message);
-    messageModel.add(linkTo(methodOn(MessageController.class).send(null)).withRel("reply"));
-    messageModel.add(
-        linkTo(
-                methodOn(MessageController.class)
-                    .reactToMessage(message.getId(), MessageReaction.LIKE.toString()))
-            .withRel("react like"));
+    messageModel.add(linkTemplates.sendMessage.expand("reply"));
     messageModel.add(
-        linkTo(
-                methodOn(MessageController.class)
-                    .reactToMessage(message.getId(), MessageReaction.SUPER.toString()))
-            .withRel("react super"));
+        linkTemplates.reactToMessage.expand(
+            "react like", message.getId(), MessageReaction.LIKE.toString()));
     messageModel.add(
-        linkTo(
-                methodOn(MessageController.class)
-                    .reactToMessage(message.getId(), MessageReaction.HAHA.toString()))
-            .withRel("react haha"));
+        linkTemplates.reactToMessage.expand(
+            "react super", message.getId(), MessageReaction.SUPER.toString()));
     messageModel.add(
-        linkTo(
-                methodOn(MessageController.class)
-                    .reactToMessage(message.getId(), MessageReaction.CRY.toString()))
-            .withRel("react cry"));
+        linkTemplates.reactToMessage.expand(
+            "react haha", message.getId(), MessageReaction.HAHA.toString()));
     messageModel.add(
-        linkTo(
-                methodOn(MessageController.class)
-                    .reactToMessage(message.getId(), MessageReaction.WRR.toString()))
-            .withRel("react wrr"));
+        linkTemplates.reactToMessage.expand(
+            "react cry", message.getId(), MessageReaction.CRY.toString()));
     messageModel.add(
-        linkTo(
-                methodOn(MessageController.class)
-                    .reactToMessage(message.getId(), MessageReaction.CARE.toString()))
-            .withRel("react care"));
+        linkTemplates.reactToMessage.expand(
+            "react wrr", message.getId(), MessageReaction.WRR.toString()));
     messageModel.add(
-        linkTo(methodOn(MessageController.class).deleteReactionFromMessage(message.getId()))
-            .withRel("delete reaction"));
+        linkTemplates.reactToMessage.expand(
+            "react care", message.getId(), MessageReaction.CARE.toString()));
+    messageModel.add(linkTemplates.deleteReaction.expand("delete reaction", message.getId()));
 
     return messageModel;
   }
@@ -1,10 +1,7 @@
 package millimeeter.server.service.assembler;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
-import millimeeter.server.controller.ProfileController;
 import millimeeter.server.dto.MyProfileDto;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
@@ -13,12 +10,18 @@ import org.springframework.stereotype.Component;
 public class MyProfileDtoModelAssembler
     implements RepresentationModelAssembler<MyProfileDto, EntityModel<MyProfileDto>> {
 
+  private final LinkTemplates linkTemplates;
+
+  @Autowired
+  public MyProfileDtoModelAssembler(LinkTemplates linkTemplates) {
+    this.linkTemplates = linkTemplates;
+  }
+
   @Override
   public EntityModel<MyProfileDto> toModel(MyProfileDto profile) {
     EntityModel<MyProfileDto> profileDtoModel = EntityModel.of(profile);
-    profileDtoModel.add(linkTo(methodOn(ProfileController.class).update(null)).withRel("update"));
-    profileDtoModel.add(
-        linkTo(methodOn(ProfileController.class).deleteProfile()).withRel("delete"));
+    profileDtoModel.add(linkTemplates.updateProfile.expand("update"));
+    profileDtoModel.add(linkTemplates.deleteProfile.expand("delete"));
 
     return profileDtoModel;
   }
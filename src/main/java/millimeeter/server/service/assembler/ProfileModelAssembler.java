@@ -1,10 +1,7 @@
 package millimeeter.server.service.assembler;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
-import millimeeter.server.controller.ProfileController;
 import millimeeter.server.model.Profile;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
@@ -13,11 +10,18 @@ import org.springframework.stereotype.Component;
 public class ProfileModelAssembler
     implements RepresentationModelAssembler<Profile, EntityModel<Profile>> {
 
+  private final LinkTemplates linkTemplates;
+
+  @Autowired
+  public ProfileModelAssembler(LinkTemplates linkTemplates) {
+    this.linkTemplates = linkTemplates;
+  }
+
   @Override
   public EntityModel<Profile> toModel(Profile profile) {
     EntityModel<Profile> profileModel = EntityModel.of(profile);
-    profileModel.add(linkTo(methodOn(ProfileController.class).update(null)).withRel("update"));
-    profileModel.add(linkTo(methodOn(ProfileController.class).deleteProfile()).withRel("delete"));
+    profileModel.add(linkTemplates.updateProfile.expand("update"));
+    profileModel.add(linkTemplates.deleteProfile.expand("delete"));
 
     return profileModel;
   }
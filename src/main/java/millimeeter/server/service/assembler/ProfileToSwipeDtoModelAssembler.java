@@ -1,10 +1,7 @@
 package millimeeter.server.service.assembler;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
-import millimeeter.server.controller.SwipeController;
 import millimeeter.server.dto.ProfileToSwipeDto;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
@@ -13,15 +10,18 @@ import org.springframework.stereotype.Component;
 public class ProfileToSwipeDtoModelAssembler
     implements RepresentationModelAssembler<ProfileToSwipeDto, EntityModel<ProfileToSwipeDto>> {
 
+  private final LinkTemplates linkTemplates;
+
+  @Autowired
+  public ProfileToSwipeDtoModelAssembler(LinkTemplates linkTemplates) {
+    this.linkTemplates = linkTemplates;
+  }
+
   @Override
   public EntityModel<ProfileToSwipeDto> toModel(ProfileToSwipeDto profile) {
     EntityModel<ProfileToSwipeDto> profileModel = EntityModel.of(profile);
-    profileModel.add(
-        linkTo(methodOn(SwipeController.class).swipe(profile.getId(), "LEFT"))
-            .withRel("swipe left"));
-    profileModel.add(
-        linkTo(methodOn(SwipeController.class).swipe(profile.getId(), "RIGHT"))
-            .withRel("swipe right"));
+    profileModel.add(linkTemplates.swipe.expand("swipe left", profile.getId(), "LEFT"));
+    profileModel.add(linkTemplates.swipe.expand("swipe right", profile.getId(), "RIGHT"));
 
     return profileModel;
   }
@@ -1,10 +1,7 @@
 package millimeeter.server.service.assembler;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
-import millimeeter.server.controller.ProfileController;
 import millimeeter.server.model.Swipe;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
@@ -13,12 +10,17 @@ import org.springframework.stereotype.Component;
 public class SwipeModelAssembler
     implements RepresentationModelAssembler<Swipe, EntityModel<Swipe>> {
 
+  private final LinkTemplates linkTemplates;
+
+  @Autowired
+  public SwipeModelAssembler(LinkTemplates linkTemplates) {
+    this.linkTemplates = linkTemplates;
+  }
+
   @Override
   public EntityModel<Swipe> toModel(Swipe swipe) {
     EntityModel<Swipe> swipeModel = EntityModel.of(swipe);
-    swipeModel.add(
-        linkTo(methodOn(ProfileController.class).getSwipesLeftCount())
-            .withRel("swipes left amount"));
+    swipeModel.add(linkTemplates.swipesLeft.expand("swipes left amount"));
 
     return swipeModel;
   }
@@ -0,0 +1,41 @@
+package millimeeter.server.service.assembler;
+
+import millimeeter.server.dto.SwipeResultDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SwipeResultDtoModelAssembler
+    implements RepresentationModelAssembler<SwipeResultDto, EntityModel<SwipeResultDto>> {
+
+  private final LinkTemplates linkTemplates;
+  private final MatchModelAssembler matchModelAssembler;
+  private final SwipeModelAssembler swipeModelAssembler;
+
+  @Autowired
+  public SwipeResultDtoModelAssembler(
+      LinkTemplates linkTemplates,
+      MatchModelAssembler matchModelAssembler,
+      SwipeModelAssembler swipeModelAssembler) {
+    this.linkTemplates = linkTemplates;
+    this.matchModelAssembler = matchModelAssembler;
+    this.swipeModelAssembler = swipeModelAssembler;
+  }
+
+  // SAME LINKS AS THE RESPONSE TO A SINGLE SWIPE WITH THE SAME RESULT
+  @Override
+  public EntityModel<SwipeResultDto> toModel(SwipeResultDto swipeResult) {
+    EntityModel<SwipeResultDto> swipeResultModel = EntityModel.of(swipeResult);
+    if (swipeResult.getMatch() != null) {
+      swipeResultModel.add(matchModelAssembler.toModel(swipeResult.getMatch()).getLinks());
+    } else if (swipeResult.getSwipe() != null) {
+      swipeResultModel.add(swipeModelAssembler.toModel(swipeResult.getSwipe()).getLinks());
+    } else {
+      swipeResultModel.add(linkTemplates.swipesLeft.expand("swipes left amount"));
+    }
+
+    return swipeResultModel;
+  }
+}
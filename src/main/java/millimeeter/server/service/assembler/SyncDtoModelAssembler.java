@@ -0,0 +1,27 @@
+package millimeeter.server.service.assembler;
+
+import millimeeter.server.dto.SyncDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SyncDtoModelAssembler
+    implements RepresentationModelAssembler<SyncDto, EntityModel<SyncDto>> {
+
+  private final LinkTemplates linkTemplates;
+
+  @Autowired
+  public SyncDtoModelAssembler(LinkTemplates linkTemplates) {
+    this.linkTemplates = linkTemplates;
+  }
+
+  @Override
+  public EntityModel<SyncDto> toModel(SyncDto sync) {
+    EntityModel<SyncDto> syncModel = EntityModel.of(sync);
+    syncModel.add(linkTemplates.sync.expand("next", sync.getToken()));
+
+    return syncModel;
+  }
+}
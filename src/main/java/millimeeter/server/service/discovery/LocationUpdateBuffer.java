@@ -0,0 +1,140 @@
+package millimeeter.server.service.discovery;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PreDestroy;
+import lombok.Value;
+import millimeeter.server.model.Profile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+    WRITE-BEHIND BUFFER OF PROFILE LOCATIONS
+
+    LOCATIONS ARE COALESCED BY PROFILE ID, THE LAST ONE WINS, AND WRITTEN TO POSTGRES BY A SINGLE
+    UPDATE PER FLUSH. THE LOCATION INDEX IS UPDATED IMMEDIATELY AND LOCATIONS NOT FLUSHED YET ARE
+    SERVED FROM HERE, SO DISCOVERY NEVER SEES A STALE LOCATION OF THE SWIPING PROFILE. AN ENTRY IS
+    ONLY DROPPED ONCE THE LOCATION IT HELD IS WRITTEN, A FAILED FLUSH IS RETRIED BY THE NEXT ONE.
+*/
+
+@Component
+public class LocationUpdateBuffer {
+
+  static final int MAX_BATCH_SIZE = 5000;
+  static final String UPDATE_LOCATIONS =
+      "UPDATE profiles SET last_latitude = l.latitude, last_longitude = l.longitude FROM"
+          + " UNNEST(?::bigint[], ?::float8[], ?::float8[]) AS l(id, latitude, longitude)"
+          + " WHERE profiles.id = l.id";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ProfileLocationIndex profileLocationIndex;
+  private final Map<Long, Location> buffered = new ConcurrentHashMap<>();
+  private final Timer flushLatency;
+  private final DistributionSummary flushBatchSize;
+
+  @Autowired
+  public LocationUpdateBuffer(
+      JdbcTemplate jdbcTemplate,
+      ProfileLocationIndex profileLocationIndex,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.profileLocationIndex = profileLocationIndex;
+    this.flushLatency = meterRegistry.timer("discovery.location.flush.latency");
+    this.flushBatchSize =
+        DistributionSummary.builder("discovery.location.flush.batch.size").register(meterRegistry);
+    Gauge.builder("discovery.location.buffer.size", buffered, Map::size).register(meterRegistry);
+  }
+
+  public void record(Long profileId, Double latitude, Double longitude) {
+    buffered.put(profileId, new Location(latitude, longitude));
+    profileLocationIndex.updateLocation(profileId, latitude, longitude);
+  }
+
+  // PROFILE WITH THE LOCATION NOT FLUSHED YET, AS A COPY SO IT IS NOT WRITTEN BACK BY JPA
+  public Profile withBufferedLocation(Profile profile) {
+    Location location = buffered.get(profile.getId());
+    if (location == null) {
+      return profile;
+    }
+    Profile copy = new Profile(profile);
+    copy.setLastLatitude(location.getLatitude());
+    copy.setLastLongitude(location.getLongitude());
+    return copy;
+  }
+
+  public ProfileIndexEntry withBufferedLocation(ProfileIndexEntry entry) {
+    Location location = buffered.get(entry.getId());
+    if (location == null) {
+      return entry;
+    }
+    return new ProfileIndexEntry(
+        entry.getId(),
+        entry.getGender(),
+        entry.getDateOfBirth(),
+        location.getLatitude(),
+        location.getLongitude());
+  }
+
+  public void discard(Long profileId) {
+    buffered.remove(profileId);
+  }
+
+  public int size() {
+    return buffered.size();
+  }
+
+  @PreDestroy
+  @Scheduled(fixedDelayString = "${millimeeter.discovery.location-flush-interval-ms:1000}")
+  public void flush() {
+    List<Map.Entry<Long, Location>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    for (Map.Entry<Long, Location> entry : buffered.entrySet()) {
+      batch.add(Map.entry(entry.getKey(), entry.getValue()));
+      if (batch.size() == MAX_BATCH_SIZE) {
+        write(batch);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      write(batch);
+    }
+  }
+
+  void write(List<Map.Entry<Long, Location>> batch) {
+    Long[] ids = new Long[batch.size()];
+    Double[] latitudes = new Double[batch.size()];
+    Double[] longitudes = new Double[batch.size()];
+    for (int i = 0; i < batch.size(); i++) {
+      ids[i] = batch.get(i).getKey();
+      latitudes[i] = batch.get(i).getValue().getLatitude();
+      longitudes[i] = batch.get(i).getValue().getLongitude();
+    }
+    flushLatency.record(
+        () ->
+            jdbcTemplate.update(
+                connection -> {
+                  PreparedStatement statement = connection.prepareStatement(UPDATE_LOCATIONS);
+                  statement.setArray(1, connection.createArrayOf("bigint", ids));
+                  statement.setArray(2, connection.createArrayOf("float8", latitudes));
+                  statement.setArray(3, connection.createArrayOf("float8", longitudes));
+                  return statement;
+                }));
+    flushBatchSize.record(batch.size());
+    // A LOCATION RECORDED DURING THE WRITE STAYS FOR THE NEXT FLUSH
+    batch.forEach(entry -> buffered.remove(entry.getKey(), entry.getValue()));
+  }
+
+  @Value
+  static class Location {
+    Double latitude;
+    Double longitude;
+  }
+}
@@ -0,0 +1,111 @@
+package millimeeter.server.service.discovery;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import millimeeter.server.model.Profile;
+import millimeeter.server.service.SwipeQuota;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+    KEEPS ProfileLocationIndex, SwipedProfilesCache, SwipeDeckService, LocationUpdateBuffer AND
+    SwipeQuota IN SYNC WITH EVERY PROFILE WRITE GOING THROUGH JPA, CHANGES ARE APPLIED ONLY AFTER
+    THE SURROUNDING TRANSACTION COMMITS
+*/
+
+public class ProfileDiscoveryListener {
+
+  private final ObjectProvider<ProfileLocationIndex> profileLocationIndex;
+  private final ObjectProvider<SwipedProfilesCache> swipedProfilesCache;
+  private final ObjectProvider<SwipeDeckService> swipeDeckService;
+  private final ObjectProvider<LocationUpdateBuffer> locationUpdateBuffer;
+  private final ObjectProvider<SwipeQuota> swipeQuota;
+
+  public ProfileDiscoveryListener(
+      ObjectProvider<ProfileLocationIndex> profileLocationIndex,
+      ObjectProvider<SwipedProfilesCache> swipedProfilesCache,
+      ObjectProvider<SwipeDeckService> swipeDeckService,
+      ObjectProvider<LocationUpdateBuffer> locationUpdateBuffer,
+      ObjectProvider<SwipeQuota> swipeQuota) {
+    this.profileLocationIndex = profileLocationIndex;
+    this.swipedProfilesCache = swipedProfilesCache;
+    this.swipeDeckService = swipeDeckService;
+    this.locationUpdateBuffer = locationUpdateBuffer;
+    this.swipeQuota = swipeQuota;
+  }
+
+  // A LOCATION NOT FLUSHED YET IS NEWER THAN THE ONE OF THE SAVED PROFILE
+  @PostPersist
+  void onPersist(Profile profile) {
+    ProfileIndexEntry entry = new ProfileIndexEntry(profile);
+    afterCommit(
+        () ->
+            profileLocationIndex
+                .getObject()
+                .put(locationUpdateBuffer.getObject().withBufferedLocation(entry)));
+  }
+
+  // AN UPDATE NEVER WRITES THE LOCATION, THE INDEXED ONE IS KEPT AS THE PROFILE MAY BE STALE
+  @PostUpdate
+  void onUpdate(Profile profile) {
+    ProfileIndexEntry entry = new ProfileIndexEntry(profile);
+    afterCommit(
+        () -> {
+          ProfileIndexEntry indexed = profileLocationIndex.getObject().get(entry.getId());
+          profileLocationIndex
+              .getObject()
+              .put(
+                  indexed == null
+                      ? locationUpdateBuffer.getObject().withBufferedLocation(entry)
+                      : new ProfileIndexEntry(
+                          entry.getId(),
+                          entry.getGender(),
+                          entry.getDateOfBirth(),
+                          indexed.getLastLatitude(),
+                          indexed.getLastLongitude()));
+        });
+  }
+
+  @PostRemove
+  void onRemove(Profile profile) {
+    Long id = profile.getId();
+    afterCommit(
+        () -> {
+          profileLocationIndex.getObject().remove(id);
+          swipedProfilesCache.getObject().removeProfile(id);
+          swipeDeckService.getObject().evict(id);
+          locationUpdateBuffer.getObject().discard(id);
+          swipeQuota.getObject().discard(id);
+        });
+  }
+
+  public static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
+  }
+
+  public static void afterRollback(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              if (status == STATUS_ROLLED_BACK) {
+                action.run();
+              }
+            }
+          });
+    }
+  }
+}
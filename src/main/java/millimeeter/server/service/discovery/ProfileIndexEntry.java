@@ -0,0 +1,31 @@
+package millimeeter.server.service.discovery;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import millimeeter.server.enums.Gender;
+import millimeeter.server.model.Profile;
+
+@Getter
+@AllArgsConstructor
+public class ProfileIndexEntry {
+
+  private final Long id;
+  private final Gender gender;
+  private final LocalDate dateOfBirth;
+  private final Double lastLatitude;
+  private final Double lastLongitude;
+
+  public ProfileIndexEntry(Profile profile) {
+    this(
+        profile.getId(),
+        profile.getGender(),
+        profile.getDateOfBirth(),
+        profile.getLastLatitude(),
+        profile.getLastLongitude());
+  }
+
+  boolean hasLocation() {
+    return lastLatitude != null && lastLongitude != null;
+  }
+}
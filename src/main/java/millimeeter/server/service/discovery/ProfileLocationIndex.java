@@ -0,0 +1,243 @@
+package millimeeter.server.service.discovery;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import millimeeter.server.enums.Gender;
+import millimeeter.server.repository.ProfileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/*
+    IN-MEMORY GRID INDEX OVER PROFILE LOCATIONS
+
+    THE GLOBE IS SPLIT INTO CELLS OF CELL_SIZE DEGREES, EVERY PROFILE IS KEPT IN THE CELL OF ITS
+    LAST LOCATION. A RADIUS QUERY ONLY VISITS THE CELLS OVERLAPPING THE BOUNDING BOX OF THE SEARCH
+    CIRCLE AND CHECKS GENDER, DATE OF BIRTH AND EXACT DISTANCE OF THE PROFILES FOUND THERE.
+    UNTIL THE INITIAL LOAD FINISHES THE INDEX REPORTS ITSELF AS NOT READY.
+*/
+
+@Component
+public class ProfileLocationIndex {
+
+  static final double CELL_SIZE = 0.5;
+  static final int ROWS = (int) (180 / CELL_SIZE);
+  static final int COLUMNS = (int) (360 / CELL_SIZE);
+  // SAME RADIUS AS USED BY THE POSTGRES <@> OPERATOR, SO DISTANCES ARE IN STATUTE MILES
+  static final double EARTH_RADIUS = 3958.747;
+
+  private final ProfileRepository profileRepository;
+  private final Map<Long, ProfileIndexEntry> entries = new ConcurrentHashMap<>();
+  private final Map<Integer, Set<Long>> cells = new ConcurrentHashMap<>();
+  private volatile boolean ready = false;
+
+  @Autowired
+  public ProfileLocationIndex(ProfileRepository profileRepository) {
+    this.profileRepository = profileRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void startLoading() {
+    Thread loader = new Thread(this::load, "profile-location-index-loader");
+    loader.setDaemon(true);
+    loader.start();
+  }
+
+  void load() {
+    for (ProfileIndexEntry entry : profileRepository.findAllIndexEntries()) {
+      putIfAbsent(entry);
+    }
+    ready = true;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public synchronized void put(ProfileIndexEntry entry) {
+    ProfileIndexEntry previous = entries.put(entry.getId(), entry);
+    if (previous != null && previous.hasLocation()) {
+      int previousCell = cellOf(previous.getLastLatitude(), previous.getLastLongitude());
+      if (entry.hasLocation()
+          && previousCell == cellOf(entry.getLastLatitude(), entry.getLastLongitude())) {
+        return;
+      }
+      removeFromCell(previousCell, entry.getId());
+    }
+    if (entry.hasLocation()) {
+      cells
+          .computeIfAbsent(
+              cellOf(entry.getLastLatitude(), entry.getLastLongitude()),
+              cell -> ConcurrentHashMap.newKeySet())
+          .add(entry.getId());
+    }
+  }
+
+  // INITIAL LOAD MUST NOT OVERWRITE ENTRIES ALREADY UPDATED BY A NEWER WRITE
+  synchronized void putIfAbsent(ProfileIndexEntry entry) {
+    if (!entries.containsKey(entry.getId())) {
+      put(entry);
+    }
+  }
+
+  public synchronized void updateLocation(Long id, Double latitude, Double longitude) {
+    ProfileIndexEntry entry = entries.get(id);
+    if (entry != null) {
+      put(
+          new ProfileIndexEntry(
+              id, entry.getGender(), entry.getDateOfBirth(), latitude, longitude));
+    }
+  }
+
+  public synchronized void remove(Long id) {
+    ProfileIndexEntry previous = entries.remove(id);
+    if (previous != null && previous.hasLocation()) {
+      removeFromCell(cellOf(previous.getLastLatitude(), previous.getLastLongitude()), id);
+    }
+  }
+
+  public ProfileIndexEntry get(Long id) {
+    return entries.get(id);
+  }
+
+  /*
+      RETURNS IDS OF PROFILES OTHER THAN profileId WITHIN distance MILES FROM THE GIVEN POINT,
+      BORN BETWEEN dateOfBirthRangeStart AND dateOfBirthRangeEnd (INCLUSIVE) AND OF THE GIVEN
+      GENDER, OR OF ANY GENDER WHEN gender IS NULL
+  */
+  public List<Long> findCandidates(
+      Long profileId,
+      Gender gender,
+      LocalDate dateOfBirthRangeStart,
+      LocalDate dateOfBirthRangeEnd,
+      double latitude,
+      double longitude,
+      double distance) {
+    return findCandidates(
+        profileId,
+        gender,
+        dateOfBirthRangeStart,
+        dateOfBirthRangeEnd,
+        latitude,
+        longitude,
+        distance,
+        id -> true,
+        Integer.MAX_VALUE);
+  }
+
+  // SAME AS ABOVE, BUT ONLY RETURNS CANDIDATES ACCEPTED BY filter AND STOPS AFTER limit OF THEM
+  public List<Long> findCandidates(
+      Long profileId,
+      Gender gender,
+      LocalDate dateOfBirthRangeStart,
+      LocalDate dateOfBirthRangeEnd,
+      double latitude,
+      double longitude,
+      double distance,
+      Predicate<Long> filter,
+      int limit) {
+    List<Long> candidates = new ArrayList<>();
+    double angularDistance = distance / EARTH_RADIUS;
+    double latitudeSpan = Math.toDegrees(angularDistance);
+    double minLatitude = latitude - latitudeSpan;
+    double maxLatitude = latitude + latitudeSpan;
+    int firstRow = rowOf(Math.max(minLatitude, -90));
+    int lastRow = rowOf(Math.min(maxLatitude, 90));
+
+    int firstColumn = 0;
+    int columnCount = COLUMNS;
+    if (minLatitude > -90 && maxLatitude < 90) {
+      double longitudeSpan =
+          Math.toDegrees(
+              Math.asin(
+                  Math.min(
+                      1, Math.sin(angularDistance) / Math.cos(Math.toRadians(latitude)))));
+      if (longitudeSpan < 180) {
+        firstColumn = columnOf(longitude - longitudeSpan);
+        columnCount =
+            Math.min(
+                COLUMNS,
+                (int) Math.floor((longitude + longitudeSpan + 180) / CELL_SIZE)
+                    - (int) Math.floor((longitude - longitudeSpan + 180) / CELL_SIZE)
+                    + 1);
+      }
+    }
+
+    search:
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int i = 0; i < columnCount; i++) {
+        int cell = row * COLUMNS + (firstColumn + i) % COLUMNS;
+        Set<Long> ids = cells.get(cell);
+        if (ids == null) {
+          continue;
+        }
+        for (Long id : ids) {
+          ProfileIndexEntry entry = entries.get(id);
+          if (entry == null
+              || !entry.hasLocation()
+              || Objects.equals(id, profileId)
+              || (gender != null && gender != entry.getGender())
+              || entry.getDateOfBirth() == null
+              || entry.getDateOfBirth().isBefore(dateOfBirthRangeStart)
+              || entry.getDateOfBirth().isAfter(dateOfBirthRangeEnd)
+              // AN ENTRY MOVED BY A CONCURRENT WRITE MAY STILL BE LISTED IN ITS PREVIOUS CELL
+              || cellOf(entry.getLastLatitude(), entry.getLastLongitude()) != cell) {
+            continue;
+          }
+          if (distanceBetween(
+                      latitude, longitude, entry.getLastLatitude(), entry.getLastLongitude())
+                  < distance
+              && filter.test(id)) {
+            candidates.add(id);
+            if (candidates.size() >= limit) {
+              break search;
+            }
+          }
+        }
+      }
+    }
+    return candidates;
+  }
+
+  public static double distanceBetween(
+      double latitude1, double longitude1, double latitude2, double longitude2) {
+    double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+    double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+    double a =
+        Math.pow(Math.sin(deltaLatitude / 2), 2)
+            + Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2))
+                * Math.pow(Math.sin(deltaLongitude / 2), 2);
+    return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  private void removeFromCell(int cell, Long id) {
+    Set<Long> ids = cells.get(cell);
+    if (ids != null) {
+      ids.remove(id);
+    }
+  }
+
+  static int cellOf(double latitude, double longitude) {
+    return rowOf(latitude) * COLUMNS + columnOf(longitude);
+  }
+
+  static int rowOf(double latitude) {
+    return Math.min(ROWS - 1, Math.max(0, (int) Math.floor((latitude + 90) / CELL_SIZE)));
+  }
+
+  static int columnOf(double longitude) {
+    return Math.floorMod((int) Math.floor((longitude + 180) / CELL_SIZE), COLUMNS);
+  }
+}
@@ -0,0 +1,281 @@
+package millimeeter.server.service.discovery;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Value;
+import millimeeter.server.enums.Gender;
+import millimeeter.server.model.Profile;
+import millimeeter.server.service.ProfileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/*
+    PRECOMPUTED, SHUFFLED DECKS OF PROFILE IDS TO SWIPE
+
+    A DECK IS BUILT FROM THE LOCATION INDEX AND THE SWIPED PROFILES BITMAP, READS ONLY TAKE THE
+    FIRST PAGE OF IT AND SWIPES REMOVE IDS FROM IT. DECKS RUNNING LOW OR GETTING OLD ARE REBUILT IN
+    THE BACKGROUND, AS ARE DECKS OF PROFILES WHICH MOVED FAR FROM WHERE THEIR DECK WAS BUILT.
+    A READ NEVER WAITS FOR A FULL BUILD: WITHOUT A DECK FOR THE CURRENT SEARCH
+    SETTINGS IT IS SERVED FROM A PARTIAL DECK, HOLDING JUST THE FIRST PAGE OF CANDIDATES FOUND,
+    WHILE THE FULL DECK IS BUILT. A COMPLETE DECK HOLDING LESS THAN A PAGE ALREADY HOLDS EVERY
+    CANDIDATE AROUND AND IS SERVED AS IT IS UNTIL ITS NEXT REBUILD.
+*/
+
+@Service
+public class SwipeDeckService {
+
+  static final int PAGE_SIZE = 50;
+  static final int DECK_SIZE = 1000;
+  static final int LOW_WATERMARK = 2 * PAGE_SIZE;
+  static final Duration MIN_REBUILD_INTERVAL = Duration.ofMinutes(1);
+  static final Duration MAX_AGE = Duration.ofMinutes(10);
+  static final Duration IDLE_TIMEOUT = Duration.ofMinutes(30);
+  static final int REBUILD_QUEUE_SIZE = 256;
+  // SHARE OF THE SEARCH DISTANCE A PROFILE MAY MOVE BEFORE ITS DECK IS REBUILT
+  static final double RELOCATION_THRESHOLD = 0.1;
+
+  private final ProfileLocationIndex profileLocationIndex;
+  private final SwipedProfilesCache swipedProfilesCache;
+  private final Map<Long, SwipeDeck> decks = new ConcurrentHashMap<>();
+  // A REBUILD WHICH DOES NOT FIT IN THE QUEUE IS DROPPED, THE DECK IS STILL SERVED AND
+  // A LATER READ ASKS FOR THE REBUILD AGAIN
+  private final ThreadPoolExecutor builder =
+      new ThreadPoolExecutor(
+          2,
+          2,
+          0,
+          TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(REBUILD_QUEUE_SIZE),
+          (rebuild, executor) -> ((Rebuild) rebuild).discard());
+
+  @Autowired
+  public SwipeDeckService(
+      ProfileLocationIndex profileLocationIndex, SwipedProfilesCache swipedProfilesCache) {
+    this.profileLocationIndex = profileLocationIndex;
+    this.swipedProfilesCache = swipedProfilesCache;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    builder.shutdownNow();
+  }
+
+  public List<Long> nextPage(Profile profile) {
+    Criteria criteria = new Criteria(profile);
+    SwipeDeck deck = decks.get(profile.getId());
+    if (deck == null || !deck.getCriteria().equals(criteria)) {
+      deck = buildFirstPage(profile, criteria);
+      decks.put(profile.getId(), deck);
+      refresh(profile);
+    } else if (deck.needsRebuild() || hasMoved(deck, profile)) {
+      refresh(profile);
+    }
+    // A DECK BUILT CONCURRENTLY WITH A SWIPE MAY STILL HOLD THE SWIPED ID
+    while (true) {
+      List<Long> page = deck.page(PAGE_SIZE);
+      List<Long> notSwiped = swipedProfilesCache.filterNotSwiped(profile.getId(), page);
+      if (notSwiped.size() == page.size()) {
+        return page;
+      }
+      page.removeAll(notSwiped);
+      deck.removeAll(page);
+    }
+  }
+
+  // REBUILDS THE DECK IN THE BACKGROUND, E.G. AFTER SEARCH SETTINGS OR LOCATION CHANGED. A PROFILE
+  // WITHOUT A DECK GETS ONE WHEN IT IS FIRST READ. A PARTIAL DECK ASKS AGAIN ON EVERY READ UNTIL
+  // A REBUILD GETS QUEUED
+  public void refresh(Profile profile) {
+    SwipeDeck deck = decks.get(profile.getId());
+    if (deck == null || !deck.getRebuilding().compareAndSet(false, true)) {
+      return;
+    }
+    builder.execute(new Rebuild(profile, deck));
+  }
+
+  // CALLED FOR EVERY LOCATION UPDATE, SMALL MOVES BARELY CHANGE THE CANDIDATES AND KEEP THE DECK
+  public void relocate(Profile profile) {
+    SwipeDeck deck = decks.get(profile.getId());
+    if (deck != null && hasMoved(deck, profile)) {
+      refresh(profile);
+    }
+  }
+
+  public void remove(Long profileId, Long swipedProfileId) {
+    SwipeDeck deck = decks.get(profileId);
+    if (deck != null) {
+      deck.removeAll(List.of(swipedProfileId));
+    }
+  }
+
+  public void removeAll(Long profileId, Collection<Long> profileIds) {
+    SwipeDeck deck = decks.get(profileId);
+    if (deck != null) {
+      deck.removeAll(profileIds);
+    }
+  }
+
+  public void evict(Long profileId) {
+    decks.remove(profileId);
+  }
+
+  @Scheduled(fixedDelay = 60000)
+  void evictIdleDecks() {
+    LocalDateTime idleSince = LocalDateTime.now().minus(IDLE_TIMEOUT);
+    decks.values().removeIf(deck -> deck.getLastReadAt().isBefore(idleSince));
+  }
+
+  private static boolean hasMoved(SwipeDeck deck, Profile profile) {
+    return ProfileLocationIndex.distanceBetween(
+            deck.getLatitude(),
+            deck.getLongitude(),
+            profile.getLastLatitude(),
+            profile.getLastLongitude())
+        > deck.getCriteria().getSearchDistance() * RELOCATION_THRESHOLD;
+  }
+
+  SwipeDeck build(Profile profile, Criteria criteria) {
+    List<Long> candidateIds =
+        swipedProfilesCache.filterNotSwiped(
+            profile.getId(),
+            profileLocationIndex.findCandidates(
+                profile.getId(),
+                criteria.getGender(),
+                LocalDate.now().minusYears(criteria.getAgeRangeMaximum()),
+                LocalDate.now().minusYears(criteria.getAgeRangeMinimum()),
+                profile.getLastLatitude(),
+                profile.getLastLongitude(),
+                criteria.getSearchDistance()));
+    Collections.shuffle(candidateIds);
+    return new SwipeDeck(
+        criteria,
+        profile.getLastLatitude(),
+        profile.getLastLongitude(),
+        candidateIds.subList(0, Math.min(DECK_SIZE, candidateIds.size())),
+        true);
+  }
+
+  // STOPS SEARCHING AFTER A PAGE OF CANDIDATES NOT SWIPED YET
+  SwipeDeck buildFirstPage(Profile profile, Criteria criteria) {
+    List<Long> candidateIds =
+        profileLocationIndex.findCandidates(
+            profile.getId(),
+            criteria.getGender(),
+            LocalDate.now().minusYears(criteria.getAgeRangeMaximum()),
+            LocalDate.now().minusYears(criteria.getAgeRangeMinimum()),
+            profile.getLastLatitude(),
+            profile.getLastLongitude(),
+            criteria.getSearchDistance(),
+            id -> !swipedProfilesCache.isSwiped(profile.getId(), id),
+            PAGE_SIZE);
+    Collections.shuffle(candidateIds);
+    return new SwipeDeck(
+        criteria, profile.getLastLatitude(), profile.getLastLongitude(), candidateIds, false);
+  }
+
+  private final class Rebuild implements Runnable {
+
+    private final Profile profile;
+    private final Criteria criteria;
+    private final SwipeDeck deck;
+
+    Rebuild(Profile profile, SwipeDeck deck) {
+      this.profile = profile;
+      this.criteria = new Criteria(profile);
+      this.deck = deck;
+    }
+
+    // ONLY REPLACES THE DECK IT WAS STARTED FOR, NOT ONE EVICTED OR BUILT BY A READ IN THE MEANTIME
+    @Override
+    public void run() {
+      try {
+        decks.replace(profile.getId(), deck, build(profile, criteria));
+      } finally {
+        deck.getRebuilding().set(false);
+      }
+    }
+
+    void discard() {
+      deck.getRebuilding().set(false);
+    }
+  }
+
+  @Value
+  static class Criteria {
+    Gender gender;
+    Integer searchDistance;
+    Integer ageRangeMinimum;
+    Integer ageRangeMaximum;
+
+    Criteria(Profile profile) {
+      this.gender = ProfileService.convertLookingForToGender(profile.getLookingFor());
+      this.searchDistance = profile.getSearchDistance();
+      this.ageRangeMinimum = profile.getAgeRangeMinimum();
+      this.ageRangeMaximum = profile.getAgeRangeMaximum();
+    }
+  }
+
+  @Getter
+  static class SwipeDeck {
+    private final Criteria criteria;
+    // LOCATION THE DECK WAS BUILT AROUND
+    private final double latitude;
+    private final double longitude;
+    private final LinkedHashSet<Long> ids;
+    private final LocalDateTime builtAt = LocalDateTime.now();
+    private volatile LocalDateTime lastReadAt = LocalDateTime.now();
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    // FALSE FOR A PARTIAL DECK, WHICH ONLY HOLDS THE FIRST PAGE OF CANDIDATES FOUND
+    private final boolean complete;
+
+    SwipeDeck(
+        Criteria criteria, double latitude, double longitude, List<Long> ids, boolean complete) {
+      this.criteria = criteria;
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.ids = new LinkedHashSet<>(ids);
+      this.complete = complete;
+    }
+
+    synchronized List<Long> page(int size) {
+      lastReadAt = LocalDateTime.now();
+      List<Long> page = new ArrayList<>(Math.min(size, ids.size()));
+      Iterator<Long> iterator = ids.iterator();
+      while (page.size() < size && iterator.hasNext()) {
+        page.add(iterator.next());
+      }
+      return page;
+    }
+
+    synchronized int size() {
+      return ids.size();
+    }
+
+    synchronized void removeAll(Collection<Long> profileIds) {
+      profileIds.forEach(ids::remove);
+    }
+
+    synchronized boolean needsRebuild() {
+      LocalDateTime now = LocalDateTime.now();
+      return !complete
+          || (ids.size() < LOW_WATERMARK && now.isAfter(builtAt.plus(MIN_REBUILD_INTERVAL)))
+          || now.isAfter(builtAt.plus(MAX_AGE));
+    }
+  }
+}
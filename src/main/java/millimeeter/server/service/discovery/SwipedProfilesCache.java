@@ -0,0 +1,159 @@
+package millimeeter.server.service.discovery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import millimeeter.server.repository.SwipeRepository;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+    COMPRESSED BITMAPS OF ALREADY SWIPED PROFILE IDS PER SENDER
+
+    A BITMAP IS LOADED FROM swipes ON THE FIRST LOOKUP FOR A SENDER AND THEN UPDATED IN PLACE BY
+    EVERY NEW SWIPE. LEAST RECENTLY USED BITMAPS ARE EVICTED WHEN THEIR TOTAL SIZE EXCEEDS
+    THE MEMORY BUDGET.
+*/
+
+@Component
+public class SwipedProfilesCache {
+
+  private final SwipeRepository swipeRepository;
+  private final long memoryBudget;
+  private final Map<Long, Roaring64NavigableMap> bitmaps = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<Long, Roaring64NavigableMap> loading = new LinkedHashMap<>();
+  private long memoryUsed = 0;
+  private final Counter hits;
+  private final Counter misses;
+
+  @Autowired
+  public SwipedProfilesCache(
+      SwipeRepository swipeRepository,
+      MeterRegistry meterRegistry,
+      @Value("${millimeeter.discovery.swiped-cache.memory-budget:67108864}") long memoryBudget) {
+    this.swipeRepository = swipeRepository;
+    this.memoryBudget = memoryBudget;
+    this.hits = meterRegistry.counter("discovery.swiped.cache.requests", "result", "hit");
+    this.misses = meterRegistry.counter("discovery.swiped.cache.requests", "result", "miss");
+    Gauge.builder("discovery.swiped.cache.memory", this, SwipedProfilesCache::getMemoryUsed)
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("discovery.swiped.cache.size", this, SwipedProfilesCache::size)
+        .register(meterRegistry);
+  }
+
+  // RETURNS THOSE OF THE GIVEN IDS WHICH THE SENDER HAS NOT SWIPED YET, KEEPING THEIR ORDER
+  public List<Long> filterNotSwiped(Long senderId, List<Long> ids) {
+    Roaring64NavigableMap swiped = getOrLoad(senderId);
+    List<Long> notSwiped = new ArrayList<>(ids.size());
+    synchronized (swiped) {
+      for (Long id : ids) {
+        if (!swiped.contains(id)) {
+          notSwiped.add(id);
+        }
+      }
+    }
+    return notSwiped;
+  }
+
+  public boolean isSwiped(Long senderId, Long receiverId) {
+    Roaring64NavigableMap swiped = getOrLoad(senderId);
+    synchronized (swiped) {
+      return swiped.contains(receiverId);
+    }
+  }
+
+  // BITMAPS NOT LOADED YET ARE LEFT ALONE, THEY WILL READ THE NEW SWIPE FROM THE DATABASE
+  public void add(Long senderId, Long receiverId) {
+    Roaring64NavigableMap swiped;
+    synchronized (this) {
+      Roaring64NavigableMap pending = loading.get(senderId);
+      if (pending != null) {
+        pending.addLong(receiverId);
+      }
+      swiped = bitmaps.get(senderId);
+      if (swiped == null) {
+        return;
+      }
+      memoryUsed -= swiped.getLongSizeInBytes();
+      synchronized (swiped) {
+        swiped.addLong(receiverId);
+      }
+      memoryUsed += swiped.getLongSizeInBytes();
+      evictOverBudget();
+    }
+  }
+
+  // A DELETED PROFILE TAKES ITS SWIPES WITH IT, BOTH AS A SENDER AND AS A RECEIVER
+  public synchronized void removeProfile(Long profileId) {
+    evict(profileId);
+    for (Roaring64NavigableMap swiped : bitmaps.values()) {
+      memoryUsed -= swiped.getLongSizeInBytes();
+      synchronized (swiped) {
+        swiped.removeLong(profileId);
+      }
+      memoryUsed += swiped.getLongSizeInBytes();
+    }
+  }
+
+  public synchronized void evict(Long senderId) {
+    Roaring64NavigableMap swiped = bitmaps.remove(senderId);
+    if (swiped != null) {
+      memoryUsed -= swiped.getLongSizeInBytes();
+    }
+  }
+
+  public synchronized long getMemoryUsed() {
+    return memoryUsed;
+  }
+
+  public synchronized int size() {
+    return bitmaps.size();
+  }
+
+  Roaring64NavigableMap getOrLoad(Long senderId) {
+    synchronized (this) {
+      Roaring64NavigableMap swiped = bitmaps.get(senderId);
+      if (swiped != null) {
+        hits.increment();
+        return swiped;
+      }
+      misses.increment();
+      loading.putIfAbsent(senderId, new Roaring64NavigableMap());
+    }
+    Roaring64NavigableMap loaded = new Roaring64NavigableMap();
+    for (Long receiverId : swipeRepository.findReceiverIdsBySenderId(senderId)) {
+      loaded.addLong(receiverId);
+    }
+    synchronized (this) {
+      Roaring64NavigableMap swiped = bitmaps.get(senderId);
+      if (swiped != null) {
+        return swiped;
+      }
+      Roaring64NavigableMap pending = loading.remove(senderId);
+      if (pending != null) {
+        loaded.or(pending);
+      }
+      loaded.runOptimize();
+      bitmaps.put(senderId, loaded);
+      memoryUsed += loaded.getLongSizeInBytes();
+      evictOverBudget();
+      return loaded;
+    }
+  }
+
+  private void evictOverBudget() {
+    Iterator<Map.Entry<Long, Roaring64NavigableMap>> eldest = bitmaps.entrySet().iterator();
+    while (memoryUsed > memoryBudget && bitmaps.size() > 1 && eldest.hasNext()) {
+      memoryUsed -= eldest.next().getValue().getLongSizeInBytes();
+      eldest.remove();
+    }
+  }
+}
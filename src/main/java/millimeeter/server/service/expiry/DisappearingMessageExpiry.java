@@ -0,0 +1,180 @@
+package millimeeter.server.service.expiry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/*
+    DELETES DISAPPEARING MESSAGES ttl-seconds AFTER THEY WERE SEEN
+
+    EVERY SEEN MESSAGE IS SCHEDULED ON A TimingWheel, THE WHEEL IS ADVANCED EVERY TICK AND THE IDS
+    IT RETURNS ARE DELETED IN BATCHES OF DELETE_BATCH_SIZE, IDS OF A FAILED DELETE ARE RETRIED BY
+    THE NEXT TICK. ON STARTUP THE WHEEL IS REBUILT BY A SINGLE QUERY OVER SEEN MESSAGES, STREAMED,
+    MESSAGES WHICH EXPIRED WHILE THE APPLICATION WAS DOWN ARE DELETED BY THE FIRST TICKS. A FAILED
+    REBUILD IS RETRIED WITH A GROWING INTERVAL UNTIL IT SUCCEEDS.
+*/
+
+@Component
+public class DisappearingMessageExpiry {
+
+  private static final Logger log = LoggerFactory.getLogger(DisappearingMessageExpiry.class);
+
+  static final int WHEEL_SIZE = 64;
+  static final int DELETE_BATCH_SIZE = 1000;
+  static final int FETCH_SIZE = 10000;
+  static final String FIND_SEEN =
+      "SELECT id, seen_at FROM disappearing_messages WHERE seen_at IS NOT NULL";
+  static final String DELETE_EXPIRED = "DELETE FROM disappearing_messages WHERE id = ANY(?)";
+  static final Duration MIN_LOAD_RETRY_INTERVAL = Duration.ofSeconds(1);
+  static final Duration MAX_LOAD_RETRY_INTERVAL = Duration.ofMinutes(1);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration ttl;
+  private final TimingWheel wheel;
+  // IDS RETURNED BY THE WHEEL, NOT DELETED YET
+  private long[] due = new long[DELETE_BATCH_SIZE];
+  private int dueSize;
+
+  @Autowired
+  public DisappearingMessageExpiry(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${millimeeter.disappearing-messages.ttl-seconds:60}") long ttlSeconds,
+      @Value("${millimeeter.disappearing-messages.tick-ms:1000}") long tickMs) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.wheel = new TimingWheel(tickMs, WHEEL_SIZE, System.currentTimeMillis());
+    Gauge.builder(
+            "disappearing.messages.expirations.pending", this, DisappearingMessageExpiry::size)
+        .register(meterRegistry);
+  }
+
+  public Duration getTtl() {
+    return ttl;
+  }
+
+  public synchronized void schedule(long id, LocalDateTime seenAt) {
+    long expirationMs = seenAt.plus(ttl).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    if (!wheel.add(id, expirationMs)) {
+      addDue(id);
+    }
+  }
+
+  public synchronized int size() {
+    return wheel.size() + dueSize;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void startLoading() {
+    Thread loader = new Thread(this::loadWithRetries, "disappearing-message-expiry-loader");
+    loader.setDaemon(true);
+    loader.start();
+  }
+
+  // MESSAGES SCHEDULED BEFORE AN ATTEMPT FAILED ARE SCHEDULED AGAIN, DELETING TWICE IS HARMLESS
+  void loadWithRetries() {
+    Duration retryInterval = MIN_LOAD_RETRY_INTERVAL;
+    while (true) {
+      try {
+        long loaded = load();
+        log.info("Scheduled expiration of {} seen disappearing messages", loaded);
+        return;
+      } catch (RuntimeException e) {
+        log.warn("Loading seen disappearing messages failed, retrying in {}", retryInterval, e);
+      }
+      try {
+        Thread.sleep(retryInterval.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      retryInterval = retryInterval.multipliedBy(2);
+      if (retryInterval.compareTo(MAX_LOAD_RETRY_INTERVAL) > 0) {
+        retryInterval = MAX_LOAD_RETRY_INTERVAL;
+      }
+    }
+  }
+
+  // A CURSOR IS ONLY USED BY THE DRIVER INSIDE A TRANSACTION, RETURNS THE NUMBER OF MESSAGES LOADED
+  long load() {
+    AtomicLong loaded = new AtomicLong();
+    transactionTemplate.executeWithoutResult(
+        status ->
+            jdbcTemplate.query(
+                connection -> {
+                  PreparedStatement statement = connection.prepareStatement(FIND_SEEN);
+                  statement.setFetchSize(FETCH_SIZE);
+                  return statement;
+                },
+                (RowCallbackHandler)
+                    resultSet -> {
+                      schedule(
+                          resultSet.getLong("id"),
+                          resultSet.getTimestamp("seen_at").toLocalDateTime());
+                      loaded.incrementAndGet();
+                    }));
+    return loaded.get();
+  }
+
+  @Scheduled(fixedDelayString = "${millimeeter.disappearing-messages.tick-ms:1000}")
+  public void expireDue() {
+    synchronized (this) {
+      wheel.advanceClock(System.currentTimeMillis(), this::addDue);
+    }
+    long[] batch;
+    while ((batch = takeDue()).length > 0) {
+      try {
+        Long[] ids = Arrays.stream(batch).boxed().toArray(Long[]::new);
+        jdbcTemplate.update(
+            connection -> {
+              PreparedStatement statement = connection.prepareStatement(DELETE_EXPIRED);
+              statement.setArray(1, connection.createArrayOf("bigint", ids));
+              return statement;
+            });
+      } catch (RuntimeException e) {
+        log.warn("Deleting {} expired disappearing messages failed", batch.length, e);
+        synchronized (this) {
+          for (long id : batch) {
+            addDue(id);
+          }
+        }
+        return;
+      }
+    }
+  }
+
+  private synchronized long[] takeDue() {
+    int taken = Math.min(dueSize, DELETE_BATCH_SIZE);
+    long[] batch = Arrays.copyOfRange(due, dueSize - taken, dueSize);
+    dueSize -= taken;
+    return batch;
+  }
+
+  private void addDue(long id) {
+    if (dueSize == due.length) {
+      due = Arrays.copyOf(due, due.length * 2);
+    }
+    due[dueSize++] = id;
+  }
+}
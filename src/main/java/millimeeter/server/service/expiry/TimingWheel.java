@@ -0,0 +1,127 @@
+package millimeeter.server.service.expiry;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/*
+    HIERARCHICAL TIMING WHEEL OF IDS
+
+    THE LOWEST WHEEL HAS wheelSize BUCKETS OF tickMs EACH, EVERY WHEEL ABOVE IT HAS BUCKETS AS WIDE
+    AS THE WHOLE WHEEL BELOW, SO ANY EXPIRATION IS PLACED IN O(1) AND FAR ONES ONLY COST A LEVEL
+    MORE. WHEN THE CLOCK REACHES A BUCKET OF AN UPPER WHEEL, ITS IDS ARE MOVED DOWN, WHEN A BUCKET
+    OF THE LOWEST WHEEL IS PASSED, ITS IDS ARE DUE. AN ID IS DUE AT MOST ONE TICK AFTER ITS
+    EXPIRATION AND NEVER BEFORE. IDS ARE KEPT IN PRIMITIVE ARRAYS, 16 BYTES EACH.
+
+    NOT THREAD SAFE, DisappearingMessageExpiry SYNCHRONIZES ACCESS
+*/
+
+final class TimingWheel {
+
+  private final long tickMs;
+  private final int wheelSize;
+  private final long interval;
+  private final Bucket[] buckets;
+  private long currentTime;
+  private TimingWheel overflowWheel;
+  private int size;
+
+  TimingWheel(long tickMs, int wheelSize, long startMs) {
+    this.tickMs = tickMs;
+    this.wheelSize = wheelSize;
+    this.interval = tickMs * wheelSize;
+    this.buckets = new Bucket[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      buckets[i] = new Bucket();
+    }
+    this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+  }
+
+  long getCurrentTime() {
+    return currentTime;
+  }
+
+  // IDS SCHEDULED ON THIS AND ALL UPPER WHEELS
+  int size() {
+    return size + (overflowWheel == null ? 0 : overflowWheel.size());
+  }
+
+  // FALSE IF THE EXPIRATION HAS ALREADY PASSED, THE ID IS NOT SCHEDULED THEN
+  boolean add(long id, long expirationMs) {
+    if (expirationMs < currentTime) {
+      return false;
+    }
+    if (expirationMs < currentTime + interval) {
+      buckets[(int) Math.floorMod(expirationMs / tickMs, (long) wheelSize)].add(id, expirationMs);
+      size++;
+      return true;
+    }
+    return overflowWheel().add(id, expirationMs);
+  }
+
+  // MOVES THE CLOCK TICK BY TICK UP TO timeMs, PASSING EVERY DUE ID TO expired
+  void advanceClock(long timeMs, LongConsumer expired) {
+    while (currentTime + tickMs <= timeMs) {
+      currentTime += tickMs;
+      // THE PASSED BUCKET GOES FIRST, IDS MOVED DOWN BELOW MAY WRAP AROUND INTO ITS SLOT
+      Bucket passed = buckets[(int) Math.floorMod(currentTime / tickMs - 1, (long) wheelSize)];
+      size -= passed.size;
+      passed.drain((id, expirationMs) -> expired.accept(id));
+      if (overflowWheel != null && currentTime % interval == 0) {
+        overflowWheel.startBucket(currentTime, this);
+      }
+    }
+  }
+
+  // THE BUCKET STARTING AT timeMs IS MOVED DOWN TO THE WHEEL BELOW, WHICH SPANS IT AS A WHOLE NOW
+  private void startBucket(long timeMs, TimingWheel lowerWheel) {
+    currentTime = timeMs;
+    if (overflowWheel != null && currentTime % interval == 0) {
+      overflowWheel.startBucket(currentTime, this);
+    }
+    Bucket started = buckets[(int) Math.floorMod(currentTime / tickMs, (long) wheelSize)];
+    size -= started.size;
+    started.drain(lowerWheel::add);
+  }
+
+  private TimingWheel overflowWheel() {
+    if (overflowWheel == null) {
+      overflowWheel = new TimingWheel(interval, wheelSize, currentTime);
+    }
+    return overflowWheel;
+  }
+
+  private interface Entries {
+    void accept(long id, long expirationMs);
+  }
+
+  private static final class Bucket {
+
+    private long[] ids = new long[0];
+    private long[] expirations = new long[0];
+    private int size;
+
+    void add(long id, long expirationMs) {
+      if (size == ids.length) {
+        int capacity = Math.max(4, size * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        expirations = Arrays.copyOf(expirations, capacity);
+      }
+      ids[size] = id;
+      expirations[size] = expirationMs;
+      size++;
+    }
+
+    // EMPTIES THE BUCKET BEFORE CALLING BACK, SO THE CALLBACK MAY ADD TO IT AGAIN
+    void drain(Entries entries) {
+      long[] drainedIds = ids;
+      long[] drainedExpirations = expirations;
+      int drainedSize = size;
+      ids = new long[0];
+      expirations = new long[0];
+      size = 0;
+      for (int i = 0; i < drainedSize; i++) {
+        entries.accept(drainedIds[i], drainedExpirations[i]);
+      }
+    }
+  }
+}
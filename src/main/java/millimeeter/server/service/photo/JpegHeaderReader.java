@@ -0,0 +1,94 @@
+package millimeeter.server.service.photo;
+
+import java.awt.Dimension;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/*
+    READS DIMENSIONS OF A JPEG FROM ITS MARKER SEGMENTS WITHOUT DECODING ANY PIXELS
+
+    THE STREAM IS READ ONLY UP TO THE FIRST START OF FRAME (SOFn) SEGMENT, WHICH HOLDS HEIGHT AND
+    WIDTH. A STREAM NOT STARTING WITH THE START OF IMAGE (SOI) MARKER IS NOT A JPEG, A JPEG WHOSE
+    HEADER CANNOT BE FOLLOWED IS REPORTED AS MALFORMED.
+*/
+
+public final class JpegHeaderReader {
+
+  static final int MARKER_PREFIX = 0xFF;
+  static final int SOI = 0xD8;
+  static final int EOI = 0xD9;
+  static final int SOS = 0xDA;
+  static final int TEM = 0x01;
+  static final int RST0 = 0xD0;
+  static final int RST7 = 0xD7;
+  static final int SOF0 = 0xC0;
+  static final int SOF15 = 0xCF;
+  // IN THE SOFn RANGE, BUT NOT FRAME HEADERS
+  static final int DHT = 0xC4;
+  static final int JPG = 0xC8;
+  static final int DAC = 0xCC;
+
+  private JpegHeaderReader() {}
+
+  // EMPTY WHEN THE STREAM IS NOT A JPEG
+  public static Optional<Dimension> readDimensions(InputStream inputStream) throws IOException {
+    DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream, 8192));
+    if (input.read() != MARKER_PREFIX || input.read() != SOI) {
+      return Optional.empty();
+    }
+    try {
+      while (true) {
+        int marker = readMarker(input);
+        if (marker == TEM || (marker >= RST0 && marker <= RST7)) {
+          continue;
+        }
+        if (marker == SOI || marker == EOI || marker == SOS) {
+          throw new MalformedJpegException("No frame header before marker " + marker);
+        }
+        int length = input.readUnsignedShort();
+        if (length < 2) {
+          throw new MalformedJpegException("Invalid segment length " + length);
+        }
+        if (isStartOfFrame(marker)) {
+          input.readUnsignedByte(); // SAMPLE PRECISION
+          int height = input.readUnsignedShort();
+          int width = input.readUnsignedShort();
+          // HEIGHT 0 MEANS IT IS DEFINED LATER BY A DNL SEGMENT
+          if (height == 0 || width == 0) {
+            throw new MalformedJpegException("Frame header without dimensions");
+          }
+          return Optional.of(new Dimension(width, height));
+        }
+        input.skipNBytes(length - 2);
+      }
+    } catch (EOFException e) {
+      throw new MalformedJpegException("Unexpected end of file in JPEG header");
+    }
+  }
+
+  static int readMarker(DataInputStream input) throws IOException {
+    if (input.readUnsignedByte() != MARKER_PREFIX) {
+      throw new MalformedJpegException("Marker expected");
+    }
+    int marker = input.readUnsignedByte();
+    // ANY NUMBER OF FILL BYTES MAY PRECEDE A MARKER
+    while (marker == MARKER_PREFIX) {
+      marker = input.readUnsignedByte();
+    }
+    return marker;
+  }
+
+  static boolean isStartOfFrame(int marker) {
+    return marker >= SOF0 && marker <= SOF15 && marker != DHT && marker != JPG && marker != DAC;
+  }
+
+  public static class MalformedJpegException extends IOException {
+    public MalformedJpegException(String message) {
+      super(message);
+    }
+  }
+}
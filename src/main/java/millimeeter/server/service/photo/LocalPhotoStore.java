@@ -0,0 +1,444 @@
+package millimeeter.server.service.photo;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+    PHOTOS ON THE LOCAL FILESYSTEM, NAMED BY THE SHA-256 OF THEIR CONTENT
+
+    A PHOTO NAMED abcdef...jpg IS STORED AS ab/cd/abcdef...jpg, SO NO DIRECTORY HOLDS MORE THAN A
+    FEW HUNDRED FILES EVEN WITH MILLIONS OF PHOTOS. NAMES FROM BEFORE CONTENT ADDRESSING ARE STILL
+    RESOLVED IN THE ROOT DIRECTORY.
+
+    A SAVED PHOTO IS STREAMED ONCE INTO A TEMPORARY FILE, BEING HASHED AND CHECKED ON THE WAY, SO
+    IT IS NEVER HELD IN MEMORY. SYNCING AND MOVING TEMPORARY FILES INTO PLACE IS LEFT TO A SINGLE
+    BACKGROUND THREAD WORKING IN BATCHES, EVERY FILE OF A BATCH IS SYNCED BEFORE ANY IS MOVED SO
+    THE SYNCS OF ONE BATCH SHARE JOURNAL COMMITS. SAVING WAITS UNTIL THE BATCH OF ITS PHOTO IS
+    DURABLE, SO A NAME IS NEVER REFERENCED BEFORE ITS FILE SURVIVES A CRASH. A FAILED MOVE IS
+    RETRIED.
+
+    PHOTOS ARE NEVER DELETED ON REQUEST, AS OTHER PROFILES MAY SHARE THEM, BUT BY THE GARBAGE
+    COLLECTION. VARIANTS ARE STORED NEXT TO THEIR ORIGINAL AND KEPT AS LONG AS IT IS REFERENCED.
+    PHOTOS WRITTEN OR REUSED WITHIN THE GRACE PERIOD ARE KEPT, AS THE TRANSACTION REFERENCING THEM
+    MAY NOT HAVE COMMITTED YET. TEMPORARY FILES LEFT BEHIND BY A CRASH WERE NEVER RETURNED AS A
+    NAME AND ARE COLLECTED AS WELL.
+*/
+
+@Component
+public class LocalPhotoStore implements PhotoStore {
+
+  private static final Logger log = LoggerFactory.getLogger(LocalPhotoStore.class);
+
+  static final String EXTENSION = ".jpg";
+  static final String TEMPORARY_PREFIX = "upload";
+  static final String TEMPORARY_EXTENSION = ".tmp";
+  static final Pattern CONTENT_ADDRESSED_NAME = Pattern.compile("[0-9a-f]{64}(-[0-9]+)?\\.jpg");
+  static final int BUFFER_SIZE = 64 * 1024;
+  static final int MAX_BATCH_SIZE = 64;
+  static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
+  static final Duration STORE_TIMEOUT = Duration.ofSeconds(30);
+  // NOT A VALID PHOTO NAME, TELLS THE WRITER TO STOP
+  static final String STOP = "";
+
+  private final Path root;
+  private final Duration gracePeriod;
+  // PHOTOS NOT MOVED INTO PLACE YET BY NAME
+  private final Map<String, PendingPhoto> pending = new ConcurrentHashMap<>();
+  private final BlockingQueue<String> writeQueue = new LinkedBlockingQueue<>();
+  private final ExecutorService writer = Executors.newSingleThreadExecutor();
+
+  @Autowired
+  public LocalPhotoStore(
+      @Value("${millimeeter.photos.directory:photos}") String directory,
+      @Value("${millimeeter.photos.gc-grace-minutes:60}") long gracePeriodMinutes) {
+    this.root = Path.of(directory);
+    this.gracePeriod = Duration.ofMinutes(gracePeriodMinutes);
+    writer.execute(this::writeLoop);
+  }
+
+  // MOVES EVERYTHING STILL PENDING BEFORE SHUTTING DOWN, THE WRITER IS NOT INTERRUPTED AS
+  // INTERRUPTS CLOSE THE CHANNELS IT IS SYNCING
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    writeQueue.add(STOP);
+    writer.shutdown();
+    writer.awaitTermination(10, TimeUnit.SECONDS);
+    writeBatch(new ArrayList<>(pending.keySet()));
+    pending.forEach(
+        (name, photo) -> photo.stored.completeExceptionally(new IOException("Store shut down")));
+  }
+
+  @Override
+  public String save(InputStream photo, PhotoCheck check) throws IOException {
+    MessageDigest digest = sha256();
+    Path temporary = writeTemporary(new DigestInputStream(photo, digest), check);
+    String name = HexFormat.of().formatHex(digest.digest()) + EXTENSION;
+    awaitStored(name, store(name, temporary));
+    return name;
+  }
+
+  @Override
+  public void save(String name, InputStream photo) throws IOException {
+    if (!CONTENT_ADDRESSED_NAME.matcher(name).matches()) {
+      throw new IllegalArgumentException("Invalid photo name " + name);
+    }
+    awaitStored(name, store(name, writeTemporary(photo, input -> {})));
+  }
+
+  @Override
+  public Optional<InputStream> open(String name) throws IOException {
+    PendingPhoto photo = pending.get(name);
+    if (photo != null) {
+      try {
+        return Optional.of(Files.newInputStream(photo.temporary));
+      } catch (NoSuchFileException e) {
+        // MOVED INTO PLACE IN THE MEANTIME
+      }
+    }
+    if (!isValidName(name)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Files.newInputStream(resolve(name)));
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public OptionalLong size(String name) throws IOException {
+    PendingPhoto photo = pending.get(name);
+    if (photo != null) {
+      try {
+        return OptionalLong.of(Files.size(photo.temporary));
+      } catch (NoSuchFileException e) {
+        // MOVED INTO PLACE IN THE MEANTIME
+      }
+    }
+    if (!isValidName(name)) {
+      return OptionalLong.empty();
+    }
+    try {
+      return OptionalLong.of(Files.size(resolve(name)));
+    } catch (NoSuchFileException e) {
+      return OptionalLong.empty();
+    }
+  }
+
+  @Override
+  public Optional<Path> findFile(String name) {
+    if (pending.containsKey(name) || !isValidName(name)) {
+      return Optional.empty();
+    }
+    Path path = resolve(name);
+    return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+  }
+
+  @Override
+  public boolean exists(String name) {
+    return pending.containsKey(name) || (isValidName(name) && Files.isRegularFile(resolve(name)));
+  }
+
+  @Override
+  public int collectGarbage(Set<String> referencedNames) throws IOException {
+    if (!Files.isDirectory(root)) {
+      return 0;
+    }
+    Set<Path> pendingFiles =
+        pending.values().stream().map(photo -> photo.temporary).collect(Collectors.toSet());
+    Instant collectableBefore = Instant.now().minus(gracePeriod);
+    int removed = 0;
+    try (Stream<Path> files = Files.walk(root, 3)) {
+      for (Path path : (Iterable<Path>) files::iterator) {
+        String name = path.getFileName().toString();
+        String originalName = PhotoVariant.findOriginalName(name).orElse(name);
+        boolean isPhoto = name.endsWith(EXTENSION) || name.endsWith(TEMPORARY_EXTENSION);
+        if (!isPhoto
+            || referencedNames.contains(originalName)
+            || pending.containsKey(name)
+            || pendingFiles.contains(path)
+            || !Files.isRegularFile(path)
+            || !Files.getLastModifiedTime(path).toInstant().isBefore(collectableBefore)) {
+          continue;
+        }
+        if (Files.deleteIfExists(path)) {
+          removed++;
+        }
+      }
+    }
+    return removed;
+  }
+
+  Path resolve(String name) {
+    if (!isValidName(name)) {
+      throw new IllegalArgumentException("Invalid photo name " + name);
+    }
+    if (CONTENT_ADDRESSED_NAME.matcher(name).matches()) {
+      return root.resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name);
+    }
+    return root.resolve(name);
+  }
+
+  // LEGACY NAMES MUST NOT LEAVE THE ROOT DIRECTORY
+  boolean isValidName(String name) {
+    if (CONTENT_ADDRESSED_NAME.matcher(name).matches()) {
+      return true;
+    }
+    if (name.isEmpty() || name.startsWith(".") || !name.endsWith(EXTENSION)) {
+      return false;
+    }
+    try {
+      Path directory = root.toAbsolutePath().normalize();
+      return directory.equals(directory.resolve(name).normalize().getParent());
+    } catch (InvalidPathException e) {
+      return false;
+    }
+  }
+
+  // THE CHECK READS FROM THE SAME PASS, EVERYTHING IT READS ENDS UP IN THE FILE AS WELL
+  private Path writeTemporary(InputStream photo, PhotoCheck check) throws IOException {
+    Files.createDirectories(root);
+    Path temporary = Files.createTempFile(root, TEMPORARY_PREFIX, TEMPORARY_EXTENSION);
+    try (OutputStream output =
+            new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE);
+        TeeInputStream input = new TeeInputStream(photo, output)) {
+      check.check(input);
+      input.transferTo(OutputStream.nullOutputStream());
+      return temporary;
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(temporary);
+      throw e;
+    }
+  }
+
+  // RETURNS A FUTURE COMPLETED ONCE THE PHOTO IS DURABLE IN PLACE
+  private CompletableFuture<Void> store(String name, Path temporary) throws IOException {
+    boolean kept = false;
+    try {
+      PendingPhoto existing = pending.get(name);
+      if (existing != null) {
+        return existing.stored;
+      }
+      try {
+        // REUSED PHOTO MUST SURVIVE THE GARBAGE COLLECTION UNTIL THE NEW REFERENCE IS COMMITTED
+        Files.setLastModifiedTime(resolve(name), FileTime.from(Instant.now()));
+        return CompletableFuture.completedFuture(null);
+      } catch (NoSuchFileException e) {
+        // NOT STORED YET
+      }
+      if (writer.isShutdown()) {
+        throw new IOException("Store shut down");
+      }
+      PendingPhoto photo = new PendingPhoto(temporary);
+      existing = pending.putIfAbsent(name, photo);
+      if (existing != null) {
+        return existing.stored;
+      }
+      kept = true;
+      writeQueue.add(name);
+      return photo.stored;
+    } finally {
+      if (!kept) {
+        Files.deleteIfExists(temporary);
+      }
+    }
+  }
+
+  private static void awaitStored(String name, CompletableFuture<Void> stored)
+      throws IOException {
+    try {
+      stored.get(STORE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while storing photo " + name);
+    } catch (ExecutionException e) {
+      throw new IOException("Storing photo " + name + " failed", e.getCause());
+    } catch (TimeoutException e) {
+      throw new IOException("Storing photo " + name + " timed out", e);
+    }
+  }
+
+  private void writeLoop() {
+    Set<String> retries = new LinkedHashSet<>();
+    try {
+      boolean stopped = false;
+      while (!stopped) {
+        String name = writeQueue.poll(RETRY_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        List<String> batch = new ArrayList<>(retries);
+        retries.clear();
+        if (name != null) {
+          batch.add(name);
+          writeQueue.drainTo(batch, MAX_BATCH_SIZE);
+        }
+        stopped = batch.removeIf(STOP::equals);
+        if (!batch.isEmpty()) {
+          retries.addAll(writeBatch(batch));
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // RETURNS NAMES OF PHOTOS WHICH FAILED TO BE MOVED INTO PLACE
+  List<String> writeBatch(List<String> names) {
+    List<String> failed = new ArrayList<>();
+    Map<String, PendingPhoto> synced = new LinkedHashMap<>();
+    for (String name : names) {
+      PendingPhoto photo = pending.get(name);
+      if (photo == null || synced.containsKey(name)) {
+        continue;
+      }
+      try (FileChannel channel = FileChannel.open(photo.temporary, StandardOpenOption.WRITE)) {
+        channel.force(true);
+        synced.put(name, photo);
+      } catch (IOException e) {
+        log.warn("Syncing photo {} failed, retrying later", name, e);
+        failed.add(name);
+      }
+    }
+    Set<Path> directories = new LinkedHashSet<>();
+    Map<String, PendingPhoto> moved = new LinkedHashMap<>();
+    for (Map.Entry<String, PendingPhoto> entry : synced.entrySet()) {
+      String name = entry.getKey();
+      Path path = resolve(name);
+      try {
+        Files.createDirectories(path.getParent());
+        Files.move(
+            entry.getValue().temporary,
+            path,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+        directories.add(path.getParent());
+        moved.put(name, entry.getValue());
+      } catch (IOException e) {
+        log.warn("Moving photo {} failed, retrying later", name, e);
+        failed.add(name);
+      }
+    }
+    // MAKES THE MOVES DURABLE, NOT SUPPORTED ON EVERY PLATFORM
+    for (Path directory : directories) {
+      try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+        channel.force(true);
+      } catch (IOException e) {
+        log.debug("Syncing directory {} failed", directory, e);
+      }
+    }
+    moved.forEach(
+        (name, photo) -> {
+          pending.remove(name);
+          photo.stored.complete(null);
+        });
+    return failed;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static class PendingPhoto {
+
+    private final Path temporary;
+    private final CompletableFuture<Void> stored = new CompletableFuture<>();
+
+    private PendingPhoto(Path temporary) {
+      this.temporary = temporary;
+    }
+  }
+
+  // COPIES EVERY BYTE READ, OR SKIPPED, TO THE OUTPUT
+  private static class TeeInputStream extends FilterInputStream {
+
+    private final OutputStream output;
+
+    private TeeInputStream(InputStream input, OutputStream output) {
+      super(input);
+      this.output = output;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1) {
+        output.write(b);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = super.read(b, off, len);
+      if (read > 0) {
+        output.write(b, off, read);
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+      long skipped = 0;
+      while (skipped < n) {
+        int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+        if (read < 0) {
+          break;
+        }
+        skipped += read;
+      }
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+}
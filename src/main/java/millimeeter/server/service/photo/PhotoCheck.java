@@ -0,0 +1,11 @@
+package millimeeter.server.service.photo;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@FunctionalInterface
+public interface PhotoCheck {
+
+  // READS AS MUCH OF THE PHOTO AS NEEDED, THROWS WHEN THE PHOTO MUST NOT BE STORED
+  void check(InputStream photo) throws IOException;
+}
@@ -0,0 +1,41 @@
+package millimeeter.server.service.photo;
+
+import java.io.IOException;
+import java.util.HashSet;
+import millimeeter.server.repository.ProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+    REMOVES STORED PHOTOS NO PROFILE REFERENCES ANYMORE, E.G. REPLACED, DELETED OR BELONGING TO
+    DELETED PROFILES
+*/
+
+@Component
+public class PhotoGarbageCollector {
+
+  private static final Logger log = LoggerFactory.getLogger(PhotoGarbageCollector.class);
+
+  private final PhotoStore photoStore;
+  private final ProfileRepository profileRepository;
+
+  @Autowired
+  public PhotoGarbageCollector(PhotoStore photoStore, ProfileRepository profileRepository) {
+    this.photoStore = photoStore;
+    this.profileRepository = profileRepository;
+  }
+
+  @Scheduled(cron = "${millimeeter.photos.gc-cron:0 30 4 * * *}")
+  public void collectGarbage() {
+    try {
+      int removed =
+          photoStore.collectGarbage(new HashSet<>(profileRepository.findAllPhotoNames()));
+      log.info("Removed {} unreferenced photos", removed);
+    } catch (IOException e) {
+      log.warn("Photo garbage collection failed", e);
+    }
+  }
+}
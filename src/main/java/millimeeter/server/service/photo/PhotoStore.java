@@ -0,0 +1,41 @@
+package millimeeter.server.service.photo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/*
+    STORAGE OF PROFILE PHOTOS, PHOTOS ARE ADDRESSED BY THE NAMES KEPT IN Profile.photos
+*/
+
+public interface PhotoStore {
+
+  // STORES THE PHOTO AND RETURNS ITS NAME, IDENTICAL PHOTOS ARE STORED ONCE UNDER THE SAME NAME
+  default String save(InputStream photo) throws IOException {
+    return save(photo, input -> {});
+  }
+
+  // THE PHOTO IS READ ONLY ONCE, THE CHECK GETS TO READ ITS BEGINNING BEFORE IT IS STORED
+  String save(InputStream photo, PhotoCheck check) throws IOException;
+
+  // STORES A PHOTO DERIVED FROM A STORED ONE, SEE PhotoVariant
+  void save(String name, InputStream photo) throws IOException;
+
+  // EMPTY WHEN NO PHOTO IS STORED UNDER THE NAME
+  Optional<InputStream> open(String name) throws IOException;
+
+  // SIZE IN BYTES, EMPTY WHEN NO PHOTO IS STORED UNDER THE NAME
+  OptionalLong size(String name) throws IOException;
+
+  // EMPTY WHEN THE PHOTO IS NOT A FILE ON THE LOCAL FILESYSTEM (YET), IT MAY STILL BE OPENED
+  Optional<Path> findFile(String name);
+
+  boolean exists(String name);
+
+  // REMOVES STORED PHOTOS NOT REFERENCED ANYMORE, TOGETHER WITH THEIR VARIANTS, AND RETURNS HOW
+  // MANY WERE REMOVED
+  int collectGarbage(Set<String> referencedNames) throws IOException;
+}
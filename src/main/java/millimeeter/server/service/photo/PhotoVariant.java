@@ -0,0 +1,52 @@
+package millimeeter.server.service.photo;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.Getter;
+
+/*
+    DOWNSCALED COPIES OF A PHOTO, STORED NEXT TO THE ORIGINAL abcdef...jpg AS abcdef...-WIDTH.jpg
+
+    ONLY CONTENT ADDRESSED PHOTOS HAVE VARIANTS, OTHER PHOTOS ARE REFERENCED BY THEIR ORIGINAL NAME
+*/
+
+@Getter
+public enum PhotoVariant {
+  AVATAR(128),
+  CARD(640);
+
+  static final Pattern ORIGINAL_NAME = Pattern.compile("([0-9a-f]{64})\\.jpg");
+  static final Pattern VARIANT_NAME = Pattern.compile("([0-9a-f]{64})-([0-9]+)\\.jpg");
+
+  private final int width;
+
+  PhotoVariant(int width) {
+    this.width = width;
+  }
+
+  public String nameFor(String name) {
+    Matcher matcher = ORIGINAL_NAME.matcher(name);
+    return matcher.matches() ? matcher.group(1) + "-" + width + ".jpg" : name;
+  }
+
+  public String[] namesFor(String[] names) {
+    return Arrays.stream(names).map(this::nameFor).toArray(String[]::new);
+  }
+
+  public static boolean hasVariants(String name) {
+    return ORIGINAL_NAME.matcher(name).matches();
+  }
+
+  // EMPTY WHEN THE NAME IS NOT A NAME OF A VARIANT
+  public static Optional<String> findOriginalName(String name) {
+    Matcher matcher = VARIANT_NAME.matcher(name);
+    if (matcher.matches()
+        && Arrays.stream(values())
+            .anyMatch(variant -> String.valueOf(variant.width).equals(matcher.group(2)))) {
+      return Optional.of(matcher.group(1) + ".jpg");
+    }
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,183 @@
+package millimeeter.server.service.photo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/*
+    GENERATES PhotoVariants OF UPLOADED PHOTOS ON A BOUNDED WORKER POOL
+
+    WHEN THE QUEUE IS FULL THE PHOTO IS SKIPPED, VARIANTS NOT GENERATED YET ARE SERVED AS THE
+    ORIGINAL AND REQUESTED AGAIN BY PhotoController. THE ORIGINAL IS DECODED ONCE, SUBSAMPLED WHILE
+    DECODING DOWN TO TWICE THE LARGEST MISSING VARIANT AND SCALED FROM THERE. AN ORIGINAL WHICH
+    FAILED IS NOT READ AGAIN UNTIL FAILED_RETRY_AFTER HAS PASSED, SO EVERY REQUEST OF ITS VARIANTS
+    DOES NOT READ AND DECODE IT WHOLE ONCE MORE.
+*/
+
+@Service
+public class PhotoVariantService {
+
+  private static final Logger log = LoggerFactory.getLogger(PhotoVariantService.class);
+
+  static final float JPEG_QUALITY = 0.85f;
+  static final long FAILED_MAXIMUM_SIZE = 10_000;
+  static final Duration FAILED_RETRY_AFTER = Duration.ofHours(1);
+
+  private final PhotoStore photoStore;
+  private final ThreadPoolExecutor workers;
+  private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+  private final Cache<String, Boolean> failed =
+      Caffeine.newBuilder()
+          .maximumSize(FAILED_MAXIMUM_SIZE)
+          .expireAfterWrite(FAILED_RETRY_AFTER)
+          .build();
+
+  @Autowired
+  public PhotoVariantService(
+      PhotoStore photoStore,
+      @Value("${millimeeter.photos.variant-workers:0}") int workers,
+      @Value("${millimeeter.photos.variant-queue-capacity:1000}") int queueCapacity) {
+    this.photoStore = photoStore;
+    int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    this.workers =
+        new ThreadPoolExecutor(
+            threads, threads, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    workers.shutdownNow();
+  }
+
+  // GENERATES MISSING VARIANTS IN THE BACKGROUND
+  public void generateVariants(String name) {
+    if (!PhotoVariant.hasVariants(name)
+        || failed.getIfPresent(name) != null
+        || !inProgress.add(name)) {
+      return;
+    }
+    try {
+      workers.execute(
+          () -> {
+            try {
+              generate(name);
+            } catch (IOException | RuntimeException e) {
+              failed.put(name, Boolean.TRUE);
+              log.warn("Generating variants of photo {} failed", name, e);
+            } finally {
+              inProgress.remove(name);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      inProgress.remove(name);
+    }
+  }
+
+  void generate(String name) throws IOException {
+    List<PhotoVariant> missing =
+        Arrays.stream(PhotoVariant.values())
+            .filter(variant -> !photoStore.exists(variant.nameFor(name)))
+            .toList();
+    if (missing.isEmpty()) {
+      return;
+    }
+    Optional<InputStream> original = photoStore.open(name);
+    if (original.isEmpty()) {
+      return;
+    }
+    byte[] bytes;
+    try (InputStream inputStream = original.get()) {
+      bytes = inputStream.readAllBytes();
+    }
+    int largestWidth = missing.stream().mapToInt(PhotoVariant::getWidth).max().getAsInt();
+    BufferedImage image = null;
+    int originalWidth;
+    try (ImageInputStream imageInputStream =
+        ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+      Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
+      if (!imageReaders.hasNext()) {
+        throw new IOException("Photo " + name + " is not an image");
+      }
+      ImageReader imageReader = imageReaders.next();
+      try {
+        imageReader.setInput(imageInputStream);
+        originalWidth = imageReader.getWidth(0);
+        int subsampling = Math.max(1, originalWidth / (2 * largestWidth));
+        if (originalWidth > missing.stream().mapToInt(PhotoVariant::getWidth).min().getAsInt()) {
+          ImageReadParam param = imageReader.getDefaultReadParam();
+          param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+          image = imageReader.read(0, param);
+        }
+      } finally {
+        imageReader.dispose();
+      }
+    }
+    for (PhotoVariant variant : missing) {
+      // NEVER UPSCALED, A SMALL ORIGINAL IS STORED AS ITS OWN VARIANT
+      byte[] variantBytes =
+          originalWidth <= variant.getWidth() ? bytes : encode(scale(image, variant.getWidth()));
+      photoStore.save(variant.nameFor(name), new ByteArrayInputStream(variantBytes));
+    }
+  }
+
+  static BufferedImage scale(BufferedImage image, int width) {
+    int height = Math.max(1, Math.round(image.getHeight() * width / (float) image.getWidth()));
+    BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = scaled.createGraphics();
+    try {
+      graphics.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(image, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    return scaled;
+  }
+
+  static byte[] encode(BufferedImage image) throws IOException {
+    ImageWriter imageWriter = ImageIO.getImageWritersByFormatName("jpeg").next();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+      ImageWriteParam param = imageWriter.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(JPEG_QUALITY);
+      imageWriter.setOutput(imageOutputStream);
+      imageWriter.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      imageWriter.dispose();
+    }
+    return outputStream.toByteArray();
+  }
+}
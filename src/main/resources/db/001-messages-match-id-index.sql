@@ -0,0 +1,2 @@
+-- KEYSET PAGINATION OF CONVERSATIONS READS messages BY match_id IN id ORDER
+CREATE INDEX CONCURRENTLY IF NOT EXISTS messages_match_id_id_idx ON messages (match_id, id);
@@ -0,0 +1,45 @@
+-- ONE ROW PER MATCH PARTICIPANT WITH THE LAST MESSAGE OF THE MATCH AND UNREAD MESSAGES COUNT,
+-- MAINTAINED BY MatchService AND MessageService, READ BY GET /api/v1/conversations
+CREATE TABLE IF NOT EXISTS inbox (
+    profile_id BIGINT NOT NULL REFERENCES profiles (id) ON DELETE CASCADE,
+    match_id BIGINT NOT NULL REFERENCES matches (id) ON DELETE CASCADE,
+    counterpart_id BIGINT NOT NULL REFERENCES profiles (id) ON DELETE CASCADE,
+    last_message_id BIGINT,
+    last_message_sender_id BIGINT,
+    last_message_content TEXT,
+    last_message_status VARCHAR(16),
+    last_message_sent_at TIMESTAMP,
+    unread_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (profile_id, match_id)
+);
+
+CREATE INDEX IF NOT EXISTS inbox_match_id_idx ON inbox (match_id);
+
+CREATE INDEX IF NOT EXISTS inbox_profile_id_last_message_sent_at_idx
+    ON inbox (profile_id, last_message_sent_at DESC)
+    WHERE last_message_id IS NOT NULL;
+
+-- BACKFILL FROM EXISTING MATCHES AND MESSAGES
+INSERT INTO inbox (profile_id, match_id, counterpart_id)
+SELECT profile_id_1, id, profile_id_2 FROM matches
+UNION ALL
+SELECT profile_id_2, id, profile_id_1 FROM matches
+ON CONFLICT DO NOTHING;
+
+UPDATE inbox
+SET last_message_id = last.id,
+    last_message_sender_id = last.sender_id,
+    last_message_content = last.content,
+    last_message_status = last.status::TEXT,
+    last_message_sent_at = last.sent_at
+FROM (SELECT DISTINCT ON (match_id) id, match_id, sender_id, content, status, sent_at
+      FROM messages
+      ORDER BY match_id, id DESC) last
+WHERE inbox.match_id = last.match_id;
+
+UPDATE inbox
+SET unread_count = (SELECT COUNT(*)
+                    FROM messages
+                    WHERE messages.match_id = inbox.match_id
+                      AND messages.sender_id <> inbox.profile_id
+                      AND messages.seen_at IS NULL);
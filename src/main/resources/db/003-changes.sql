@@ -0,0 +1,18 @@
+-- PER PROFILE CHANGE LOG READ BY GET /api/v1/sync. seq IS TAKEN FROM sync_counters, WHOSE ROW
+-- STAYS LOCKED UNTIL THE WRITING TRANSACTION COMMITS, SO FOR A GIVEN PROFILE seq GROWS IN COMMIT
+-- ORDER AND A CLIENT RESUMING FROM A TOKEN NEVER SKIPS A CHANGE
+CREATE TABLE IF NOT EXISTS sync_counters (
+    profile_id BIGINT PRIMARY KEY REFERENCES profiles (id) ON DELETE CASCADE,
+    seq BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS changes (
+    id BIGSERIAL PRIMARY KEY,
+    profile_id BIGINT NOT NULL REFERENCES profiles (id) ON DELETE CASCADE,
+    seq BIGINT NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    match_id BIGINT,
+    message_id BIGINT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (profile_id, seq)
+);
@@ -0,0 +1,31 @@
+-- ONE SWIPE PER SENDER AND RECEIVER, SwipeRepository.swipe INSERTS WITH ON CONFLICT
+-- (sender_id, receiver_id) INSTEAD OF COUNTING FIRST. DUPLICATES LEFT BY THE OLD
+-- CHECK-THEN-INSERT ARE DROPPED, THE EARLIEST SWIPE IS KEPT. SWIPES ARE LOCKED AGAINST WRITES
+-- FROM THE DELETE UNTIL THE INDEX IS BUILT, SO NO DUPLICATE CAN SLIP IN BETWEEN, AND EVERYTHING
+-- IS ROLLED BACK IF THE BUILD FAILS. THE INDEX IS NOT BUILT CONCURRENTLY AS THAT CAN NEITHER RUN
+-- IN A TRANSACTION NOR BE TRUSTED TO LEAVE A VALID INDEX
+BEGIN;
+
+LOCK TABLE swipes IN SHARE ROW EXCLUSIVE MODE;
+
+-- AN INVALID INDEX LEFT BY AN EARLIER FAILED CONCURRENT BUILD WOULD BE SKIPPED BY IF NOT EXISTS
+DO
+$$
+    BEGIN
+        IF EXISTS(SELECT 1
+                  FROM pg_index i
+                           JOIN pg_class c ON c.oid = i.indexrelid
+                  WHERE c.relname = 'swipes_sender_id_receiver_id_idx'
+                    AND NOT i.indisvalid) THEN
+            DROP INDEX swipes_sender_id_receiver_id_idx;
+        END IF;
+    END
+$$;
+
+DELETE FROM swipes a USING swipes b
+WHERE a.sender_id = b.sender_id AND a.receiver_id = b.receiver_id AND a.id > b.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS swipes_sender_id_receiver_id_idx
+    ON swipes (sender_id, receiver_id);
+
+COMMIT;
@@ -0,0 +1,18 @@
+-- swipes, matches, messages, disappearing_messages AND changes IDS ARE ALLOCATED BY HIBERNATE
+-- 50 AT A TIME (POOLED-LO), SO INSERTS CAN BE BATCHED. THE SEQUENCE BEHIND EACH id MUST STEP BY
+-- THE SAME allocationSize AS THE ENTITY, OTHERWISE ALLOCATED RANGES OVERLAP. MUST BE APPLIED
+-- BEFORE THE APPLICATION IS DEPLOYED. ROWS INSERTED BY SQL STILL TAKE nextval AS THEIR id, EACH
+-- VALUE STARTS A RANGE OF ITS OWN, SO THEY NEVER COLLIDE WITH IDS ALLOCATED BY HIBERNATE
+DO
+$$
+    DECLARE
+        table_name TEXT;
+    BEGIN
+        FOREACH table_name IN ARRAY
+            ARRAY ['swipes', 'matches', 'messages', 'disappearing_messages', 'changes']
+            LOOP
+                EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50',
+                               pg_get_serial_sequence(table_name, 'id'));
+            END LOOP;
+    END
+$$;
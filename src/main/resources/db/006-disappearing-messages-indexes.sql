@@ -0,0 +1,7 @@
+-- DisappearingMessageExpiry REBUILDS ITS TIMING WHEEL FROM SEEN MESSAGES ON STARTUP
+CREATE INDEX CONCURRENTLY IF NOT EXISTS disappearing_messages_seen_at_idx
+    ON disappearing_messages (seen_at) WHERE seen_at IS NOT NULL;
+
+-- GET /api/v1/disappearingMessages/{profileId} READS BOTH DIRECTIONS OF A CONVERSATION
+CREATE INDEX CONCURRENTLY IF NOT EXISTS disappearing_messages_sender_id_receiver_id_idx
+    ON disappearing_messages (sender_id, receiver_id);
@@ -0,0 +1,4 @@
+-- ChangeRetention DELETES CHANGES OLDER THAN millimeeter.sync.change-retention-days IN BATCHES
+-- OF THE OLDEST ONES. GET /api/v1/sync ANSWERS 410 GONE TO A TOKEN OLDER THAN THE OLDEST CHANGE
+-- KEPT, THE CLIENT THEN LOADS ITS MATCHES AND CONVERSATIONS AGAIN
+CREATE INDEX IF NOT EXISTS changes_created_at_idx ON changes (created_at);
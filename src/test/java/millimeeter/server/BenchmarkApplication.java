@@ -0,0 +1,105 @@
+package millimeeter.server;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import millimeeter.server.enums.Gender;
+import millimeeter.server.enums.LookingFor;
+import millimeeter.server.model.Profile;
+import millimeeter.server.repository.ProfileRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+/*
+    THE APPLICATION AND ITS DATA FOR BENCHMARKS WHICH NEED THE DATABASE. THE APPLICATION IS
+    CONFIGURED LIKE FOR THE @SpringBootTest TESTS, SO IT NEEDS THEIR POSTGRES, AND LISTENS ON A
+    RANDOM PORT
+
+    PROFILES ARE CREATED WITH IDS FROM FIRST_PROFILE_ID DOWN, AWAY FROM THE PROFILES OF TestUtils,
+    NEXT TO EACH OTHER AROUND LATITUDE AND LONGITUDE. DELETING THEM DELETES THEIR SWIPES, MATCHES
+    AND MESSAGES TOO
+*/
+public final class BenchmarkApplication {
+
+  public static final long FIRST_PROFILE_ID = -1_000_000;
+  public static final double LATITUDE = 52.2297;
+  public static final double LONGITUDE = 21.0122;
+
+  private BenchmarkApplication() {}
+
+  public static ConfigurableApplicationContext start(String... properties) {
+    return new SpringApplicationBuilder(MilliMeeterServerApplication.class)
+        .properties("server.port=0", "spring.devtools.restart.enabled=false")
+        .properties(properties)
+        .initializers(
+            context ->
+                context
+                    .getBeanFactory()
+                    .registerSingleton(
+                        NestedConfigurationExcludeFilter.class.getName(),
+                        new NestedConfigurationExcludeFilter()))
+        .run();
+  }
+
+  // LIKE IN A @SpringBootTest, CONFIGURATIONS NESTED IN TESTS AND BENCHMARKS ARE NOT SCANNED
+  static final class NestedConfigurationExcludeFilter extends TypeExcludeFilter {
+
+    @Override
+    public boolean match(
+        MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+      String enclosingClassName = metadataReader.getClassMetadata().getEnclosingClassName();
+      return enclosingClassName != null
+          && (enclosingClassName.endsWith("Tests") || enclosingClassName.endsWith("Benchmark"));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other != null && other.getClass() == getClass();
+    }
+
+    @Override
+    public int hashCode() {
+      return getClass().hashCode();
+    }
+  }
+
+  // THE FIRST PROFILE IS A MAN LOOKING FOR WOMEN, THE OTHERS ARE WOMEN LOOKING FOR MEN
+  public static List<Profile> createProfiles(ProfileRepository profileRepository, int count) {
+    List<Profile> profiles = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      boolean first = i == 0;
+      profiles.add(
+          new Profile(
+              FIRST_PROFILE_ID - i,
+              "Benchmark" + i,
+              LocalDate.of(1990 + i % 10, 1 + i % 12, 1 + i % 28),
+              first ? Gender.MAN : Gender.WOMAN,
+              List.of(photo(i, 1), photo(i, 2), photo(i, 3)),
+              "Hi, I like long walks, board games and trying every ramen place in town.",
+              "Fleetwood Mac - Dreams",
+              LATITUDE + i % 100 * 0.001,
+              LONGITUDE + i / 100 * 0.001,
+              LocalDateTime.now(),
+              50,
+              null,
+              first ? LookingFor.WOMEN : LookingFor.MEN,
+              100,
+              18,
+              60));
+    }
+    return profileRepository.saveAll(profiles);
+  }
+
+  public static void deleteProfiles(ProfileRepository profileRepository, List<Profile> profiles) {
+    profileRepository.deleteAll(profiles);
+  }
+
+  // CONTENT-ADDRESSED NAMES, SEE LocalPhotoStore, THE FILES DO NOT EXIST
+  static String photo(int profile, int index) {
+    return String.format("%064x.jpg", profile * 31L + index);
+  }
+}
@@ -0,0 +1,161 @@
+package millimeeter.server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import millimeeter.server.dto.MessageDto;
+import millimeeter.server.dto.ProfileToSwipeDto;
+import millimeeter.server.enums.Gender;
+import millimeeter.server.enums.MessageReaction;
+import millimeeter.server.enums.MessageStatus;
+import millimeeter.server.service.assembler.HalCollectionStream;
+import millimeeter.server.service.assembler.LinkTemplates;
+import millimeeter.server.service.assembler.MessageDtoModelAssembler;
+import millimeeter.server.service.assembler.ProfileToSwipeDtoModelAssembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Scope;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+/*
+    SERIALIZATION OF A SWIPE DECK OF 50 PROFILES AND A PAGE OF 100 MESSAGES IN EVERY FORMAT OF
+    HalMessageConvertersConfig, WRITTEN BY THE CONVERTER USED FOR THE RESPONSES. THE PAYLOAD SIZE
+    OF EVERY FORMAT IS PRINTED WHEN ITS TRIAL STARTS
+*/
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HalFormatsBenchmark {
+
+  static final int DECK_SIZE = 50;
+  static final int MESSAGE_PAGE_SIZE = 100;
+
+  // NOT A @Configuration, WHICH THE COMPONENT SCAN OF millimeeter.server.config WOULD ADD TO THE
+  // APPLICATION CONTEXT OF EVERY @SpringBootTest
+  @EnableHypermediaSupport(type = EnableHypermediaSupport.HypermediaType.HAL)
+  @Import({HalMessageConvertersConfig.class, LinkTemplates.class})
+  static class Config {
+
+    @Bean
+    ObjectMapper objectMapper() {
+      return objectMapperBuilder().build();
+    }
+
+    @Bean
+    @Scope("prototype")
+    Jackson2ObjectMapperBuilder objectMapperBuilder() {
+      return new Jackson2ObjectMapperBuilder().modules(new JavaTimeModule());
+    }
+  }
+
+  @Param({"application/hal+json", "application/cbor", "application/x-jackson-smile"})
+  public String format;
+
+  @Param({"deck", "messages"})
+  public String payload;
+
+  private AnnotationConfigWebApplicationContext context;
+  private HalCollectionStreamHttpMessageConverter converter;
+  private MediaType mediaType;
+  private HalCollectionStream<?> stream;
+
+  @Setup
+  public void setUp() throws Exception {
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+    context = new AnnotationConfigWebApplicationContext();
+    context.setServletContext(new MockServletContext());
+    context.register(Config.class);
+    context.refresh();
+    converter = context.getBean(HalCollectionStreamHttpMessageConverter.class);
+    LinkTemplates linkTemplates = context.getBean(LinkTemplates.class);
+    mediaType = MediaType.parseMediaType(format);
+    stream =
+        payload.equals("deck")
+            ? HalCollectionStream.of(
+                deck()::forEach, new ProfileToSwipeDtoModelAssembler(linkTemplates))
+            : HalCollectionStream.of(
+                messages()::forEach, new MessageDtoModelAssembler(linkTemplates));
+    System.out.printf("%n%s %s: %d bytes%n", payload, format, write().length);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Benchmark
+  public byte[] write() throws Exception {
+    MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+    converter.write(stream, mediaType, outputMessage);
+    return outputMessage.getBodyAsBytes();
+  }
+
+  static List<ProfileToSwipeDto> deck() {
+    List<ProfileToSwipeDto> deck = new ArrayList<>();
+    for (long id = 1; id <= DECK_SIZE; id++) {
+      deck.add(
+          new ProfileToSwipeDto(
+              100_000 + id,
+              "Gloria",
+              20 + (int) (id % 20),
+              Gender.WOMAN,
+              new String[] {photo(id, 1), photo(id, 2), photo(id, 3), photo(id, 4)},
+              "Hi, I like long walks, board games and trying every ramen place in town. "
+                  .repeat(4),
+              "Fleetwood Mac - Dreams",
+              (int) (id % 50)));
+    }
+    return deck;
+  }
+
+  static List<MessageDto> messages() {
+    List<MessageDto> messages = new ArrayList<>();
+    LocalDateTime sentAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+    for (long id = 1; id <= MESSAGE_PAGE_SIZE; id++) {
+      messages.add(
+          new MessageDto(
+              1_000_000 + id,
+              100_000 + id % 2,
+              "See you at eight then, I will be the one with the yellow umbrella",
+              id % 10 == 0 ? 1_000_000 + id - 1 : null,
+              id % 7 == 0 ? MessageReaction.LIKE : null,
+              null,
+              MessageStatus.SEEN,
+              sentAt.plusMinutes(id),
+              sentAt.plusMinutes(id + 1)));
+    }
+    return messages;
+  }
+
+  // CONTENT-ADDRESSED NAMES, SEE LocalPhotoStore
+  static String photo(long id, int index) {
+    return String.format("%064x-640.jpg", id * 31 + index);
+  }
+}
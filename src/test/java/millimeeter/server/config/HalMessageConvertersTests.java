@@ -0,0 +1,169 @@
+package millimeeter.server.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import millimeeter.server.dto.MatchDto;
+import millimeeter.server.service.assembler.HalCollectionStream;
+import millimeeter.server.service.assembler.LinkTemplates;
+import millimeeter.server.service.assembler.MatchDtoModelAssembler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Scope;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.hateoas.server.mvc.TypeConstrainedMappingJackson2HttpMessageConverter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringJUnitWebConfig
+class HalMessageConvertersTests {
+
+  @Configuration
+  @EnableHypermediaSupport(type = EnableHypermediaSupport.HypermediaType.HAL)
+  @Import({HalMessageConvertersConfig.class, LinkTemplates.class})
+  static class Config {
+
+    @Bean
+    ObjectMapper objectMapper() {
+      return objectMapperBuilder().build();
+    }
+
+    @Bean
+    @Scope("prototype")
+    Jackson2ObjectMapperBuilder objectMapperBuilder() {
+      return new Jackson2ObjectMapperBuilder().modules(new JavaTimeModule());
+    }
+
+    @Bean
+    MatchDtoModelAssembler matchDtoModelAssembler(LinkTemplates linkTemplates) {
+      return new MatchDtoModelAssembler(linkTemplates);
+    }
+  }
+
+  private final HalCollectionStreamHttpMessageConverter converter;
+  private final TypeConstrainedMappingJackson2HttpMessageConverter cborConverter;
+  private final TypeConstrainedMappingJackson2HttpMessageConverter smileConverter;
+  private final MatchDtoModelAssembler assembler;
+  private final ObjectMapper halObjectMapper;
+  private final List<MatchDto> matches =
+      List.of(
+          new MatchDto(1L, 2L, "Gloria", new String[] {"a.jpg"}, LocalDateTime.now()),
+          new MatchDto(3L, 4L, "Victoria", new String[] {"b.jpg", "c.jpg"}, LocalDateTime.now()));
+
+  @Autowired
+  public HalMessageConvertersTests(
+      HalCollectionStreamHttpMessageConverter converter,
+      @Qualifier("halCborHttpMessageConverter")
+          TypeConstrainedMappingJackson2HttpMessageConverter cborConverter,
+      @Qualifier("halSmileHttpMessageConverter")
+          TypeConstrainedMappingJackson2HttpMessageConverter smileConverter,
+      MatchDtoModelAssembler assembler,
+      ObjectMapper objectMapper,
+      HalMediaTypeConfiguration halMediaTypeConfiguration) {
+    this.converter = converter;
+    this.cborConverter = cborConverter;
+    this.smileConverter = smileConverter;
+    this.assembler = assembler;
+    this.halObjectMapper = halMediaTypeConfiguration.configureObjectMapper(objectMapper.copy());
+  }
+
+  @Test
+  void verifyWriteRendersSameJsonAsCollectionModel() throws Exception {
+    Link next = Link.of("/api/v1/matches?page=2", "next");
+
+    assertSameJson(
+        CollectionModel.of(matches.stream().map(assembler::toModel).toList()).add(next),
+        HalCollectionStream.of(matches::forEach, assembler).withLinks(List.of(next)));
+    assertSameJson(
+        CollectionModel.of(List.of(assembler.toModel(matches.get(0)))),
+        HalCollectionStream.of(List.of(matches.get(0))::forEach, assembler));
+  }
+
+  @Test
+  void verifyWriteEmptyCollectionReturnEmptyObject() throws Exception {
+    assertEquals("{}", write(HalCollectionStream.of(List.<MatchDto>of()::forEach, assembler)));
+  }
+
+  @Test
+  void verifyWriteFailingBeforeFirstItemWritesNothing() {
+    HalCollectionStream<MatchDto> stream =
+        HalCollectionStream.of(
+            action -> {
+              throw new QueryTimeoutException("Timed out");
+            },
+            assembler);
+    MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+    assertThrows(
+        QueryTimeoutException.class,
+        () -> converter.write(stream, MediaTypes.HAL_JSON, outputMessage));
+    assertEquals(0, outputMessage.getBodyAsBytes().length);
+  }
+
+  @Test
+  void verifyWriteBinaryFormatsRenderSameDocumentAsJson() throws Exception {
+    HalCollectionStream<MatchDto> stream = HalCollectionStream.of(matches::forEach, assembler);
+    JsonNode expected = halObjectMapper.readTree(write(stream));
+    assertEquals(expected, new CBORMapper().readTree(write(stream, MediaType.APPLICATION_CBOR)));
+    assertEquals(
+        expected,
+        new SmileMapper().readTree(write(stream, HalMessageConvertersConfig.APPLICATION_SMILE)));
+  }
+
+  @Test
+  void verifyWriteEntityModelInBinaryFormatsRenderSameDocumentAsJson() throws Exception {
+    EntityModel<MatchDto> model = assembler.toModel(matches.get(0));
+    JsonNode expected = halObjectMapper.readTree(halObjectMapper.writeValueAsString(model));
+
+    MockHttpOutputMessage cbor = new MockHttpOutputMessage();
+    cborConverter.write(model, MediaType.APPLICATION_CBOR, cbor);
+    assertEquals(expected, new CBORMapper().readTree(cbor.getBodyAsBytes()));
+
+    MockHttpOutputMessage smile = new MockHttpOutputMessage();
+    smileConverter.write(model, HalMessageConvertersConfig.APPLICATION_SMILE, smile);
+    assertEquals(expected, new SmileMapper().readTree(smile.getBodyAsBytes()));
+    assertFalse(cborConverter.canWrite(MatchDto.class, MediaType.APPLICATION_CBOR));
+  }
+
+  @Test
+  void verifyCanWriteOnlyCollectionStreams() {
+    assertTrue(converter.canWrite(HalCollectionStream.class, MediaTypes.HAL_JSON));
+    assertFalse(converter.canWrite(CollectionModel.class, MediaTypes.HAL_JSON));
+    assertFalse(converter.canRead(HalCollectionStream.class, MediaTypes.HAL_JSON));
+  }
+
+  void assertSameJson(CollectionModel<?> expected, HalCollectionStream<?> actual)
+      throws Exception {
+    assertEquals(
+        halObjectMapper.readTree(halObjectMapper.writeValueAsString(expected)),
+        halObjectMapper.readTree(write(actual)));
+  }
+
+  String write(HalCollectionStream<?> stream) throws Exception {
+    return new String(write(stream, MediaTypes.HAL_JSON), StandardCharsets.UTF_8);
+  }
+
+  byte[] write(HalCollectionStream<?> stream, MediaType mediaType) throws Exception {
+    MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+    converter.write(stream, mediaType, outputMessage);
+    return outputMessage.getBodyAsBytes();
+  }
+}
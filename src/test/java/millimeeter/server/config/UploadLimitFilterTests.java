@@ -0,0 +1,85 @@
+package millimeeter.server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadLimitFilterTests {
+
+  private UploadLimitFilter filter;
+
+  @BeforeEach
+  void init() {
+    filter =
+        new UploadLimitFilter(
+            new ObjectMapper(),
+            DataSize.ofMegabytes(10),
+            DataSize.ofMegabytes(15),
+            DataSize.ofMegabytes(25));
+  }
+
+  @Test
+  void verifyUploadsOverLimitsAreRejectedWhileOthersAreInFlight() throws Exception {
+    AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+    // FIRST USER HOLDS 10MB WHILE FURTHER UPLOADS ARRIVE
+    FilterChain holdingChain =
+        (request, response) -> {
+          nested.set(upload("user", 10));
+          assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), nested.get().getStatus());
+          assertNotNull(nested.get().getHeader(HttpHeaders.RETRY_AFTER));
+          assertEquals(HttpStatus.OK.value(), upload("another", 10).getStatus());
+          FilterChain innerChain =
+              (innerRequest, innerResponse) ->
+                  assertEquals(
+                      HttpStatus.SERVICE_UNAVAILABLE.value(), upload("third", 10).getStatus());
+          filter.doFilter(request("another", 10), new MockHttpServletResponse(), innerChain);
+        };
+    filter.doFilter(request("user", 10), new MockHttpServletResponse(), holdingChain);
+    assertTrue(nested.get().getContentAsString().contains("Too many uploads in progress"));
+
+    // EVERYTHING IS RELEASED AFTERWARDS
+    assertEquals(HttpStatus.OK.value(), upload("user", 10).getStatus());
+  }
+
+  @Test
+  void verifyUploadLargerThanMaximumRequestSizeIsRejected() throws Exception {
+    assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), upload("user", 11).getStatus());
+  }
+
+  @Test
+  void verifyOtherRequestsAreNotLimited() throws Exception {
+    MockHttpServletRequest request = request("user", 100);
+    request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, (req, res) -> {});
+    assertEquals(HttpStatus.OK.value(), response.getStatus());
+  }
+
+  MockHttpServletResponse upload(String user, int megabytes)
+      throws IOException, ServletException {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request(user, megabytes), response, (request, res) -> {});
+    return response;
+  }
+
+  static MockHttpServletRequest request(String user, int megabytes) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/profiles");
+    request.setContentType(MediaType.MULTIPART_FORM_DATA_VALUE + "; boundary=boundary");
+    request.setContent(new byte[(int) DataSize.ofMegabytes(megabytes).toBytes()]);
+    request.setUserPrincipal(new TestingAuthenticationToken(user, null));
+    return request;
+  }
+}
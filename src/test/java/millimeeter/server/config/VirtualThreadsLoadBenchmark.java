@@ -0,0 +1,78 @@
+package millimeeter.server.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+
+/*
+    LOAD TEST OF A RUNNING SERVER, TO COMPARE THE virtual-threads PROFILE WITH THE DEFAULT THREAD
+    PER REQUEST. EVERY BENCHMARK THREAD IS A CLIENT SENDING ONE REQUEST AFTER ANOTHER, 2,000 OF
+    THEM UNLESS -t SAYS OTHERWISE. THE THROUGHPUT MODE GIVES REQUESTS PER SECOND, THE SAMPLE TIME
+    MODE THE LATENCY PERCENTILES, p0.99 AMONG THEM
+
+    THE SERVER IS STARTED SEPARATELY, ONCE WITH mvn spring-boot:run AND ONCE WITH
+    mvn -P virtual-threads spring-boot:run ON JAVA 21, THEN
+      mvn -P benchmarks -DskipTests test -Dbenchmark=VirtualThreadsLoadBenchmark
+          -Dbenchmark.options="-jvmArgsAppend -Dload.token=<access token>"
+    load.token IS AN ACCESS TOKEN OF A USER WITH A PROFILE, load.url THE URL REQUESTED, THE
+    MATCHES OF THAT PROFILE ON localhost:8080 BY DEFAULT
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Threads(2000)
+@Fork(1)
+public class VirtualThreadsLoadBenchmark {
+
+  private HttpClient httpClient;
+  private HttpRequest request;
+
+  @Setup
+  public void setUp() {
+    httpClient =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    HttpRequest.Builder requestBuilder =
+        HttpRequest.newBuilder(
+                URI.create(System.getProperty("load.url", "http://localhost:8080/api/v1/matches")))
+            .header(HttpHeaders.ACCEPT, MediaTypes.HAL_JSON_VALUE)
+            .timeout(Duration.ofSeconds(30));
+    String token = System.getProperty("load.token");
+    if (token != null) {
+      requestBuilder.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+    request = requestBuilder.build();
+  }
+
+  @Benchmark
+  public int request() throws IOException, InterruptedException {
+    HttpResponse<byte[]> response =
+        httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    // A FAILED REQUEST MUST NOT BE COUNTED AS A FAST ONE
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Unexpected status " + response.statusCode());
+    }
+    return response.body().length;
+  }
+}
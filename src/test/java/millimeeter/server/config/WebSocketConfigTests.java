@@ -0,0 +1,111 @@
+package millimeeter.server.config;
+
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class WebSocketConfigTests {
+
+  static final String TOKEN = "token";
+  static final String USER_ID = "auth0|user";
+
+  private final MessageChannel channel = mock(MessageChannel.class);
+  private JwtDecoder jwtDecoder;
+  private ChannelInterceptor interceptor;
+
+  @BeforeEach
+  void init() {
+    jwtDecoder = mock(JwtDecoder.class);
+    interceptor = new WebSocketConfig(jwtDecoder).inboundInterceptor();
+  }
+
+  @Test
+  void verifyConnectWithValidTokenAuthenticatesUser() {
+    when(jwtDecoder.decode(TOKEN))
+        .thenReturn(
+            new Jwt(
+                TOKEN,
+                Instant.now(),
+                Instant.now().plusSeconds(60),
+                Map.of("alg", "none"),
+                Map.of("sub", USER_ID)));
+    Message<?> message =
+        interceptor.preSend(frame(StompCommand.CONNECT, "Bearer " + TOKEN, null), channel);
+    StompHeaderAccessor accessor =
+        MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+    assertNotNull(accessor);
+    assertNotNull(accessor.getUser());
+    assertEquals(USER_ID, accessor.getUser().getName());
+  }
+
+  @Test
+  void verifyConnectWithoutTokenIsRejected() {
+    assertThrows(
+        MessagingException.class,
+        () -> interceptor.preSend(frame(StompCommand.CONNECT, null, null), channel));
+    assertThrows(
+        MessagingException.class,
+        () -> interceptor.preSend(frame(StompCommand.CONNECT, TOKEN, null), channel));
+    verifyNoInteractions(jwtDecoder);
+  }
+
+  @Test
+  void verifyConnectWithInvalidTokenIsRejected() {
+    when(jwtDecoder.decode(TOKEN)).thenThrow(new BadJwtException("Expired"));
+    assertThrows(
+        MessagingException.class,
+        () -> interceptor.preSend(frame(StompCommand.CONNECT, "Bearer " + TOKEN, null), channel));
+  }
+
+  @Test
+  void verifySubscribingOnlyToOwnQueuesIsAllowed() {
+    Message<?> allowed = frame(StompCommand.SUBSCRIBE, null, "/user/queue/messages");
+    assertSame(allowed, interceptor.preSend(allowed, channel));
+    assertThrows(
+        MessagingException.class,
+        () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, null, "/queue/messages"), channel));
+    assertThrows(
+        MessagingException.class,
+        () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, null, "/user/topic/x"), channel));
+    assertThrows(
+        MessagingException.class,
+        () -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, null, null), channel));
+  }
+
+  @Test
+  void verifySendIsRejected() {
+    assertThrows(
+        MessagingException.class,
+        () -> interceptor.preSend(frame(StompCommand.SEND, null, "/user/queue/messages"), channel));
+  }
+
+  static Message<byte[]> frame(StompCommand command, String authorization, String destination) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+    if (authorization != null) {
+      accessor.addNativeHeader(HttpHeaders.AUTHORIZATION, authorization);
+    }
+    if (destination != null) {
+      accessor.setDestination(destination);
+    }
+    accessor.setLeaveMutable(true);
+    return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+  }
+}
@@ -132,6 +132,7 @@ class AllControllerTests {
       strings = {
         "GET; /api/v1/conversations",
         "GET; /api/v1/conversations/1",
+        "GET; /api/v1/disappearingMessages/1",
         "GET; /api/v1/matches",
         "GET; /api/v1/profiles",
         "GET; /api/v1/profiles/me",
@@ -139,6 +140,8 @@ class AllControllerTests {
         "POST; /api/v1/messages; {\"matchId\": 1, \"content\": \"Message content\","
             + " \"parentMessageId\": \"\"}",
         "POST; /api/v1/swipes/1/LEFT",
+        "POST; /api/v1/swipes/batch; {\"swipes\": [{\"id\": 1, \"direction\": \"LEFT\"}]}",
+        "PUT; /api/v1/disappearingMessages/read/1",
         "PUT; /api/v1/messages/read/1",
         "PUT; /api/v1/messages/setAsDelivered",
         "PUT; /api/v1/messages/1",
@@ -171,6 +174,7 @@ class AllControllerTests {
       strings = {
         "GET; /api/v1/conversations",
         "GET; /api/v1/conversations/1",
+        "GET; /api/v1/disappearingMessages/1",
         "GET; /api/v1/matches",
         "GET; /api/v1/profiles",
         "GET; /api/v1/profiles/me",
@@ -178,6 +182,8 @@ class AllControllerTests {
         "POST; /api/v1/messages; {\"matchId\": 1, \"content\": \"Message content\","
             + " \"parentMessageId\": \"\"}",
         "POST; /api/v1/swipes/1/LEFT",
+        "POST; /api/v1/swipes/batch; {\"swipes\": [{\"id\": 1, \"direction\": \"LEFT\"}]}",
+        "PUT; /api/v1/disappearingMessages/read/1",
         "PUT; /api/v1/messages/read/1",
         "PUT; /api/v1/messages/setAsDelivered",
         "PUT; /api/v1/messages/1",
@@ -0,0 +1,173 @@
+package millimeeter.server.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import millimeeter.server.enums.MessageStatus;
+import millimeeter.server.model.DisappearingMessage;
+import millimeeter.server.model.Profile;
+import millimeeter.server.repository.DisappearingMessageRepository;
+import millimeeter.server.service.TestUtils;
+import millimeeter.server.service.expiry.DisappearingMessageExpiry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(
+    properties = {
+      "millimeeter.disappearing-messages.ttl-seconds=0",
+      "millimeeter.disappearing-messages.tick-ms=100"
+    })
+@AutoConfigureMockMvc
+class DisappearingMessageControllerTests {
+
+  private final TestUtils testUtils;
+  private final DisappearingMessageRepository disappearingMessageRepository;
+  private final DisappearingMessageExpiry disappearingMessageExpiry;
+  private final WebApplicationContext applicationContext;
+  private MockMvc mockMvc;
+
+  @Autowired
+  public DisappearingMessageControllerTests(
+      TestUtils testUtils,
+      DisappearingMessageRepository disappearingMessageRepository,
+      DisappearingMessageExpiry disappearingMessageExpiry,
+      WebApplicationContext applicationContext) {
+    this.testUtils = testUtils;
+    this.disappearingMessageRepository = disappearingMessageRepository;
+    this.disappearingMessageExpiry = disappearingMessageExpiry;
+    this.applicationContext = applicationContext;
+  }
+
+  static final String USERNAME = TestUtils.USERNAME;
+  private Profile profile;
+  private Profile anotherProfile;
+
+  @BeforeEach
+  void init() {
+    this.mockMvc =
+        MockMvcBuilders.webAppContextSetup(applicationContext)
+            .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+            .build();
+    testUtils.createUserIfNotExists(TestUtils.USERNAME, testUtils.getProfile());
+    testUtils.createUserIfNotExists(TestUtils.ANOTHER_USERNAME, testUtils.getAnotherProfile());
+    testUtils.createProfileIfNotExists(testUtils.getProfile());
+    testUtils.deleteProfileIfExistsById(testUtils.getAnotherProfile());
+    testUtils.createProfileIfNotExists(testUtils.getAnotherProfile());
+    profile = testUtils.getProfile();
+    anotherProfile = testUtils.getAnotherProfile();
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifySendingToMatchedProfileReturnCreated() throws Exception {
+    testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    mockMvc
+        .perform(
+            post("/api/v1/disappearingMessages")
+                .content("{\"receiverId\": " + anotherProfile.getId() + ", \"content\": \"hi\"}")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andDo(print())
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.senderId").value(profile.getId()))
+        .andExpect(jsonPath("$.receiverId").value(anotherProfile.getId()))
+        .andExpect(jsonPath("$.status").value("SENT"))
+        .andExpect(jsonPath("$.seenAt").isEmpty())
+        .andExpect(
+            jsonPath("$._links.conversation.href")
+                .value("http://localhost/api/v1/disappearingMessages/" + anotherProfile.getId()))
+        .andExpect(
+            jsonPath("$._links.read.href")
+                .value(
+                    "http://localhost/api/v1/disappearingMessages/read/"
+                        + anotherProfile.getId()));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifySendingToNotMatchedProfileReturnUnprocessableEntity() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/disappearingMessages")
+                .content("{\"receiverId\": " + anotherProfile.getId() + ", \"content\": \"hi\"}")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andDo(print())
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.errors[0]").value("Profile not matched with the given profile"));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyReplyingToMessageOfAnotherConversationReturnUnprocessableEntity() throws Exception {
+    Profile anotherProfile2 = testUtils.getAnotherProfile2();
+    testUtils.createUserIfNotExists(TestUtils.ANOTHER_USERNAME_2, anotherProfile2);
+    testUtils.createProfileIfNotExists(anotherProfile2);
+    testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    DisappearingMessage parent = new DisappearingMessage();
+    parent.setSenderId(anotherProfile2.getId());
+    parent.setReceiverId(anotherProfile.getId());
+    parent.setContent("content");
+    parent.setStatus(MessageStatus.SENT);
+    parent.setSentAt(LocalDateTime.now());
+    parent = disappearingMessageRepository.save(parent);
+    mockMvc
+        .perform(
+            post("/api/v1/disappearingMessages")
+                .content(
+                    "{\"receiverId\": "
+                        + anotherProfile.getId()
+                        + ", \"content\": \"hi\", \"parentMessageId\": "
+                        + parent.getId()
+                        + "}")
+                .contentType(MediaType.APPLICATION_JSON))
+        .andDo(print())
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.errors[0]").value("Parent message not exists"));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyReadMessageIsDeletedOnceExpired() throws Exception {
+    testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    DisappearingMessage message = new DisappearingMessage();
+    message.setSenderId(anotherProfile.getId());
+    message.setReceiverId(profile.getId());
+    message.setContent("content");
+    message.setStatus(MessageStatus.SENT);
+    message.setSentAt(LocalDateTime.now());
+    message = disappearingMessageRepository.save(message);
+    mockMvc
+        .perform(get("/api/v1/disappearingMessages/{profileId}", anotherProfile.getId()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$._embedded.disappearingMessageList", hasSize(1)))
+        .andExpect(
+            jsonPath("$._embedded.disappearingMessageList[0]._links.conversation.href")
+                .value("http://localhost/api/v1/disappearingMessages/" + anotherProfile.getId()));
+    mockMvc
+        .perform(put("/api/v1/disappearingMessages/read/{profileId}", anotherProfile.getId()))
+        .andExpect(status().isNoContent());
+    Thread.sleep(300);
+    disappearingMessageExpiry.expireDue();
+    assertFalse(disappearingMessageRepository.existsById(message.getId()));
+    mockMvc
+        .perform(get("/api/v1/disappearingMessages/{profileId}", anotherProfile.getId()))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$._embedded").doesNotExist());
+  }
+}
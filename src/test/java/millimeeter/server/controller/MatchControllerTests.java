@@ -2,12 +2,15 @@ package millimeeter.server.controller;
 
 import millimeeter.server.model.Match;
 import millimeeter.server.model.Profile;
+import millimeeter.server.repository.MatchListRepository;
 import millimeeter.server.service.TestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -16,25 +19,33 @@ import org.springframework.web.context.WebApplicationContext;
 import java.nio.charset.StandardCharsets;
 
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@SpyBean(MatchListRepository.class)
 class MatchControllerTests {
 
   private final TestUtils testUtils;
+  private final MatchListRepository matchListRepository;
   private final WebApplicationContext applicationContext;
   private MockMvc mockMvc;
 
   @Autowired
   public MatchControllerTests(
       TestUtils testUtils,
+      MatchListRepository matchListRepository,
       WebApplicationContext applicationContext) {
     this.testUtils = testUtils;
+    this.matchListRepository = matchListRepository;
     this.applicationContext = applicationContext;
   }
 
@@ -92,6 +103,35 @@ class MatchControllerTests {
                 matchesRegex("http://localhost/api/v1/matches/\\d+")));
   }
 
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyFullPageOfMatchesReturnNextLink() throws Exception {
+    Match match = testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    mockMvc
+        .perform(get("/api/v1/matches").param("limit", "1"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$._embedded.matchDtoList", hasSize(1)))
+        .andExpect(
+            jsonPath("$._links.next.href")
+                .value("http://localhost/api/v1/matches?before=" + match.getId() + "&limit=1"));
+    mockMvc
+        .perform(get("/api/v1/matches").param("before", match.getId().toString()))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$").isEmpty());
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyInvalidLimitReturnUnprocessableEntity() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/matches").param("limit", "101"))
+        .andDo(print())
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.errors[0]").value("The limit must be between 1 and 100"));
+  }
+
   @Test
   @WithMockUser(username = USERNAME)
   void verifyValidRequestReturnOkNoMatchesWithMessages() throws Exception {
@@ -103,6 +143,20 @@ class MatchControllerTests {
         .andExpect(jsonPath("$").isEmpty());
   }
 
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyTimeoutBeforeFirstMatchWithMessagesReturnServiceUnavailable() throws Exception {
+    testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    doThrow(new QueryTimeoutException("Timed out"))
+        .when(matchListRepository)
+        .findMatchesWithMessages(any(), any(), anyInt());
+    mockMvc
+        .perform(get("/api/v1/conversations"))
+        .andDo(print())
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.errors[0]").value("The request timed out, try again later"));
+  }
+
   @Test
   @WithMockUser(username = USERNAME)
   void verifyValidRequestReturnOkOneMatchWithMessages() throws Exception {
@@ -123,6 +177,7 @@ class MatchControllerTests {
             jsonPath("$._embedded.matchWithMessagesDtoList[0].lastMessageContent").value("content"))
         .andExpect(
             jsonPath("$._embedded.matchWithMessagesDtoList[0].lastMessageStatus").value("SENT"))
+        .andExpect(jsonPath("$._embedded.matchWithMessagesDtoList[0].unreadCount").value(0))
         .andExpect(
             jsonPath(
                 "$._embedded.matchWithMessagesDtoList[0]._links.conversation.href",
@@ -133,6 +188,35 @@ class MatchControllerTests {
                 matchesRegex("http://localhost/api/v1/matches/\\d+")));
   }
 
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyValidRequestReturnOkUnreadMessagesCountAndLastMessage() throws Exception {
+    Match match = testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    testUtils.addMessage(match.getId(), profile.getId(), "first");
+    testUtils.addMessage(match.getId(), anotherProfile.getId(), "second");
+    testUtils.addMessage(match.getId(), anotherProfile.getId(), "third");
+    mockMvc
+        .perform(get("/api/v1/conversations"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(
+            jsonPath("$._embedded.matchWithMessagesDtoList[0].senderId")
+                .value(anotherProfile.getId()))
+        .andExpect(
+            jsonPath("$._embedded.matchWithMessagesDtoList[0].lastMessageContent").value("third"))
+        .andExpect(jsonPath("$._embedded.matchWithMessagesDtoList[0].unreadCount").value(2));
+    mockMvc
+        .perform(put("/api/v1/messages/read/{matchId}", match.getId()))
+        .andExpect(status().isNoContent());
+    mockMvc
+        .perform(get("/api/v1/conversations"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(
+            jsonPath("$._embedded.matchWithMessagesDtoList[0].lastMessageStatus").value("SEEN"))
+        .andExpect(jsonPath("$._embedded.matchWithMessagesDtoList[0].unreadCount").value(0));
+  }
+
   @Test
   @WithMockUser(username = USERNAME)
   void verifyValidRequestDeleteMatchAndReturnNoContent() throws Exception {
@@ -208,6 +208,52 @@ class MessageControllerTests {
         .andExpect(jsonPath("$").isEmpty());
   }
 
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyFindMessagesFromMatchWithLimitReturnOkWithNextPage() throws Exception {
+    Match match = testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    Message first = testUtils.addMessage(match.getId(), profile.getId(), "first");
+    Message second = testUtils.addMessage(match.getId(), anotherProfile.getId(), "second");
+    Message third = testUtils.addMessage(match.getId(), profile.getId(), "third");
+    mockMvc
+        .perform(get("/api/v1/conversations/{id}?limit=2", match.getId()))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("_embedded.messageDtoList.length()").value(2))
+        .andExpect(jsonPath("_embedded.messageDtoList[0].id").value(third.getId()))
+        .andExpect(jsonPath("_embedded.messageDtoList[1].id").value(second.getId()))
+        .andExpect(
+            jsonPath("_links.next.href")
+                .value(
+                    "http://localhost/api/v1/conversations/"
+                        + match.getId()
+                        + "?before="
+                        + second.getId()
+                        + "&limit=2"));
+    mockMvc
+        .perform(
+            get("/api/v1/conversations/{id}?before={before}&limit=2", match.getId(), second.getId()))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("_embedded.messageDtoList.length()").value(1))
+        .andExpect(jsonPath("_embedded.messageDtoList[0].id").value(first.getId()))
+        .andExpect(jsonPath("_links.next").doesNotExist());
+    mockMvc
+        .perform(
+            get("/api/v1/conversations/{id}?after={after}&limit=1", match.getId(), first.getId()))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("_embedded.messageDtoList[0].id").value(second.getId()))
+        .andExpect(
+            jsonPath("_links.next.href")
+                .value(
+                    "http://localhost/api/v1/conversations/"
+                        + match.getId()
+                        + "?after="
+                        + second.getId()
+                        + "&limit=1"));
+  }
+
   @Test
   @WithMockUser(username = USERNAME)
   void verifyValidFindMessagesFromMatchReturnOkWithMessages() throws Exception {
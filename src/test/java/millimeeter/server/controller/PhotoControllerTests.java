@@ -0,0 +1,160 @@
+package millimeeter.server.controller;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import millimeeter.server.service.TestUtils;
+import millimeeter.server.service.photo.PhotoStore;
+import millimeeter.server.service.photo.PhotoVariant;
+import millimeeter.server.service.photo.PhotoVariantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PhotoControllerTests {
+
+  private final TestUtils testUtils;
+  private final PhotoStore photoStore;
+  private final WebApplicationContext applicationContext;
+  private MockMvc mockMvc;
+  @SpyBean private PhotoVariantService photoVariantService;
+
+  @Autowired
+  public PhotoControllerTests(
+      TestUtils testUtils, PhotoStore photoStore, WebApplicationContext applicationContext) {
+    this.testUtils = testUtils;
+    this.photoStore = photoStore;
+    this.applicationContext = applicationContext;
+  }
+
+  static final String USERNAME = TestUtils.USERNAME;
+  private byte[] photo;
+  private String name;
+
+  @BeforeEach
+  void init() throws Exception {
+    this.mockMvc =
+        MockMvcBuilders.webAppContextSetup(applicationContext)
+            .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+            .build();
+    photo = testUtils.getPhoto().getBytes();
+    name = photoStore.save(new ByteArrayInputStream(photo));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyGettingPhotoReturnOkWithCacheHeaders() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/photos/{name}", name))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+        .andExpect(content().bytes(photo))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + name + "\""))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, PhotoController.CACHE_CONTROL))
+        .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyGettingPhotoWithMatchingEtagReturnNotModified() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/photos/{name}", name)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + name + "\""))
+        .andDo(print())
+        .andExpect(status().isNotModified())
+        .andExpect(content().bytes(new byte[0]));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyGettingPhotoRangeReturnPartialContent() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/photos/{name}", name).header(HttpHeaders.RANGE, "bytes=10-19"))
+        .andDo(print())
+        .andExpect(status().isPartialContent())
+        .andExpect(content().bytes(Arrays.copyOfRange(photo, 10, 20)))
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + photo.length));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyGettingPhotoRangeWithStaleIfRangeReturnWholePhoto() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/photos/{name}", name)
+                .header(HttpHeaders.RANGE, "bytes=10-19")
+                .header(HttpHeaders.IF_RANGE, "\"another.jpg\""))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(content().bytes(photo));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyGettingPhotoRangeOutsidePhotoReturnRangeNotSatisfiable() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/v1/photos/{name}", name)
+                .header(HttpHeaders.RANGE, "bytes=" + photo.length + "-"))
+        .andDo(print())
+        .andExpect(status().isRequestedRangeNotSatisfiable())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + photo.length));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyGettingNotGeneratedVariantReturnOriginalToRevalidate() throws Exception {
+    // NOT A DECODABLE PHOTO, SO THE VARIANT IS NEVER GENERATED
+    photo = ("variant" + System.nanoTime()).getBytes();
+    name = photoStore.save(new ByteArrayInputStream(photo));
+    String variantName = PhotoVariant.AVATAR.nameFor(name);
+    mockMvc
+        .perform(get("/api/v1/photos/{name}", variantName))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(content().bytes(photo))
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + name + "\""))
+        .andExpect(
+            header().string(HttpHeaders.CACHE_CONTROL, PhotoController.FALLBACK_CACHE_CONTROL));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyGettingVariantOfNotExistingPhotoReturnNotFound() throws Exception {
+    String variantName = PhotoVariant.AVATAR.nameFor("f".repeat(64) + ".jpg");
+    mockMvc
+        .perform(get("/api/v1/photos/{name}", variantName))
+        .andDo(print())
+        .andExpect(status().isNotFound());
+    verify(photoVariantService, never()).generateVariants(any());
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyGettingNotExistingPhotoReturnNotFound() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/photos/{name}", "notExisting.jpg"))
+        .andDo(print())
+        .andExpect(status().isNotFound());
+  }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -17,6 +18,7 @@ import org.springframework.web.context.WebApplicationContext;
 import java.nio.charset.StandardCharsets;
 
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.matchesRegex;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -111,6 +113,7 @@ class SwipeControllerTests {
   @WithMockUser(username = USERNAME)
   @ValueSource(strings = {"LEFT", "RIGHT"})
   void verifySwipingAlreadySwipedProfileReturnConflict(String direction) throws Exception {
+    testUtils.deleteProfileIfExistsById(anotherProfile);
     testUtils.createProfileIfNotExists(anotherProfile);
     testUtils.addSwipe(profile.getId(), anotherProfile.getId(), direction);
     mockMvc
@@ -157,4 +160,65 @@ class SwipeControllerTests {
             jsonPath("$._links.['swipes left amount'].href")
                 .value("http://localhost/api/v1/profiles/swipesLeft"));
   }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifySwipeBatchReturnOkResultPerSwipe() throws Exception {
+    testUtils.deleteProfileIfExistsById(anotherProfile);
+    testUtils.createProfileIfNotExists(anotherProfile);
+    testUtils.addSwipe(anotherProfile.getId(), profile.getId(), "RIGHT");
+    String body =
+        "{\"swipes\": ["
+            + "{\"id\": " + anotherProfile.getId() + ", \"direction\": \"RIGHT\","
+            + " \"clientTimestamp\": \"2023-01-01T12:00:00\"},"
+            + "{\"id\": " + anotherProfile.getId() + ", \"direction\": \"LEFT\"},"
+            + "{\"id\": " + profile.getId() + ", \"direction\": \"LEFT\"},"
+            + "{\"id\": " + Long.MAX_VALUE + ", \"direction\": \"LEFT\"}]}";
+    mockMvc
+        .perform(
+            post("/api/v1/swipes/batch").content(body).contentType(MediaType.APPLICATION_JSON))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$._embedded.swipeResultDtoList", hasSize(4)))
+        .andExpect(jsonPath("$._embedded.swipeResultDtoList[0].id").value(anotherProfile.getId()))
+        .andExpect(jsonPath("$._embedded.swipeResultDtoList[0].result").value("MATCHED"))
+        .andExpect(
+            jsonPath("$._embedded.swipeResultDtoList[0].swipe.senderId").value(profile.getId()))
+        .andExpect(
+            jsonPath("$._embedded.swipeResultDtoList[0].swipe.swipedAt")
+                .value("2023-01-01T12:00:00"))
+        .andExpect(jsonPath("$._embedded.swipeResultDtoList[0].match.id").value(greaterThan(0)))
+        .andExpect(
+            jsonPath(
+                "$._embedded.swipeResultDtoList[0]._links.conversation.href",
+                matchesRegex("http://localhost/api/v1/conversations/\\d+")))
+        .andExpect(jsonPath("$._embedded.swipeResultDtoList[1].result").value("DUPLICATE"))
+        .andExpect(jsonPath("$._embedded.swipeResultDtoList[1].swipe").isEmpty())
+        .andExpect(
+            jsonPath("$._embedded.swipeResultDtoList[1]._links.['swipes left amount'].href")
+                .value("http://localhost/api/v1/profiles/swipesLeft"))
+        .andExpect(jsonPath("$._embedded.swipeResultDtoList[2].result").value("SELF"))
+        .andExpect(jsonPath("$._embedded.swipeResultDtoList[3].result").value("NOT_FOUND"));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifySwipeBatchOfMoreThan50ReturnUnprocessableEntity() throws Exception {
+    StringBuilder body = new StringBuilder("{\"swipes\": [");
+    for (int i = 1; i <= 51; i++) {
+      body.append(i > 1 ? "," : "")
+          .append("{\"id\": ")
+          .append(i)
+          .append(", \"direction\": \"LEFT\"}");
+    }
+    body.append("]}");
+    mockMvc
+        .perform(
+            post("/api/v1/swipes/batch")
+                .content(body.toString())
+                .contentType(MediaType.APPLICATION_JSON))
+        .andDo(print())
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.errors[0]").value("At most 50 swipes can be sent at once"));
+  }
 }
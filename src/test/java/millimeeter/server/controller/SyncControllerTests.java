@@ -0,0 +1,152 @@
+package millimeeter.server.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import millimeeter.server.model.Match;
+import millimeeter.server.model.Message;
+import millimeeter.server.model.Profile;
+import millimeeter.server.service.ChangeRetention;
+import millimeeter.server.service.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SyncControllerTests {
+
+  private final TestUtils testUtils;
+  private final ChangeRetention changeRetention;
+  private final WebApplicationContext applicationContext;
+  private MockMvc mockMvc;
+
+  @Autowired
+  public SyncControllerTests(
+      TestUtils testUtils,
+      ChangeRetention changeRetention,
+      WebApplicationContext applicationContext) {
+    this.testUtils = testUtils;
+    this.changeRetention = changeRetention;
+    this.applicationContext = applicationContext;
+  }
+
+  static final String USERNAME = TestUtils.USERNAME;
+  private Profile profile;
+  private Profile anotherProfile;
+
+  @BeforeEach
+  void init() {
+    this.mockMvc =
+        MockMvcBuilders.webAppContextSetup(applicationContext)
+            .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+            .build();
+    testUtils.createUserIfNotExists(TestUtils.USERNAME, testUtils.getProfile());
+    testUtils.createUserIfNotExists(TestUtils.ANOTHER_USERNAME, testUtils.getAnotherProfile());
+    testUtils.createProfileIfNotExists(testUtils.getProfile());
+    testUtils.deleteProfileIfExistsById(testUtils.getAnotherProfile());
+    testUtils.createProfileIfNotExists(testUtils.getAnotherProfile());
+    profile = testUtils.getProfile();
+    anotherProfile = testUtils.getAnotherProfile();
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifySyncWithoutTokenReturnOkCurrentTokenOnly() throws Exception {
+    mockMvc
+        .perform(get("/api/v1/sync"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.token", greaterThanOrEqualTo(0)))
+        .andExpect(jsonPath("$.hasMore").value(false))
+        .andExpect(jsonPath("$.changes", hasSize(0)))
+        .andExpect(
+            jsonPath("$._links.next.href", matchesRegex("http://localhost/api/v1/sync\\?since=\\d+")));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifySyncWithTokenReturnOkChangesAfterToken() throws Exception {
+    long token = currentToken();
+    Match match = testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    Message message = testUtils.addMessage(match.getId(), anotherProfile.getId(), "content");
+    mockMvc
+        .perform(put("/api/v1/messages/{id}/{reaction}", message.getId(), "LIKE"))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/v1/sync?since={since}", token))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.token").value(greaterThan((int) token)))
+        .andExpect(jsonPath("$.hasMore").value(false))
+        .andExpect(jsonPath("$.changes", hasSize(2)))
+        .andExpect(jsonPath("$.changes[0].type").value("MATCH_CREATED"))
+        .andExpect(jsonPath("$.changes[0].match.id").value(match.getId()))
+        .andExpect(jsonPath("$.changes[0].match.profileId").value(anotherProfile.getId()))
+        .andExpect(jsonPath("$.changes[1].type").value("MESSAGE_UPDATED"))
+        .andExpect(jsonPath("$.changes[1].message.id").value(message.getId()))
+        .andExpect(jsonPath("$.changes[1].message.receiverReaction").value("LIKE"));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifySyncAfterReadingConversationReturnOkReadReceipt() throws Exception {
+    Match match = testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    Message message = testUtils.addMessage(match.getId(), anotherProfile.getId(), "content");
+    long token = currentToken();
+    mockMvc
+        .perform(put("/api/v1/messages/read/{matchId}", match.getId()))
+        .andExpect(status().isNoContent());
+    mockMvc
+        .perform(get("/api/v1/sync?since={since}", token))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.changes", hasSize(1)))
+        .andExpect(jsonPath("$.changes[0].type").value("MESSAGES_READ"))
+        .andExpect(jsonPath("$.changes[0].matchId").value(match.getId()))
+        .andExpect(jsonPath("$.changes[0].messageId").value(message.getId()));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifySyncWithTokenOlderThanRetainedChangesReturnGone() throws Exception {
+    long token = currentToken();
+    testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    long tokenAfterMatch = currentToken();
+    changeRetention.deleteChangesCreatedBefore(LocalDateTime.now().plusMinutes(1));
+    mockMvc
+        .perform(get("/api/v1/sync?since={since}", token))
+        .andDo(print())
+        .andExpect(status().isGone());
+    mockMvc
+        .perform(get("/api/v1/sync?since={since}", tokenAfterMatch))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.changes", hasSize(0)));
+  }
+
+  long currentToken() throws Exception {
+    String response =
+        mockMvc
+            .perform(get("/api/v1/sync"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return ((Number) JsonPath.read(response, "$.token")).longValue();
+  }
+}
@@ -0,0 +1,119 @@
+package millimeeter.server.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import millimeeter.server.BenchmarkApplication;
+import millimeeter.server.enums.MessageStatus;
+import millimeeter.server.model.Match;
+import millimeeter.server.model.Message;
+import millimeeter.server.model.Profile;
+import millimeeter.server.model.Swipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/*
+    BULK INSERTS OF ROWS_PER_OPERATION SWIPES OR MESSAGES IN ONE TRANSACTION, NEEDS THE DATABASE,
+    SEE BenchmarkApplication. EVERY TRANSACTION IS ROLLED BACK AFTER ITS INSERTS ARE FLUSHED, SO
+    EVERY OPERATION INSERTS THE SAME ROWS AND NOTHING IS LEFT BEHIND
+
+    WITH A batchSize OF 1 EVERY ROW IS ITS OWN INSERT STATEMENT, LIKE WITH THE IDENTITY IDS USED
+    BEFORE, WHICH DISABLED BATCHING. WITH 50, THE BATCH SIZE OF application.properties, THE IDS
+    COME FROM THE POOLED SEQUENCES AND THE ROWS ARE SENT IN BATCHES
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+  static final int ROWS_PER_OPERATION = 100;
+
+  @Param({"1", "50"})
+  public int batchSize;
+
+  private ConfigurableApplicationContext context;
+  private ProfileRepository profileRepository;
+  private SwipeRepository swipeRepository;
+  private MessageRepository messageRepository;
+  private TransactionTemplate transactionTemplate;
+  private List<Profile> profiles;
+  private Match match;
+
+  @Setup
+  public void setUp() {
+    context =
+        BenchmarkApplication.start("spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+    profileRepository = context.getBean(ProfileRepository.class);
+    swipeRepository = context.getBean(SwipeRepository.class);
+    messageRepository = context.getBean(MessageRepository.class);
+    transactionTemplate =
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    profiles = BenchmarkApplication.createProfiles(profileRepository, ROWS_PER_OPERATION + 1);
+    match =
+        context
+            .getBean(MatchRepository.class)
+            .save(new Match(profiles.get(0).getId(), profiles.get(1).getId()));
+  }
+
+  @TearDown
+  public void tearDown() {
+    BenchmarkApplication.deleteProfiles(profileRepository, profiles);
+    context.close();
+  }
+
+  @Benchmark
+  public void swipes() {
+    Long senderId = profiles.get(0).getId();
+    List<Swipe> swipes = new ArrayList<>(ROWS_PER_OPERATION);
+    for (Profile receiver : profiles.subList(1, profiles.size())) {
+      swipes.add(new Swipe(senderId, receiver.getId(), "RIGHT"));
+    }
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          swipeRepository.saveAllAndFlush(swipes);
+          status.setRollbackOnly();
+        });
+  }
+
+  @Benchmark
+  public void messages() {
+    LocalDateTime sentAt = LocalDateTime.now();
+    List<Message> messages = new ArrayList<>(ROWS_PER_OPERATION);
+    for (int i = 0; i < ROWS_PER_OPERATION; i++) {
+      messages.add(
+          new Message(
+              null,
+              match.getProfileId1(),
+              match.getId(),
+              "See you at eight then",
+              null,
+              null,
+              null,
+              MessageStatus.SENT,
+              sentAt,
+              null));
+    }
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          messageRepository.saveAllAndFlush(messages);
+          status.setRollbackOnly();
+        });
+  }
+}
@@ -0,0 +1,169 @@
+package millimeeter.server.repository;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Tuple;
+import millimeeter.server.BenchmarkApplication;
+import millimeeter.server.dto.MatchDto;
+import millimeeter.server.dto.ProfileToSwipeDto;
+import millimeeter.server.enums.Gender;
+import millimeeter.server.model.Match;
+import millimeeter.server.model.Profile;
+import millimeeter.server.service.photo.PhotoVariant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/*
+    A LIST OF 500 MATCHES AND A SWIPE DECK OF 50 PROFILES READ WITH THE ROW MAPPERS OF
+    MatchListRepository AND ProfileToSwipeRepository AND, AS BEFORE, AS javax.persistence.Tuple
+    MAPPED BY COLUMN NAME WITH THE PHOTOS JOINED INTO ONE STRING, NEEDS THE DATABASE, SEE
+    BenchmarkApplication
+
+    MEANT TO BE RUN WITH -prof gc, gc.alloc.rate.norm DIVIDED BY THE ROWS, 500 OR 50, IS THE
+    GARBAGE PER ROW. BOTH WAYS INCLUDE WHAT THE DRIVER ALLOCATES, THE DIFFERENCE IS THE MAPPING
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMapperBenchmark {
+
+  static final int MATCHES = 500;
+  static final LocalDate DATE_OF_BIRTH_RANGE_START = LocalDate.of(1980, 1, 1);
+  static final LocalDate DATE_OF_BIRTH_RANGE_END = LocalDate.of(2005, 12, 31);
+  static final int SEARCH_DISTANCE = 100;
+
+  // THE QUERIES AS THEY WERE BEFORE THE ROW MAPPERS
+  static final String FIND_MATCHES_AS_TUPLES =
+      "SELECT matches.id AS match_id, profiles.id AS profile_id, profiles.first_name,"
+          + " ARRAY_TO_STRING(profiles.photos, ';', '*') AS photos, matches.matched_at FROM"
+          + " matches JOIN profiles ON (profiles.id = matches.profile_id_1 OR profiles.id ="
+          + " matches.profile_id_2) WHERE matches.id NOT IN (SELECT match_id FROM"
+          + " public.messages) AND profiles.id != ?1 AND (matches.profile_id_1 = ?1 OR"
+          + " matches.profile_id_2 = ?1) ORDER BY matches.matched_at DESC";
+
+  static final String FIND_PROFILES_BY_GENDER_TO_SWIPE_AS_TUPLES =
+      "SELECT id, first_name, EXTRACT(YEAR FROM AGE(CURRENT_DATE, date_of_birth)) AS age,"
+          + " gender, ARRAY_TO_STRING(photos, ';', '*') AS photos, description, my_song,"
+          + " point(?5, ?6)<@>point(last_longitude, last_latitude) AS distance FROM profiles"
+          + " WHERE id != ?2 AND gender = CAST(?1 AS gender) AND NOT EXISTS (SELECT 1 FROM"
+          + " swipes WHERE receiver_id = profiles.id AND sender_id = ?2) AND date_of_birth"
+          + " BETWEEN ?3 AND ?4 AND point(?5, ?6)<@>point(last_longitude, last_latitude) < ?7"
+          + " ORDER BY random() LIMIT 50";
+
+  private ConfigurableApplicationContext context;
+  private ProfileRepository profileRepository;
+  private MatchListRepository matchListRepository;
+  private ProfileToSwipeRepository profileToSwipeRepository;
+  private EntityManager entityManager;
+  private List<Profile> profiles;
+  private Long profileId;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start();
+    profileRepository = context.getBean(ProfileRepository.class);
+    matchListRepository = context.getBean(MatchListRepository.class);
+    profileToSwipeRepository = context.getBean(ProfileToSwipeRepository.class);
+    entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+    profiles = BenchmarkApplication.createProfiles(profileRepository, MATCHES + 1);
+    profileId = profiles.get(0).getId();
+    List<Match> matches = new ArrayList<>();
+    for (Profile profile : profiles.subList(1, profiles.size())) {
+      matches.add(new Match(profileId, profile.getId()));
+    }
+    context.getBean(MatchRepository.class).saveAll(matches);
+  }
+
+  @TearDown
+  public void tearDown() {
+    entityManager.close();
+    BenchmarkApplication.deleteProfiles(profileRepository, profiles);
+    context.close();
+  }
+
+  @Benchmark
+  public List<MatchDto> matchesWithRowMapper() {
+    return matchListRepository.findMatchesWithoutMessages(profileId, null, MATCHES);
+  }
+
+  @Benchmark
+  public List<MatchDto> matchesWithTuples() {
+    List<Tuple> tuples =
+        entityManager
+            .createNativeQuery(FIND_MATCHES_AS_TUPLES, Tuple.class)
+            .setParameter(1, profileId)
+            .getResultList();
+    List<MatchDto> matches = new ArrayList<>(tuples.size());
+    for (Tuple t : tuples) {
+      matches.add(
+          new MatchDto(
+              t.get("match_id", BigInteger.class).longValue(),
+              t.get("profile_id", BigInteger.class).longValue(),
+              t.get("first_name", String.class),
+              PhotoVariant.AVATAR.namesFor(t.get("photos", String.class).split(";")),
+              t.get("matched_at", Timestamp.class).toLocalDateTime()));
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public List<ProfileToSwipeDto> deckWithRowMapper() {
+    return profileToSwipeRepository.findProfilesToSwipe(
+        Gender.WOMAN,
+        profileId,
+        DATE_OF_BIRTH_RANGE_START,
+        DATE_OF_BIRTH_RANGE_END,
+        BenchmarkApplication.LONGITUDE,
+        BenchmarkApplication.LATITUDE,
+        SEARCH_DISTANCE);
+  }
+
+  @Benchmark
+  public List<ProfileToSwipeDto> deckWithTuples() {
+    List<Tuple> tuples =
+        entityManager
+            .createNativeQuery(FIND_PROFILES_BY_GENDER_TO_SWIPE_AS_TUPLES, Tuple.class)
+            .setParameter(1, Gender.WOMAN.toString())
+            .setParameter(2, profileId)
+            .setParameter(3, DATE_OF_BIRTH_RANGE_START)
+            .setParameter(4, DATE_OF_BIRTH_RANGE_END)
+            .setParameter(5, BenchmarkApplication.LONGITUDE)
+            .setParameter(6, BenchmarkApplication.LATITUDE)
+            .setParameter(7, SEARCH_DISTANCE)
+            .getResultList();
+    List<ProfileToSwipeDto> deck = new ArrayList<>(tuples.size());
+    for (Tuple t : tuples) {
+      deck.add(
+          new ProfileToSwipeDto(
+              t.get("id", BigInteger.class).longValue(),
+              t.get("first_name", String.class),
+              t.get("age", BigDecimal.class).intValue(),
+              Gender.valueOf(t.get("gender", String.class)),
+              PhotoVariant.CARD.namesFor(t.get("photos", String.class).split(";")),
+              t.get("description", String.class),
+              t.get("my_song", String.class),
+              t.get("distance", Double.class).intValue()));
+    }
+    return deck;
+  }
+}
@@ -0,0 +1,178 @@
+package millimeeter.server.service;
+
+import millimeeter.server.model.Match;
+import millimeeter.server.model.Message;
+import millimeeter.server.model.Profile;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(
+    properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "millimeeter.server.service.AuthUtilsTests$StatementRecorder")
+class AuthUtilsTests {
+
+  private static final Pattern USERS_QUERY = Pattern.compile("(?is).*\\bfrom users\\b.*");
+  private static final Pattern USER_LOOKUP =
+      Pattern.compile("(?is).* from users user0_ where user0_\\.id=\\?.*");
+  // USER OF THE OTHER PARTICIPANT, WHOM MESSAGE EVENTS ARE SENT TO
+  private static final Pattern RECIPIENT_LOOKUP =
+      Pattern.compile("(?is).* from users user0_ where user0_\\.profile_id=\\?.*");
+  private static final Pattern PROFILE_LOOKUP =
+      Pattern.compile("(?is)select .* from profiles profile0_ where profile0_\\.id=\\?.*");
+  private static final Pattern MATCH_LOOKUP =
+      Pattern.compile("(?is)select .* from matches match0_ where match0_\\.id=\\?.*");
+
+  private final TestUtils testUtils;
+  private final WebApplicationContext applicationContext;
+  private MockMvc mockMvc;
+
+  @Autowired
+  public AuthUtilsTests(TestUtils testUtils, WebApplicationContext applicationContext) {
+    this.testUtils = testUtils;
+    this.applicationContext = applicationContext;
+  }
+
+  static final String USERNAME = TestUtils.USERNAME;
+  private Profile profile;
+  private Profile anotherProfile;
+
+  @BeforeEach
+  void init() {
+    this.mockMvc =
+        MockMvcBuilders.webAppContextSetup(applicationContext)
+            .defaultResponseCharacterEncoding(StandardCharsets.UTF_8)
+            .build();
+    testUtils.createUserIfNotExists(TestUtils.USERNAME, testUtils.getProfile());
+    testUtils.createUserIfNotExists(TestUtils.ANOTHER_USERNAME, testUtils.getAnotherProfile());
+    testUtils.createProfileIfNotExists(testUtils.getProfile());
+    testUtils.deleteProfileIfExistsById(testUtils.getAnotherProfile());
+    testUtils.createProfileIfNotExists(testUtils.getAnotherProfile());
+    profile = testUtils.getProfile();
+    anotherProfile = testUtils.getAnotherProfile();
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifySendingMessageResolvesIdentityOnce() throws Exception {
+    Match match = testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    assertIdentityResolvedOnce(
+        post("/api/v1/messages")
+            .content("{\"matchId\": " + match.getId() + ", \"content\": \"content\"}")
+            .contentType(MediaType.APPLICATION_JSON_VALUE));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifySendingMessagesLooksUpRecipientOnce() throws Exception {
+    Match match = testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    RequestBuilder request =
+        post("/api/v1/messages")
+            .content("{\"matchId\": " + match.getId() + ", \"content\": \"content\"}")
+            .contentType(MediaType.APPLICATION_JSON_VALUE);
+    List<String> statements =
+        StatementRecorder.record(
+            () -> {
+              mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+              mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+            });
+    assertTrue(
+        count(statements, RECIPIENT_LOOKUP) <= 1, () -> "Recipient not cached: " + statements);
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyReadingConversationResolvesIdentityOnce() throws Exception {
+    Match match = testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    testUtils.addMessage(match.getId(), anotherProfile.getId(), "content");
+    assertIdentityResolvedOnce(get("/api/v1/conversations/" + match.getId()));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyReactingToMessageResolvesIdentityOnce() throws Exception {
+    Match match = testUtils.addMatch(profile.getId(), anotherProfile.getId());
+    Message message = testUtils.addMessage(match.getId(), anotherProfile.getId(), "content");
+    assertIdentityResolvedOnce(put("/api/v1/messages/" + message.getId() + "/LIKE"));
+  }
+
+  @Test
+  @WithMockUser(username = USERNAME)
+  void verifyGettingMyProfileResolvesIdentityOnce() throws Exception {
+    assertIdentityResolvedOnce(get("/api/v1/profiles/me"));
+  }
+
+  void assertIdentityResolvedOnce(RequestBuilder request) throws Exception {
+    List<String> statements =
+        StatementRecorder.record(
+            () -> mockMvc.perform(request).andExpect(status().is2xxSuccessful()));
+    assertEquals(
+        count(statements, USERS_QUERY),
+        count(statements, USER_LOOKUP) + count(statements, RECIPIENT_LOOKUP),
+        () -> "Users queried unexpectedly: " + statements);
+    assertTrue(
+        count(statements, RECIPIENT_LOOKUP) <= 1,
+        () -> "Recipient queried more than once: " + statements);
+    assertTrue(
+        count(statements, USER_LOOKUP) <= 1, () -> "Users queried more than once: " + statements);
+    assertTrue(
+        count(statements, PROFILE_LOOKUP) <= 1,
+        () -> "Profile loaded more than once: " + statements);
+    assertTrue(
+        count(statements, MATCH_LOOKUP) <= 1, () -> "Match loaded more than once: " + statements);
+  }
+
+  static long count(List<String> statements, Pattern pattern) {
+    return statements.stream().filter(sql -> pattern.matcher(sql).matches()).count();
+  }
+
+  interface Action {
+    void run() throws Exception;
+  }
+
+  // RECORDS STATEMENTS PREPARED BY THE CALLING THREAD ONLY, BACKGROUND WORK IS IGNORED
+  public static class StatementRecorder implements StatementInspector {
+
+    private static volatile Thread recordingThread;
+    private static final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    static List<String> record(Action action) throws Exception {
+      statements.clear();
+      recordingThread = Thread.currentThread();
+      try {
+        action.run();
+      } finally {
+        recordingThread = null;
+      }
+      return new ArrayList<>(statements);
+    }
+
+    @Override
+    public String inspect(String sql) {
+      if (Thread.currentThread() == recordingThread) {
+        statements.add(sql);
+      }
+      return sql;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package millimeeter.server.service;
+
+import millimeeter.server.dto.MessageEventDto;
+import millimeeter.server.enums.MessageEventType;
+import millimeeter.server.model.Match;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MessageEventPublisherTests {
+
+  static final Long PROFILE_ID = 1L;
+  static final Long ANOTHER_PROFILE_ID = 2L;
+  static final String ANOTHER_USER_ID = "auth0|another";
+
+  private SimpMessagingTemplate messagingTemplate;
+  private UserService userService;
+  private MessageEventPublisher messageEventPublisher;
+  private final Match match = new Match(PROFILE_ID, ANOTHER_PROFILE_ID);
+  private final MessageEventDto event =
+      new MessageEventDto(MessageEventType.MESSAGES_READ, 3L, PROFILE_ID, null);
+
+  @BeforeEach
+  void init() {
+    messagingTemplate = mock(SimpMessagingTemplate.class);
+    userService = mock(UserService.class);
+    messageEventPublisher = new MessageEventPublisher(messagingTemplate, userService);
+    when(userService.getIdByProfileId(ANOTHER_PROFILE_ID)).thenReturn(ANOTHER_USER_ID);
+  }
+
+  @AfterEach
+  void close() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void verifyEventIsSentToOtherParticipantOnlyAfterCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    messageEventPublisher.publishToOtherParticipant(match, event);
+    verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(TransactionSynchronization::afterCommit);
+    verify(messagingTemplate)
+        .convertAndSendToUser(ANOTHER_USER_ID, MessageEventPublisher.DESTINATION, event);
+  }
+
+  @Test
+  void verifyEventIsNotSentAfterRollback() {
+    TransactionSynchronizationManager.initSynchronization();
+    messageEventPublisher.publishToOtherParticipant(match, event);
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(
+            synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+  }
+
+  @Test
+  void verifyEventIsSentImmediatelyOutsideTransaction() {
+    messageEventPublisher.publishToOtherParticipant(
+        new Match(ANOTHER_PROFILE_ID, PROFILE_ID), event);
+    verify(messagingTemplate)
+        .convertAndSendToUser(ANOTHER_USER_ID, MessageEventPublisher.DESTINATION, event);
+  }
+
+  @Test
+  void verifyEventForUnknownUserIsDropped() {
+    messageEventPublisher.publishToOtherParticipant(new Match(PROFILE_ID, 4L), event);
+    verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any());
+  }
+}
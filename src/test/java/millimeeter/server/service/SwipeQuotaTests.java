@@ -0,0 +1,65 @@
+package millimeeter.server.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import millimeeter.server.model.Profile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwipeQuotaTests {
+
+  private SwipeQuota swipeQuota;
+  private Profile profile;
+
+  @BeforeEach
+  void init() {
+    swipeQuota = new SwipeQuota(null);
+    profile = new Profile();
+    profile.setId(1L);
+    profile.setSwipesLeft(SwipeQuota.SWIPES_PER_WINDOW);
+  }
+
+  @Test
+  void verifyConcurrentSwipesNeverSpendMoreThanAllowed() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<Boolean>> swipes = new ArrayList<>();
+      for (int i = 0; i < 4 * SwipeQuota.SWIPES_PER_WINDOW; i++) {
+        swipes.add(() -> swipeQuota.tryAcquire(profile));
+      }
+      int acquired = 0;
+      for (Future<Boolean> swipe : executor.invokeAll(swipes)) {
+        acquired += swipe.get() ? 1 : 0;
+      }
+      assertEquals(SwipeQuota.SWIPES_PER_WINDOW, acquired);
+      assertEquals(0, swipeQuota.getSwipesLeft(profile));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void verifyReleasedSwipeCanBeSpentAgain() {
+    profile.setSwipesLeft(1);
+    assertTrue(swipeQuota.tryAcquire(profile));
+    assertFalse(swipeQuota.tryAcquire(profile));
+    swipeQuota.release(profile.getId());
+    assertTrue(swipeQuota.tryAcquire(profile));
+  }
+
+  @Test
+  void verifySwipesAreRefilledOnlyAfterWindowExpired() {
+    profile.setSwipesLeft(0);
+    assertEquals(0, swipeQuota.getSwipesLeft(profile));
+    swipeQuota.discard(profile.getId());
+    profile.setWaitUntil(LocalDateTime.now().minusMinutes(1));
+    assertEquals(SwipeQuota.SWIPES_PER_WINDOW, swipeQuota.getSwipesLeft(profile));
+  }
+}
@@ -0,0 +1,142 @@
+package millimeeter.server.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import millimeeter.server.dto.QueuedSwipeDto;
+import millimeeter.server.dto.SentMessageDto;
+import millimeeter.server.dto.SwipeResultDto;
+import millimeeter.server.enums.SwipeResult;
+import millimeeter.server.model.Match;
+import millimeeter.server.model.Message;
+import millimeeter.server.model.Profile;
+import millimeeter.server.repository.MatchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SwipeServiceTests {
+
+  private static final int ROUNDS = 10;
+
+  private final TestUtils testUtils;
+  private final SwipeService swipeService;
+  private final MessageService messageService;
+  private final MatchRepository matchRepository;
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @Autowired
+  public SwipeServiceTests(
+      TestUtils testUtils,
+      SwipeService swipeService,
+      MessageService messageService,
+      MatchRepository matchRepository) {
+    this.testUtils = testUtils;
+    this.swipeService = swipeService;
+    this.messageService = messageService;
+    this.matchRepository = matchRepository;
+  }
+
+  private Profile profile;
+  private Profile anotherProfile;
+  private Profile anotherProfile2;
+
+  @BeforeEach
+  void init() {
+    testUtils.createUserIfNotExists(TestUtils.USERNAME, testUtils.getProfile());
+    testUtils.createUserIfNotExists(TestUtils.ANOTHER_USERNAME, testUtils.getAnotherProfile());
+    testUtils.createUserIfNotExists(TestUtils.ANOTHER_USERNAME_2, testUtils.getAnotherProfile2());
+    profile = testUtils.getProfile();
+    anotherProfile = testUtils.getAnotherProfile();
+    anotherProfile2 = testUtils.getAnotherProfile2();
+    testUtils.deleteProfileIfExistsById(profile);
+    testUtils.createProfileIfNotExists(profile);
+  }
+
+  @AfterEach
+  void close() {
+    executor.shutdown();
+  }
+
+  @Test
+  void verifyParallelReciprocalRightSwipesCreateExactlyOneMatch() throws Exception {
+    for (int round = 0; round < ROUNDS; round++) {
+      testUtils.deleteProfileIfExistsById(anotherProfile);
+      testUtils.createProfileIfNotExists(anotherProfile);
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Map<String, Object>>> results =
+          List.of(
+              executor.submit(swipeAs(TestUtils.USERNAME, anotherProfile.getId(), start)),
+              executor.submit(swipeAs(TestUtils.ANOTHER_USERNAME, profile.getId(), start)));
+      start.countDown();
+      int matches = 0;
+      for (Future<Map<String, Object>> result : results) {
+        matches += result.get().containsKey("match") ? 1 : 0;
+      }
+      assertEquals(1, matches, "Round " + round);
+      assertEquals(1, matchRepository.findAllMatchesByProfileId(anotherProfile.getId()).size());
+    }
+  }
+
+  // THE BATCH MATCHES BOTH OTHER PROFILES WHILE THEY TALK, SO IT LOCKS THE SYNC COUNTERS OF ALL
+  // THREE PROFILES WHILE THE MESSAGE LOCKS TWO OF THEM
+  @Test
+  void verifyParallelSwipeBatchAndMessageSendDoNotDeadlock() throws Exception {
+    for (int round = 0; round < ROUNDS; round++) {
+      testUtils.deleteProfileIfExistsById(anotherProfile);
+      testUtils.deleteProfileIfExistsById(anotherProfile2);
+      testUtils.createProfileIfNotExists(anotherProfile);
+      testUtils.createProfileIfNotExists(anotherProfile2);
+      testUtils.addSwipe(profile.getId(), anotherProfile.getId(), "RIGHT");
+      testUtils.addSwipe(anotherProfile2.getId(), anotherProfile.getId(), "RIGHT");
+      Match match = testUtils.addMatch(profile.getId(), anotherProfile2.getId());
+      List<QueuedSwipeDto> queuedSwipes =
+          List.of(
+              new QueuedSwipeDto(anotherProfile2.getId(), "RIGHT", null),
+              new QueuedSwipeDto(profile.getId(), "RIGHT", null));
+      CountDownLatch start = new CountDownLatch(1);
+      Future<List<SwipeResultDto>> batch =
+          executor.submit(
+              as(TestUtils.ANOTHER_USERNAME, start, () -> swipeService.swipeBatch(queuedSwipes)));
+      Future<Message> message =
+          executor.submit(
+              as(
+                  TestUtils.USERNAME,
+                  start,
+                  () -> messageService.send(new SentMessageDto(match.getId(), "Hi", null))));
+      start.countDown();
+      for (SwipeResultDto result : batch.get()) {
+        assertEquals(SwipeResult.MATCHED, result.getResult(), "Round " + round);
+      }
+      assertEquals(match.getId(), message.get().getMatchId(), "Round " + round);
+    }
+  }
+
+  Callable<Map<String, Object>> swipeAs(String username, Long id, CountDownLatch start) {
+    return as(username, start, () -> swipeService.swipe(id, "RIGHT"));
+  }
+
+  <T> Callable<T> as(String username, CountDownLatch start, Callable<T> call) {
+    return () -> {
+      SecurityContextHolder.getContext()
+          .setAuthentication(new TestingAuthenticationToken(username, null));
+      try {
+        start.await();
+        return call.call();
+      } finally {
+        SecurityContextHolder.clearContext();
+      }
+    };
+  }
+}
@@ -0,0 +1,168 @@
+package millimeeter.server.service.assembler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import millimeeter.server.controller.MatchController;
+import millimeeter.server.controller.MessageController;
+import millimeeter.server.controller.SwipeController;
+import millimeeter.server.dto.MatchDto;
+import millimeeter.server.dto.MessageDto;
+import millimeeter.server.dto.ProfileToSwipeDto;
+import millimeeter.server.enums.Gender;
+import millimeeter.server.enums.MessageReaction;
+import millimeeter.server.enums.MessageStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/*
+    toModel OVER A LIST OF 1,000 ITEMS, WITH THE LINK TEMPLATES THE ASSEMBLERS USE AND WITH
+    linkTo(methodOn(...)) THEY USED BEFORE, REPEATED HERE AS THE *WithLinkBuilder BENCHMARKS. BOTH
+    RUN INSIDE ONE REQUEST, LIKE A LIST RESPONSE
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssemblerBenchmark {
+
+  static final int ITEMS = 1000;
+  // THE REACTIONS MessageDtoModelAssembler LINKS
+  static final List<MessageReaction> REACTIONS =
+      List.of(
+          MessageReaction.LIKE,
+          MessageReaction.SUPER,
+          MessageReaction.HAHA,
+          MessageReaction.CRY,
+          MessageReaction.WRR,
+          MessageReaction.CARE);
+
+  private final List<MessageDto> messages = new ArrayList<>();
+  private final List<ProfileToSwipeDto> profiles = new ArrayList<>();
+  private final List<MatchDto> matches = new ArrayList<>();
+  private MessageDtoModelAssembler messageAssembler;
+  private ProfileToSwipeDtoModelAssembler profileAssembler;
+  private MatchDtoModelAssembler matchAssembler;
+
+  @Setup
+  public void setUp() {
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+    LinkTemplates linkTemplates = new LinkTemplates();
+    messageAssembler = new MessageDtoModelAssembler(linkTemplates);
+    profileAssembler = new ProfileToSwipeDtoModelAssembler(linkTemplates);
+    matchAssembler = new MatchDtoModelAssembler(linkTemplates);
+    LocalDateTime now = LocalDateTime.now();
+    for (long id = 1_000_000; id < 1_000_000 + ITEMS; id++) {
+      messages.add(
+          new MessageDto(id, 7L, "content", null, null, null, MessageStatus.SENT, now, null));
+      profiles.add(
+          new ProfileToSwipeDto(
+              id, "Gloria", 25, Gender.WOMAN, new String[] {"a.jpg"}, "", "", 10));
+      matches.add(new MatchDto(id, 7L, "Gloria", new String[] {"a.jpg"}, now));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Benchmark
+  public List<EntityModel<MessageDto>> messagesWithTemplates() {
+    return toModels(messages, messageAssembler::toModel);
+  }
+
+  @Benchmark
+  public List<EntityModel<MessageDto>> messagesWithLinkBuilder() {
+    return toModels(messages, AssemblerBenchmark::toMessageModel);
+  }
+
+  @Benchmark
+  public List<EntityModel<ProfileToSwipeDto>> profilesWithTemplates() {
+    return toModels(profiles, profileAssembler::toModel);
+  }
+
+  @Benchmark
+  public List<EntityModel<ProfileToSwipeDto>> profilesWithLinkBuilder() {
+    return toModels(profiles, AssemblerBenchmark::toProfileModel);
+  }
+
+  @Benchmark
+  public List<EntityModel<MatchDto>> matchesWithTemplates() {
+    return toModels(matches, matchAssembler::toModel);
+  }
+
+  @Benchmark
+  public List<EntityModel<MatchDto>> matchesWithLinkBuilder() {
+    return toModels(matches, AssemblerBenchmark::toMatchModel);
+  }
+
+  static <T> List<EntityModel<T>> toModels(List<T> items, Function<T, EntityModel<T>> toModel) {
+    List<EntityModel<T>> models = new ArrayList<>(items.size());
+    for (T item : items) {
+      models.add(toModel.apply(item));
+    }
+    return models;
+  }
+
+  static EntityModel<MessageDto> toMessageModel(MessageDto message) {
+    EntityModel<MessageDto> messageModel = EntityModel.of(message);
+    messageModel.add(linkTo(methodOn(MessageController.class).send(null)).withRel("reply"));
+    for (MessageReaction reaction : REACTIONS) {
+      messageModel.add(
+          linkTo(
+                  methodOn(MessageController.class)
+                      .reactToMessage(message.getId(), reaction.toString()))
+              .withRel("react " + reaction.toString().toLowerCase()));
+    }
+    messageModel.add(
+        linkTo(methodOn(MessageController.class).deleteReactionFromMessage(message.getId()))
+            .withRel("delete reaction"));
+    return messageModel;
+  }
+
+  static EntityModel<ProfileToSwipeDto> toProfileModel(ProfileToSwipeDto profile) {
+    EntityModel<ProfileToSwipeDto> profileModel = EntityModel.of(profile);
+    profileModel.add(
+        linkTo(methodOn(SwipeController.class).swipe(profile.getId(), "LEFT"))
+            .withRel("swipe left"));
+    profileModel.add(
+        linkTo(methodOn(SwipeController.class).swipe(profile.getId(), "RIGHT"))
+            .withRel("swipe right"));
+    return profileModel;
+  }
+
+  static EntityModel<MatchDto> toMatchModel(MatchDto match) {
+    EntityModel<MatchDto> matchModel = EntityModel.of(match);
+    matchModel.add(
+        linkTo(
+                methodOn(MessageController.class)
+                    .findMessagesByMatchId(match.getId(), null, null, null))
+            .withRel("conversation")
+            .expand());
+    matchModel.add(
+        linkTo(methodOn(MatchController.class).deleteMatch(match.getId())).withRel("delete"));
+    return matchModel;
+  }
+}
@@ -0,0 +1,108 @@
+package millimeeter.server.service.assembler;
+
+import millimeeter.server.controller.DisappearingMessageController;
+import millimeeter.server.controller.MatchController;
+import millimeeter.server.controller.MessageController;
+import millimeeter.server.controller.ProfileController;
+import millimeeter.server.controller.SwipeController;
+import millimeeter.server.controller.SyncController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class LinkTemplatesTests {
+
+  private LinkTemplates linkTemplates;
+
+  @BeforeEach
+  void init() {
+    linkTemplates = new LinkTemplates();
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+  }
+
+  @AfterEach
+  void clear() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  void verifyExpandedTemplatesMatchLinkBuilder() {
+    assertSameLink(
+        linkTo(methodOn(MessageController.class).findMessagesByMatchId(7L, null, null, null))
+            .withRel("conversation")
+            .expand(),
+        linkTemplates.conversation.expand("conversation", 7L));
+    assertSameLink(
+        linkTo(methodOn(MessageController.class).send(null)).withRel("reply"),
+        linkTemplates.sendMessage.expand("reply"));
+    assertSameLink(
+        linkTo(methodOn(MessageController.class).reactToMessage(7L, "LIKE")).withRel("react like"),
+        linkTemplates.reactToMessage.expand("react like", 7L, "LIKE"));
+    assertSameLink(
+        linkTo(methodOn(MessageController.class).deleteReactionFromMessage(7L))
+            .withRel("delete reaction"),
+        linkTemplates.deleteReaction.expand("delete reaction", 7L));
+    assertSameLink(
+        linkTo(methodOn(DisappearingMessageController.class).findConversation(7L))
+            .withRel("conversation"),
+        linkTemplates.disappearingConversation.expand("conversation", 7L));
+    assertSameLink(
+        linkTo(methodOn(DisappearingMessageController.class).send(null)).withRel("reply"),
+        linkTemplates.sendDisappearingMessage.expand("reply"));
+    assertSameLink(
+        linkTo(methodOn(DisappearingMessageController.class).readMessagesFrom(7L)).withRel("read"),
+        linkTemplates.readDisappearingMessages.expand("read", 7L));
+    assertSameLink(
+        linkTo(methodOn(MatchController.class).deleteMatch(7L)).withRel("delete"),
+        linkTemplates.deleteMatch.expand("delete", 7L));
+    assertSameLink(
+        linkTo(methodOn(ProfileController.class).create(null, null)).withRel("create profile"),
+        linkTemplates.createProfile.expand("create profile"));
+    assertSameLink(
+        linkTo(methodOn(ProfileController.class).update(null)).withRel("update"),
+        linkTemplates.updateProfile.expand("update"));
+    assertSameLink(
+        linkTo(methodOn(ProfileController.class).deleteProfile()).withRel("delete"),
+        linkTemplates.deleteProfile.expand("delete"));
+    assertSameLink(
+        linkTo(methodOn(ProfileController.class).getSwipesLeftCount())
+            .withRel("swipes left amount"),
+        linkTemplates.swipesLeft.expand("swipes left amount"));
+    assertSameLink(
+        linkTo(methodOn(SwipeController.class).swipe(7L, "RIGHT")).withRel("swipe right"),
+        linkTemplates.swipe.expand("swipe right", 7L, "RIGHT"));
+    assertSameLink(
+        linkTo(methodOn(SyncController.class).sync(42L)).withRel("next"),
+        linkTemplates.sync.expand("next", 42L));
+  }
+
+  /*
+      LINKS BUILT BY linkTo ALSO CARRY AFFORDANCES, WHICH ARE NOT RENDERED IN HAL
+  */
+  void assertSameLink(Link expected, Link actual) {
+    assertEquals(expected.toString(), actual.toString());
+  }
+
+  @Test
+  void verifyExpandLeavesOutNullQueryVariables() {
+    assertEquals("http://localhost/api/v1/sync", linkTemplates.sync.expand("next").getHref());
+    assertEquals(
+        "http://localhost/api/v1/sync", linkTemplates.sync.expand("next", (Object) null).getHref());
+  }
+
+  @Test
+  void verifyExpandOutsideOfRequestReturnsRelativeLink() {
+    RequestContextHolder.resetRequestAttributes();
+    Link link = linkTemplates.deleteMatch.expand("delete", 7L);
+    assertEquals("/api/v1/matches/7", link.getHref());
+  }
+}
@@ -0,0 +1,69 @@
+package millimeeter.server.service.discovery;
+
+import millimeeter.server.model.Profile;
+import millimeeter.server.repository.ProfileRepository;
+import millimeeter.server.service.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class LocationUpdateBufferTests {
+
+  private final TestUtils testUtils;
+  private final ProfileRepository profileRepository;
+  private final LocationUpdateBuffer locationUpdateBuffer;
+  private final ProfileLocationIndex profileLocationIndex;
+
+  @Autowired
+  public LocationUpdateBufferTests(
+      TestUtils testUtils,
+      ProfileRepository profileRepository,
+      LocationUpdateBuffer locationUpdateBuffer,
+      ProfileLocationIndex profileLocationIndex) {
+    this.testUtils = testUtils;
+    this.profileRepository = profileRepository;
+    this.locationUpdateBuffer = locationUpdateBuffer;
+    this.profileLocationIndex = profileLocationIndex;
+  }
+
+  private Profile profile;
+
+  @BeforeEach
+  void init() {
+    testUtils.createUserIfNotExists(TestUtils.USERNAME, testUtils.getProfile());
+    testUtils.createProfileIfNotExists(testUtils.getProfile());
+    profile = testUtils.getProfile();
+    locationUpdateBuffer.flush();
+  }
+
+  @Test
+  void verifyLastRecordedLocationIsWrittenOnFlush() {
+    locationUpdateBuffer.record(profile.getId(), 10.0, 20.0);
+    locationUpdateBuffer.record(profile.getId(), 11.0, 21.0);
+    assertEquals(1, locationUpdateBuffer.size());
+    assertEquals(11.0, profileLocationIndex.get(profile.getId()).getLastLatitude());
+    locationUpdateBuffer.flush();
+    assertEquals(0, locationUpdateBuffer.size());
+    Profile saved = profileRepository.findById(profile.getId()).get();
+    assertEquals(11.0, saved.getLastLatitude());
+    assertEquals(21.0, saved.getLastLongitude());
+  }
+
+  @Test
+  void verifyFlushedLocationSurvivesSavingStaleProfile() {
+    Profile stale = profileRepository.findById(profile.getId()).get();
+    locationUpdateBuffer.record(profile.getId(), 12.0, 22.0);
+    locationUpdateBuffer.flush();
+    stale.setSwipesLeft(stale.getSwipesLeft() - 1);
+    profileRepository.save(stale);
+    Profile saved = profileRepository.findById(profile.getId()).get();
+    assertEquals(12.0, saved.getLastLatitude());
+    assertEquals(22.0, saved.getLastLongitude());
+    assertEquals(12.0, profileLocationIndex.get(profile.getId()).getLastLatitude());
+    assertEquals(22.0, profileLocationIndex.get(profile.getId()).getLastLongitude());
+  }
+}
@@ -0,0 +1,175 @@
+package millimeeter.server.service.discovery;
+
+import java.time.LocalDate;
+import java.util.List;
+import millimeeter.server.enums.Gender;
+import millimeeter.server.repository.ProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProfileLocationIndexTests {
+
+  // ONE DEGREE OF LATITUDE IS ABOUT 69.09 MILES
+  static final double MILES_PER_DEGREE = Math.toRadians(1) * ProfileLocationIndex.EARTH_RADIUS;
+  static final LocalDate BORN = LocalDate.of(1995, 6, 15);
+  static final LocalDate MIN_BORN = LocalDate.of(1990, 1, 1);
+  static final LocalDate MAX_BORN = LocalDate.of(2000, 12, 31);
+
+  private ProfileRepository profileRepository;
+  private ProfileLocationIndex profileLocationIndex;
+
+  @BeforeEach
+  void init() {
+    profileRepository = mock(ProfileRepository.class);
+    profileLocationIndex = new ProfileLocationIndex(profileRepository);
+  }
+
+  @Test
+  void verifyDistanceBetweenKnownPoints() {
+    assertEquals(MILES_PER_DEGREE, distance(0, 0, 1, 0), 1e-9);
+    assertEquals(MILES_PER_DEGREE, distance(0, 0, 0, 1), 1e-9);
+    assertEquals(0.2 * MILES_PER_DEGREE, distance(0, 179.9, 0, -179.9), 1e-9);
+    assertEquals(180 * MILES_PER_DEGREE, distance(90, 0, -90, 0), 1e-9);
+    // EVERY MERIDIAN MEETS AT THE POLE
+    assertEquals(0, distance(90, 0, 90, 123), 1e-9);
+    // WARSAW - KRAKOW, ABOUT 252 KM
+    assertEquals(156.6, distance(52.2297, 21.0122, 50.0647, 19.9450), 0.1);
+  }
+
+  @Test
+  void verifyOnlyProfilesWithinRadiusAreFound() {
+    // 0.5 DEGREES NORTH IS ABOUT 34.55 MILES, ONE CELL AWAY
+    put(1L, Gender.MAN, BORN, 0.5, 0);
+    // 0.25 DEGREES EAST AND NORTH IS ABOUT 24.43 MILES, IN THE SAME CELL
+    put(2L, Gender.MAN, BORN, 0.25, 0.25);
+    put(3L, Gender.MAN, BORN, -2, 0);
+
+    assertEquals(List.of(2L), find(null, 0, 0, 34));
+    assertEquals(List.of(1L, 2L), sorted(find(null, 0, 0, 35)));
+    assertEquals(List.of(1L, 2L, 3L), sorted(find(null, 0, 0, 2.01 * MILES_PER_DEGREE)));
+    assertEquals(List.of(), find(null, 10, 10, 100));
+  }
+
+  @Test
+  void verifyProfilesAcrossAntimeridianAreFound() {
+    put(1L, Gender.MAN, BORN, 0, -179.9);
+    put(2L, Gender.MAN, BORN, 60, -179.8);
+    put(3L, Gender.MAN, BORN, 0, -179);
+
+    // 0.2 DEGREES OF LONGITUDE IS ABOUT 13.82 MILES AT THE EQUATOR
+    assertEquals(List.of(1L), find(null, 0, 179.9, 20));
+    assertEquals(List.of(1L, 3L), sorted(find(null, 0, 179.9, 80)));
+    // AT 60 DEGREES A DEGREE OF LONGITUDE IS HALF AS LONG, 0.4 DEGREES IS ABOUT 13.82 MILES
+    assertEquals(List.of(2L), find(null, 60, 179.8, 15));
+    assertEquals(List.of(), find(null, 60, 179.8, 13));
+  }
+
+  @Test
+  void verifyProfilesAroundPolesAreFound() {
+    put(1L, Gender.MAN, BORN, 89.9, 180);
+    put(2L, Gender.MAN, BORN, 90, 45);
+    put(3L, Gender.MAN, BORN, -89.95, 90);
+    put(4L, Gender.MAN, BORN, 89, 0);
+
+    // ACROSS THE NORTH POLE, 0.2 DEGREES OF LATITUDE IS ABOUT 13.82 MILES
+    assertEquals(List.of(1L, 2L), sorted(find(null, 89.9, 0, 20)));
+    assertEquals(List.of(1L, 2L, 4L), sorted(find(null, 89.9, 0, 75)));
+    assertEquals(List.of(2L), find(null, 90, 0, 1));
+    // 0.05 DEGREES FROM THE SOUTH POLE IS ABOUT 3.45 MILES
+    assertEquals(List.of(3L), find(null, -90, 0, 4));
+    assertEquals(List.of(3L), find(null, -89.95, -90, 7));
+    assertEquals(List.of(), find(null, -89.95, -90, 6.9));
+  }
+
+  @Test
+  void verifyGenderAndDateOfBirthFilters() {
+    put(1L, Gender.MAN, BORN, 0, 0);
+    put(2L, Gender.WOMAN, BORN, 0, 0);
+    put(3L, Gender.WOMAN, MIN_BORN, 0, 0);
+    put(4L, Gender.WOMAN, MAX_BORN, 0, 0);
+    put(5L, Gender.WOMAN, MIN_BORN.minusDays(1), 0, 0);
+    put(6L, Gender.WOMAN, MAX_BORN.plusDays(1), 0, 0);
+    put(7L, Gender.WOMAN, null, 0, 0);
+
+    assertEquals(List.of(1L), find(Gender.MAN, 0, 0, 10));
+    // THE RANGE IS INCLUSIVE ON BOTH ENDS
+    assertEquals(List.of(2L, 3L, 4L), sorted(find(Gender.WOMAN, 0, 0, 10)));
+    assertEquals(List.of(1L, 2L, 3L, 4L), sorted(find(null, 0, 0, 10)));
+  }
+
+  @Test
+  void verifySearchingProfileFilterAndLimitAreApplied() {
+    put(1L, Gender.MAN, BORN, 0, 0);
+    put(2L, Gender.MAN, BORN, 0.1, 0);
+    put(3L, Gender.MAN, BORN, 0.2, 0);
+
+    assertEquals(
+        List.of(2L, 3L),
+        sorted(
+            profileLocationIndex.findCandidates(
+                1L, null, MIN_BORN, MAX_BORN, 0, 0, 100, id -> true, Integer.MAX_VALUE)));
+    assertEquals(
+        List.of(3L),
+        profileLocationIndex.findCandidates(
+            1L, null, MIN_BORN, MAX_BORN, 0, 0, 100, id -> id != 2L, Integer.MAX_VALUE));
+    assertEquals(
+        1,
+        profileLocationIndex
+            .findCandidates(null, null, MIN_BORN, MAX_BORN, 0, 0, 100, id -> true, 1)
+            .size());
+  }
+
+  @Test
+  void verifyMovedAndRemovedProfilesAreFoundOnlyAtTheirLocation() {
+    put(1L, Gender.MAN, BORN, 0, 0);
+    profileLocationIndex.put(new ProfileIndexEntry(2L, Gender.MAN, BORN, null, null));
+
+    profileLocationIndex.updateLocation(1L, 40.0, 40.0);
+    profileLocationIndex.updateLocation(2L, 0.1, 0.1);
+    assertEquals(List.of(2L), find(null, 0, 0, 10));
+    assertEquals(List.of(1L), find(null, 40, 40, 10));
+
+    profileLocationIndex.remove(1L);
+    assertEquals(List.of(), find(null, 40, 40, 10));
+    assertNull(profileLocationIndex.get(1L));
+  }
+
+  @Test
+  void verifyInitialLoadKeepsNewerEntries() {
+    put(1L, Gender.MAN, BORN, 10.0, 10.0);
+    when(profileRepository.findAllIndexEntries())
+        .thenReturn(
+            List.of(
+                new ProfileIndexEntry(1L, Gender.MAN, BORN, 0.0, 0.0),
+                new ProfileIndexEntry(2L, Gender.WOMAN, BORN, 0.0, 0.0)));
+    assertFalse(profileLocationIndex.isReady());
+
+    profileLocationIndex.load();
+    assertTrue(profileLocationIndex.isReady());
+    assertEquals(2, profileLocationIndex.size());
+    assertEquals(10.0, profileLocationIndex.get(1L).getLastLatitude());
+    assertEquals(List.of(2L), find(null, 0, 0, 10));
+  }
+
+  void put(Long id, Gender gender, LocalDate dateOfBirth, double latitude, double longitude) {
+    profileLocationIndex.put(new ProfileIndexEntry(id, gender, dateOfBirth, latitude, longitude));
+  }
+
+  List<Long> find(Gender gender, double latitude, double longitude, double distance) {
+    return profileLocationIndex.findCandidates(
+        null, gender, MIN_BORN, MAX_BORN, latitude, longitude, distance);
+  }
+
+  static List<Long> sorted(List<Long> ids) {
+    return ids.stream().sorted().toList();
+  }
+
+  static double distance(
+      double latitude1, double longitude1, double latitude2, double longitude2) {
+    return ProfileLocationIndex.distanceBetween(latitude1, longitude1, latitude2, longitude2);
+  }
+}
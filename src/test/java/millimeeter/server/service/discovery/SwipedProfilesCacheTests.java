@@ -0,0 +1,82 @@
+package millimeeter.server.service.discovery;
+
+import millimeeter.server.model.Profile;
+import millimeeter.server.repository.SwipeRepository;
+import millimeeter.server.service.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SwipedProfilesCacheTests {
+
+  private final TestUtils testUtils;
+  private final SwipeRepository swipeRepository;
+  private final SwipedProfilesCache swipedProfilesCache;
+
+  @Autowired
+  public SwipedProfilesCacheTests(
+      TestUtils testUtils,
+      SwipeRepository swipeRepository,
+      SwipedProfilesCache swipedProfilesCache) {
+    this.testUtils = testUtils;
+    this.swipeRepository = swipeRepository;
+    this.swipedProfilesCache = swipedProfilesCache;
+  }
+
+  private Profile profile;
+  private Profile anotherProfile;
+  private Profile anotherProfile2;
+
+  @BeforeEach
+  void init() {
+    testUtils.createUserIfNotExists(TestUtils.USERNAME, testUtils.getProfile());
+    testUtils.createUserIfNotExists(TestUtils.ANOTHER_USERNAME, testUtils.getAnotherProfile());
+    testUtils.createUserIfNotExists(TestUtils.ANOTHER_USERNAME_2, testUtils.getAnotherProfile2());
+    profile = testUtils.getProfile();
+    anotherProfile = testUtils.getAnotherProfile();
+    anotherProfile2 = testUtils.getAnotherProfile2();
+    testUtils.deleteProfileIfExistsById(anotherProfile);
+    testUtils.deleteProfileIfExistsById(anotherProfile2);
+    testUtils.createProfileIfNotExists(profile);
+    testUtils.createProfileIfNotExists(anotherProfile);
+    testUtils.createProfileIfNotExists(anotherProfile2);
+  }
+
+  @Test
+  void verifyBitmapLoadedFromSwipesMatchesSqlFilter() {
+    testUtils.addSwipe(profile.getId(), anotherProfile.getId(), "LEFT");
+    swipedProfilesCache.evict(profile.getId());
+    assertParityWithSql(profile.getId());
+  }
+
+  @Test
+  void verifyBitmapUpdatedBySwipeMatchesSqlFilter() {
+    swipedProfilesCache.evict(profile.getId());
+    assertParityWithSql(profile.getId());
+    testUtils.addSwipe(profile.getId(), anotherProfile2.getId(), "RIGHT");
+    assertParityWithSql(profile.getId());
+  }
+
+  @Test
+  void verifyDeletedProfileIsNoLongerSwiped() {
+    testUtils.addSwipe(profile.getId(), anotherProfile.getId(), "LEFT");
+    testUtils.deleteProfileIfExistsById(anotherProfile);
+    testUtils.createProfileIfNotExists(anotherProfile);
+    assertParityWithSql(profile.getId());
+  }
+
+  void assertParityWithSql(Long senderId) {
+    List<Long> candidates = List.of(anotherProfile.getId(), anotherProfile2.getId());
+    List<Long> notSwipedInSql =
+        candidates.stream()
+            .filter(id -> swipeRepository.countAllSwipesFromSenderToReceiver(senderId, id) == 0)
+            .toList();
+    assertEquals(notSwipedInSql, swipedProfilesCache.filterNotSwiped(senderId, candidates));
+  }
+}
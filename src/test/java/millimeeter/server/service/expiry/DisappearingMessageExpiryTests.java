@@ -0,0 +1,60 @@
+package millimeeter.server.service.expiry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DisappearingMessageExpiryTests {
+
+  private JdbcTemplate jdbcTemplate;
+  private DisappearingMessageExpiry expiry;
+
+  @BeforeEach
+  void init() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    expiry =
+        new DisappearingMessageExpiry(
+            jdbcTemplate,
+            mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(),
+            60,
+            1000);
+  }
+
+  @Test
+  void verifyFailedLoadIsRetriedUntilItSucceeds() throws Exception {
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.getLong("id")).thenReturn(1L);
+    when(resultSet.getTimestamp("seen_at")).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+    doThrow(new DataAccessResourceFailureException("Connection refused"))
+        .doAnswer(
+            invocation -> {
+              invocation.getArgument(1, RowCallbackHandler.class).processRow(resultSet);
+              return null;
+            })
+        .when(jdbcTemplate)
+        .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+    expiry.loadWithRetries();
+    verify(jdbcTemplate, times(2))
+        .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    assertEquals(1, expiry.size());
+  }
+}
@@ -0,0 +1,67 @@
+package millimeeter.server.service.expiry;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTests {
+
+  private static final long TICK = 1000;
+  private static final long START = 1_700_000_000_500L;
+
+  @Test
+  void verifyIdsExpireWithinOneTickAfterExpirationAcrossAllLevels() {
+    TimingWheel wheel = new TimingWheel(TICK, 8, START);
+    Random random = new Random(42);
+    long[] expirations = new long[10_000];
+    for (int id = 0; id < expirations.length; id++) {
+      // UP TO A WEEK AHEAD, SO IDS GO THROUGH SEVERAL OVERFLOW WHEELS
+      expirations[id] = START + (long) (random.nextDouble() * 7 * 24 * 3600 * 1000);
+      assertTrue(wheel.add(id, expirations[id]));
+    }
+    assertEquals(expirations.length, wheel.size());
+    Set<Integer> expired = new HashSet<>();
+    long now = START;
+    while (expired.size() < expirations.length) {
+      now += (long) (random.nextDouble() * 20 * 60 * 1000);
+      long clock = now;
+      wheel.advanceClock(
+          clock,
+          id -> {
+            assertTrue(expirations[(int) id] < clock, "Expired early: " + id);
+            assertTrue(expired.add((int) id), "Expired twice: " + id);
+          });
+      for (int id = 0; id < expirations.length; id++) {
+        if (expirations[id] < wheel.getCurrentTime()) {
+          assertTrue(expired.contains(id), "Not expired: " + id);
+        }
+      }
+      assertEquals(expirations.length - expired.size(), wheel.size());
+    }
+  }
+
+  @Test
+  void verifyPassedExpirationIsNotScheduled() {
+    TimingWheel wheel = new TimingWheel(TICK, 8, START);
+    assertFalse(wheel.add(1, START - 2 * TICK));
+    assertTrue(wheel.add(2, START));
+    assertEquals(1, wheel.size());
+  }
+
+  @Test
+  void verifyIdAddedWhileAdvancingIsKept() {
+    TimingWheel wheel = new TimingWheel(TICK, 8, START);
+    Set<Long> expired = new HashSet<>();
+    wheel.add(1, START + 100 * TICK);
+    wheel.advanceClock(START + 50 * TICK, expired::add);
+    assertTrue(wheel.add(2, START + 51 * TICK));
+    wheel.advanceClock(START + 53 * TICK, expired::add);
+    assertEquals(Set.of(2L), expired);
+    wheel.advanceClock(START + 102 * TICK, expired::add);
+    assertEquals(Set.of(1L, 2L), expired);
+    assertEquals(0, wheel.size());
+  }
+}
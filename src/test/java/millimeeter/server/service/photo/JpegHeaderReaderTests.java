@@ -0,0 +1,50 @@
+package millimeeter.server.service.photo;
+
+import java.awt.Dimension;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JpegHeaderReaderTests {
+
+  static final Path TEST_PHOTO_PATH = Path.of("src/main/resources/static/testPhoto.jpg");
+  static final Path INVALID_TEST_PHOTO_PATH =
+      Path.of("src/main/resources/static/invalidTestPhoto.jpg");
+
+  @Test
+  void verifyDimensionsAreReadFromHeader() throws IOException {
+    assertEquals(Optional.of(new Dimension(192, 256)), read(Files.readAllBytes(TEST_PHOTO_PATH)));
+    assertEquals(
+        Optional.of(new Dimension(256, 256)), read(Files.readAllBytes(INVALID_TEST_PHOTO_PATH)));
+  }
+
+  @Test
+  void verifyNotJpegIsEmpty() throws IOException {
+    assertEquals(Optional.empty(), read(new byte[] {(byte) 0x89, 'P', 'N', 'G'}));
+    assertEquals(Optional.empty(), read(new byte[] {(byte) 0xFF}));
+  }
+
+  @Test
+  void verifyTruncatedHeaderIsMalformed() throws IOException {
+    byte[] photo = Files.readAllBytes(TEST_PHOTO_PATH);
+    assertThrows(
+        JpegHeaderReader.MalformedJpegException.class, () -> read(Arrays.copyOf(photo, 20)));
+  }
+
+  @Test
+  void verifyScanBeforeFrameIsMalformed() {
+    byte[] photo = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xDA, 0x00, 0x02};
+    assertThrows(JpegHeaderReader.MalformedJpegException.class, () -> read(photo));
+  }
+
+  static Optional<Dimension> read(byte[] photo) throws IOException {
+    return JpegHeaderReader.readDimensions(new ByteArrayInputStream(photo));
+  }
+}
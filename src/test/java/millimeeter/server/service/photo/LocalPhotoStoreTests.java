@@ -0,0 +1,143 @@
+package millimeeter.server.service.photo;
+
+import java.awt.Dimension;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalPhotoStoreTests {
+
+  @TempDir Path directory;
+  private LocalPhotoStore photoStore;
+
+  @BeforeEach
+  void init() {
+    photoStore = new LocalPhotoStore(directory.toString(), 60);
+  }
+
+  @AfterEach
+  void close() throws InterruptedException {
+    photoStore.shutdown();
+  }
+
+  @Test
+  void verifyIdenticalPhotosAreStoredOnceInShardedDirectory() throws Exception {
+    String name = photoStore.save(new ByteArrayInputStream("photo".getBytes()));
+    assertEquals(name, photoStore.save(new ByteArrayInputStream("photo".getBytes())));
+    assertNotEquals(name, photoStore.save(new ByteArrayInputStream("another".getBytes())));
+    assertTrue(LocalPhotoStore.CONTENT_ADDRESSED_NAME.matcher(name).matches());
+    assertEquals(
+        directory.resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name),
+        photoStore.resolve(name));
+    assertArrayEquals("photo".getBytes(), Files.readAllBytes(photoStore.resolve(name)));
+    assertArrayEquals("photo".getBytes(), read(name));
+    assertEquals(5, photoStore.size(name).orElseThrow());
+  }
+
+  @Test
+  void verifyConcurrentSavesReturnOnlyOnceStored() throws Exception {
+    List<Callable<String>> saves = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      byte[] photo = ("photo" + i % 4).getBytes();
+      saves.add(() -> photoStore.save(new ByteArrayInputStream(photo)));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(saves.size());
+    try {
+      for (Future<String> name : executor.invokeAll(saves)) {
+        assertTrue(Files.isRegularFile(photoStore.resolve(name.get())));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void verifySaveFailsOnceShutDown() throws Exception {
+    photoStore.shutdown();
+    assertThrows(
+        IOException.class, () -> photoStore.save(new ByteArrayInputStream("photo".getBytes())));
+  }
+
+  @Test
+  void verifyCheckedPhotoIsStoredWholeInSinglePass() throws Exception {
+    byte[] photo = Files.readAllBytes(JpegHeaderReaderTests.TEST_PHOTO_PATH);
+    AtomicReference<Dimension> dimension = new AtomicReference<>();
+    String name =
+        photoStore.save(
+            new ByteArrayInputStream(photo),
+            input -> dimension.set(JpegHeaderReader.readDimensions(input).orElseThrow()));
+    assertEquals(new Dimension(192, 256), dimension.get());
+    assertArrayEquals(photo, read(name));
+  }
+
+  @Test
+  void verifyRejectedPhotoIsNotStored() throws Exception {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            photoStore.save(
+                new ByteArrayInputStream("rejected".getBytes()),
+                input -> {
+                  input.read();
+                  throw new IllegalStateException();
+                }));
+    try (Stream<Path> files = Files.walk(directory)) {
+      assertEquals(List.of(directory), files.toList());
+    }
+  }
+
+  @Test
+  void verifyLegacyPhotosAreResolvedInRootDirectory() throws Exception {
+    Files.write(directory.resolve("photo1.jpg"), "legacy".getBytes());
+    assertTrue(photoStore.exists("photo1.jpg"));
+    assertArrayEquals("legacy".getBytes(), read("photo1.jpg"));
+    assertFalse(photoStore.exists("photo2.jpg"));
+    assertTrue(photoStore.open("photo2.jpg").isEmpty());
+    assertEquals(6, photoStore.size("photo1.jpg").orElseThrow());
+    assertTrue(photoStore.size("photo2.jpg").isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> photoStore.resolve("../photo1.jpg"));
+  }
+
+  @Test
+  void verifyOnlyUnreferencedPhotosPastGracePeriodAreCollected() throws Exception {
+    String referenced = photoStore.save(new ByteArrayInputStream("referenced".getBytes()));
+    String unreferenced = photoStore.save(new ByteArrayInputStream("unreferenced".getBytes()));
+    String recent = photoStore.save(new ByteArrayInputStream("recent".getBytes()));
+    photoStore.shutdown();
+    FileTime old = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+    for (String name : List.of(referenced, unreferenced)) {
+      Files.setLastModifiedTime(photoStore.resolve(name), old);
+    }
+
+    assertEquals(1, photoStore.collectGarbage(Set.of(referenced)));
+    assertTrue(photoStore.exists(referenced));
+    assertFalse(photoStore.exists(unreferenced));
+    assertTrue(photoStore.exists(recent));
+  }
+
+  byte[] read(String name) throws IOException {
+    try (InputStream inputStream = photoStore.open(name).orElseThrow()) {
+      return inputStream.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package millimeeter.server.service.photo;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PhotoVariantServiceTests {
+
+  @TempDir Path directory;
+  private LocalPhotoStore photoStore;
+  private PhotoVariantService photoVariantService;
+
+  @BeforeEach
+  void init() {
+    photoStore = new LocalPhotoStore(directory.toString(), 60);
+    photoVariantService = new PhotoVariantService(photoStore, 1, 10);
+  }
+
+  @AfterEach
+  void close() throws InterruptedException {
+    photoVariantService.shutdown();
+    photoStore.shutdown();
+  }
+
+  @Test
+  void verifyVariantsAreDownscaledButNeverUpscaled() throws Exception {
+    byte[] photo = Files.readAllBytes(JpegHeaderReaderTests.TEST_PHOTO_PATH);
+    String name = photoStore.save(new ByteArrayInputStream(photo));
+    photoVariantService.generate(name);
+
+    BufferedImage avatar = ImageIO.read(open(PhotoVariant.AVATAR.nameFor(name)));
+    assertEquals(128, avatar.getWidth());
+    assertEquals(171, avatar.getHeight());
+    // THE ORIGINAL IS NARROWER THAN A CARD
+    assertArrayEquals(photo, open(PhotoVariant.CARD.nameFor(name)).readAllBytes());
+  }
+
+  @Test
+  void verifyFailedOriginalIsNotReadAgain() throws Exception {
+    photoVariantService.shutdown();
+    PhotoStore spiedStore = spy(photoStore);
+    photoVariantService = new PhotoVariantService(spiedStore, 1, 10);
+    String failing = photoStore.save(new ByteArrayInputStream("not a photo".getBytes()));
+
+    photoVariantService.generateVariants(failing);
+    awaitGenerated(spiedStore, new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB));
+    photoVariantService.generateVariants(failing);
+    awaitGenerated(spiedStore, new BufferedImage(300, 400, BufferedImage.TYPE_INT_RGB));
+
+    verify(spiedStore, times(1)).open(failing);
+  }
+
+  // THE SINGLE WORKER RUNS IN ORDER, SO EVERYTHING QUEUED BEFORE THIS PHOTO HAS FINISHED
+  void awaitGenerated(PhotoStore spiedStore, BufferedImage image) throws Exception {
+    String name =
+        photoStore.save(new ByteArrayInputStream(PhotoVariantService.encode(image)));
+    photoVariantService.generateVariants(name);
+    verify(spiedStore, timeout(5000)).save(eq(PhotoVariant.CARD.nameFor(name)), any());
+  }
+
+  @Test
+  void verifyVariantNamesAreDerivedFromContentAddressedNamesOnly() {
+    String name = "0".repeat(64) + ".jpg";
+    assertEquals("0".repeat(64) + "-640.jpg", PhotoVariant.CARD.nameFor(name));
+    assertEquals(
+        Optional.of(name), PhotoVariant.findOriginalName(PhotoVariant.AVATAR.nameFor(name)));
+    assertEquals(Optional.empty(), PhotoVariant.findOriginalName("0".repeat(64) + "-1.jpg"));
+    assertEquals(Optional.empty(), PhotoVariant.findOriginalName(name));
+    assertEquals("photo1.jpg", PhotoVariant.AVATAR.nameFor("photo1.jpg"));
+  }
+
+  InputStream open(String name) throws Exception {
+    return photoStore.open(name).orElseThrow();
+  }
+}